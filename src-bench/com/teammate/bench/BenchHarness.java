@@ -0,0 +1,224 @@
+package com.teammate.bench;
+
+import java.util.*;
+
+/**
+ * BenchHarness - Warm-up, timing and JSON export for TeamMate benchmarks
+ *
+ * Each benchmark runs a number of untimed warm-up iterations so the JIT has
+ * compiled the hot paths, then timed iterations. Every iteration performs a
+ * known number of operations and returns a checksum, which the harness folds
+ * into a sink so the JIT cannot drop the work. A result holds the per-iteration
+ * scores (ops/s or ms/op), their mean and a 99.9% confidence half-width, the
+ * same shape as JMH's report.
+ *
+ * Results are printed as a table and can be written as a JSON array, one
+ * object per benchmark with its parameters, so runs of different releases can
+ * be compared with any JSON tool.
+ *
+ * @author Krisanthi Segar 2425596
+ * @version 1.0
+ * @since 2025
+ */
+public class BenchHarness {
+
+    /**
+     * How an iteration's time is reported
+     */
+    public enum Mode {
+        /** Operations per second (higher is better) */
+        THROUGHPUT("ops/s"),
+        /** Milliseconds per operation (lower is better) */
+        AVERAGE_TIME("ms/op");
+
+        private final String unit;
+
+        Mode(String unit) {
+            this.unit = unit;
+        }
+
+        public String getUnit() {
+            return unit;
+        }
+    }
+
+    /**
+     * One timed iteration
+     */
+    public interface Iteration {
+        /**
+         * Runs the measured work once
+         * @return Checksum of the work, so it cannot be optimized away
+         * @throws Exception if the benchmark fails
+         */
+        long run() throws Exception;
+    }
+
+    /**
+     * Summary of one benchmark
+     */
+    public static class Result {
+        private final String name;
+        private final Map<String, Object> params;
+        private final Mode mode;
+        private final double[] samples;
+
+        Result(String name, Map<String, Object> params, Mode mode, double[] samples) {
+            this.name = name;
+            this.params = params;
+            this.mode = mode;
+            this.samples = samples;
+        }
+
+        public String getName() { return name; }
+        public Map<String, Object> getParams() { return Collections.unmodifiableMap(params); }
+        public Mode getMode() { return mode; }
+        public double[] getSamples() { return samples.clone(); }
+
+        public double getScore() {
+            double sum = 0;
+            for (double sample : samples) sum += sample;
+            return sum / samples.length;
+        }
+
+        /**
+         * Half-width of the 99.9% confidence interval of the score
+         * @return Error, or NaN with fewer than two samples
+         */
+        public double getError() {
+            if (samples.length < 2) return Double.NaN;
+            double mean = getScore();
+            double squares = 0;
+            for (double sample : samples) squares += (sample - mean) * (sample - mean);
+            double stdDev = Math.sqrt(squares / (samples.length - 1));
+            int degrees = samples.length - 1;
+            double t = STUDENT_T_999[Math.min(degrees, STUDENT_T_999.length) - 1];
+            return t * stdDev / Math.sqrt(samples.length);
+        }
+    }
+
+    // Two-sided 99.9% Student t quantiles for 1-20 degrees of freedom; the last one is used beyond
+    private static final double[] STUDENT_T_999 = {
+            636.619, 31.599, 12.924, 8.610, 6.869, 5.959, 5.408, 5.041, 4.781, 4.587,
+            4.437, 4.318, 4.221, 4.140, 4.073, 4.015, 3.965, 3.922, 3.883, 3.850};
+
+    private final List<Result> results = new ArrayList<>();
+    private long sink;
+
+    /**
+     * Runs and records a benchmark
+     * @param name Benchmark name
+     * @param params Parameters shown next to the name and exported with the result
+     * @param mode Reported unit
+     * @param operations Operations performed by one iteration
+     * @param warmups Untimed iterations
+     * @param iterations Timed iterations
+     * @param iteration The measured work
+     * @return The result
+     * @throws Exception if the benchmark fails
+     */
+    public Result run(String name, Map<String, Object> params, Mode mode, long operations,
+                      int warmups, int iterations, Iteration iteration) throws Exception {
+        double[] samples = new double[iterations];
+        for (int i = 0; i < warmups + iterations; i++) {
+            long start = System.nanoTime();
+            sink += iteration.run();
+            long elapsed = Math.max(1, System.nanoTime() - start);
+            if (i >= warmups) {
+                samples[i - warmups] = mode == Mode.THROUGHPUT
+                        ? operations * 1e9 / elapsed
+                        : elapsed / 1e6 / operations;
+            }
+        }
+        Result result = new Result(name, new LinkedHashMap<>(params), mode, samples);
+        results.add(result);
+        System.out.println(format(result));
+        return result;
+    }
+
+    public List<Result> getResults() {
+        return Collections.unmodifiableList(results);
+    }
+
+    /**
+     * One table line for a result
+     * @param result The result
+     * @return Formatted line
+     */
+    public static String format(Result result) {
+        return String.format("%-40s %-24s %,16.3f +- %,12.3f %s", result.name, result.params,
+                result.getScore(), result.getError(), result.mode.getUnit());
+    }
+
+    /**
+     * All results as a JSON array
+     * @return JSON text
+     */
+    public String toJson() {
+        StringBuilder json = new StringBuilder("[\n");
+        for (int r = 0; r < results.size(); r++) {
+            Result result = results.get(r);
+            json.append("  {\n");
+            json.append("    \"benchmark\": ").append(quote(result.name)).append(",\n");
+            json.append("    \"mode\": ").append(quote(result.mode.name())).append(",\n");
+            json.append("    \"params\": {");
+            int k = 0;
+            for (Map.Entry<String, Object> param : result.params.entrySet()) {
+                json.append(k++ == 0 ? "" : ", ").append(quote(param.getKey())).append(": ")
+                        .append(value(param.getValue()));
+            }
+            json.append("},\n");
+            json.append("    \"primaryMetric\": {\n");
+            json.append("      \"score\": ").append(number(result.getScore())).append(",\n");
+            json.append("      \"scoreError\": ").append(number(result.getError())).append(",\n");
+            json.append("      \"scoreUnit\": ").append(quote(result.mode.getUnit())).append(",\n");
+            json.append("      \"samples\": [");
+            for (int i = 0; i < result.samples.length; i++) {
+                json.append(i == 0 ? "" : ", ").append(number(result.samples[i]));
+            }
+            json.append("]\n    }\n  }").append(r + 1 < results.size() ? ",\n" : "\n");
+        }
+        return json.append("]\n").toString();
+    }
+
+    /**
+     * Checksum of all iterations; print it so the work stays observable
+     * @return Sink value
+     */
+    public long getSink() {
+        return sink;
+    }
+
+    private static String value(Object value) {
+        if (value instanceof Number) return number(((Number) value).doubleValue());
+        if (value instanceof Boolean) return value.toString();
+        return quote(String.valueOf(value));
+    }
+
+    private static String number(double value) {
+        if (Double.isNaN(value) || Double.isInfinite(value)) return "null";
+        if (value == Math.rint(value) && Math.abs(value) < 1e15) return String.valueOf((long) value);
+        return String.valueOf(value);
+    }
+
+    private static String quote(String text) {
+        StringBuilder quoted = new StringBuilder("\"");
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '"': quoted.append("\\\""); break;
+                case '\\': quoted.append("\\\\"); break;
+                case '\n': quoted.append("\\n"); break;
+                case '\r': quoted.append("\\r"); break;
+                case '\t': quoted.append("\\t"); break;
+                default:
+                    if (c < 0x20) {
+                        quoted.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        quoted.append(c);
+                    }
+            }
+        }
+        return quoted.append('"').toString();
+    }
+}
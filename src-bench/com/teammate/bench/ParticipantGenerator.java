@@ -0,0 +1,411 @@
+package com.teammate.bench;
+
+import com.teammate.model.*;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * ParticipantGenerator - Streams synthetic participant CSVs for load testing
+ *
+ * Writes rows in the participant CSV format read by FileHandler
+ * (ID,Name,Email,PreferredGame,SkillLevel,PreferredRole,PersonalityScore,PersonalityType),
+ * drawing game, role, skill and personality from configurable weights.
+ * Personality is set as a share per type; the score is then uniform within the
+ * type's range, so the PersonalityType column always matches what the score
+ * classifies to.
+ *
+ * Rows are encoded straight into a reusable byte buffer (no String per row or
+ * field), so memory stays constant and output runs at disk speed for any row
+ * count. The same seed, settings and row count always give the same file.
+ *
+ * Profiles set all weights at once:
+ *   realistic        games as in participants_sample.csv, skill around 5.5, 20% Leaders (default)
+ *   uniform          every game, role, skill and score equally likely
+ *   leader-shortage  realistic, but only 5% Leaders (fewer Leaders than teams of 5)
+ *   dominant-game    realistic, but 70% of participants prefer FIFA
+ *
+ * Usage (built from the src-bench source root as described in TeamMateBench):
+ *   java -cp out com.teammate.bench.ParticipantGenerator --rows 5000000 --out big.csv
+ *       [--seed 42] [--profile leader-shortage] [--games FIFA=5,Chess=1]
+ *       [--roles ATTACKER=3,DEFENDER=1] [--skill-mean 6 --skill-sd 2]
+ *       [--personality LEADER=0.1,BALANCED=0.6,THINKER=0.3]
+ *
+ * @author Krisanthi Segar 2425596
+ * @version 1.0
+ * @since 2025
+ */
+public class ParticipantGenerator {
+
+    private static final byte[] HEADER = ("ID,Name,Email,PreferredGame,SkillLevel,PreferredRole," +
+            "PersonalityScore,PersonalityType\n").getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] NAME_PREFIX = ",Participant_".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] EMAIL_PREFIX = ",user".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] EMAIL_DOMAIN = "@university.edu,".getBytes(StandardCharsets.US_ASCII);
+    private static final int BUFFER_SIZE = 1 << 20;
+    // A row without its game name is at most about 130 bytes (three 19-digit row
+    // numbers plus fixed text), so capping game names keeps every row in MAX_ROW_BYTES
+    private static final int MAX_ROW_BYTES = 512;
+    public static final int MAX_GAME_NAME_BYTES = 256;
+    private static final int MAX_SKILL = 10;
+    private static final PersonalityType[] TYPES = PersonalityType.values();
+    private static final Role[] ROLES = Role.values();
+    private static final byte[][] ROLE_NAMES = new byte[ROLES.length][];
+    private static final byte[][] TYPE_NAMES = new byte[TYPES.length][];
+
+    static {
+        for (Role role : ROLES) {
+            ROLE_NAMES[role.ordinal()] = role.name().getBytes(StandardCharsets.US_ASCII);
+        }
+        for (PersonalityType type : TYPES) {
+            TYPE_NAMES[type.ordinal()] = type.name().getBytes(StandardCharsets.US_ASCII);
+        }
+    }
+
+    private final long seed;
+
+    // Cumulative weights per category; games also keep their encoded names
+    private byte[][] gameNames;
+    private double[] gameCumulative;
+    private double[] roleCumulative;
+    private double[] skillCumulative;
+    private double[] typeCumulative;
+
+    /**
+     * Creates a generator with the realistic profile
+     * @param seed Seed for every random draw
+     */
+    public ParticipantGenerator(long seed) {
+        this.seed = seed;
+        applyProfile("realistic");
+    }
+
+    /**
+     * Sets every weight from a named profile
+     * @param profile realistic, uniform, leader-shortage or dominant-game
+     */
+    public void applyProfile(String profile) {
+        Map<String, Double> games = new LinkedHashMap<>();
+        games.put("FIFA", 23.0);
+        games.put("CS:GO", 19.0);
+        games.put("DOTA 2", 17.0);
+        games.put("Basketball", 16.0);
+        games.put("Chess", 15.0);
+        games.put("Valorant", 10.0);
+        Map<PersonalityType, Double> personality = new EnumMap<>(PersonalityType.class);
+        personality.put(PersonalityType.LEADER, 0.20);
+        personality.put(PersonalityType.BALANCED, 0.50);
+        personality.put(PersonalityType.THINKER, 0.30);
+        Map<Role, Double> roles = new EnumMap<>(Role.class);
+        for (Role role : ROLES) roles.put(role, 1.0);
+
+        switch (profile) {
+            case "realistic":
+                setSkillNormal(5.5, 2.0);
+                break;
+            case "uniform":
+                games.replaceAll((game, weight) -> 1.0);
+                for (PersonalityType type : TYPES) {
+                    personality.put(type, (double) (type.getMaxScore() - type.getMinScore() + 1));
+                }
+                setSkillWeights(new double[]{1, 1, 1, 1, 1, 1, 1, 1, 1, 1});
+                break;
+            case "leader-shortage":
+                setSkillNormal(5.5, 2.0);
+                personality.put(PersonalityType.LEADER, 0.05);
+                personality.put(PersonalityType.BALANCED, 0.60);
+                personality.put(PersonalityType.THINKER, 0.35);
+                break;
+            case "dominant-game":
+                setSkillNormal(5.5, 2.0);
+                games.replaceAll((game, weight) -> game.equals("FIFA") ? 70.0 : 6.0);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown profile: " + profile);
+        }
+        setGameWeights(games);
+        setRoleWeights(roles);
+        setPersonalityWeights(personality);
+    }
+
+    /**
+     * Sets the preferred-game distribution
+     * @param weights Relative weight per game name (at most MAX_GAME_NAME_BYTES in UTF-8,
+     *                no commas, quotes or line breaks)
+     */
+    public void setGameWeights(Map<String, Double> weights) {
+        byte[][] names = new byte[weights.size()][];
+        double[] values = new double[weights.size()];
+        int i = 0;
+        for (Map.Entry<String, Double> entry : weights.entrySet()) {
+            String game = entry.getKey().trim();
+            if (game.isEmpty() || game.matches(".*[,\"\\r\\n].*")) {
+                throw new IllegalArgumentException("Invalid game name: '" + entry.getKey() + "'");
+            }
+            names[i] = game.getBytes(StandardCharsets.UTF_8);
+            if (names[i].length > MAX_GAME_NAME_BYTES) {
+                throw new IllegalArgumentException("Game name longer than " + MAX_GAME_NAME_BYTES + " bytes: '"
+                        + game.substring(0, 20) + "...'");
+            }
+            values[i++] = entry.getValue();
+        }
+        this.gameCumulative = cumulative(values);
+        this.gameNames = names;
+    }
+
+    /**
+     * Sets the preferred-role distribution; roles left out never occur
+     * @param weights Relative weight per role
+     */
+    public void setRoleWeights(Map<Role, Double> weights) {
+        double[] values = new double[ROLES.length];
+        for (Map.Entry<Role, Double> entry : weights.entrySet()) {
+            values[entry.getKey().ordinal()] = entry.getValue();
+        }
+        this.roleCumulative = cumulative(values);
+    }
+
+    /**
+     * Sets the skill distribution
+     * @param weights Relative weight of skill levels 1 to 10
+     */
+    public void setSkillWeights(double[] weights) {
+        if (weights.length != MAX_SKILL) {
+            throw new IllegalArgumentException("Expected " + MAX_SKILL + " skill weights, got " + weights.length);
+        }
+        this.skillCumulative = cumulative(weights);
+    }
+
+    /**
+     * Sets skills to a normal curve sampled at levels 1-10 (truncated at both ends)
+     * @param mean Mean skill
+     * @param stdDev Standard deviation (above 0)
+     */
+    public void setSkillNormal(double mean, double stdDev) {
+        if (!(stdDev > 0)) {
+            throw new IllegalArgumentException("Standard deviation must be positive");
+        }
+        double[] weights = new double[MAX_SKILL];
+        for (int skill = 1; skill <= MAX_SKILL; skill++) {
+            double z = (skill - mean) / stdDev;
+            weights[skill - 1] = Math.exp(-0.5 * z * z);
+        }
+        setSkillWeights(weights);
+    }
+
+    /**
+     * Sets the share of each personality type; scores are uniform within the type's range
+     * @param weights Relative weight per type; types left out never occur
+     */
+    public void setPersonalityWeights(Map<PersonalityType, Double> weights) {
+        double[] values = new double[TYPES.length];
+        for (Map.Entry<PersonalityType, Double> entry : weights.entrySet()) {
+            values[entry.getKey().ordinal()] = entry.getValue();
+        }
+        this.typeCumulative = cumulative(values);
+    }
+
+    /**
+     * Writes a header and rows to a file, replacing it
+     * @param file Output file
+     * @param rows Number of participants
+     * @return Bytes written
+     * @throws IOException if writing fails
+     */
+    public long write(Path file, long rows) throws IOException {
+        try (OutputStream out = Files.newOutputStream(file)) {
+            return write(out, rows);
+        }
+    }
+
+    /**
+     * Writes a header and rows to a stream; the stream is not closed
+     * @param out Output stream (written in large blocks, no buffering needed)
+     * @param rows Number of participants
+     * @return Bytes written
+     * @throws IOException if writing fails
+     */
+    public long write(OutputStream out, long rows) throws IOException {
+        SplittableRandom random = new SplittableRandom(seed);
+        byte[] buffer = new byte[BUFFER_SIZE];
+        int position = put(buffer, 0, HEADER);
+        long written = 0;
+
+        for (long n = 1; n <= rows; n++) {
+            if (position > BUFFER_SIZE - MAX_ROW_BYTES) {
+                out.write(buffer, 0, position);
+                written += position;
+                position = 0;
+            }
+            int game = sample(gameCumulative, random);
+            int skill = 1 + sample(skillCumulative, random);
+            int role = sample(roleCumulative, random);
+            PersonalityType type = TYPES[sample(typeCumulative, random)];
+            int score = type.getMinScore() + random.nextInt(type.getMaxScore() - type.getMinScore() + 1);
+
+            buffer[position++] = 'P';
+            position = putNumber(buffer, position, n, 3);
+            position = put(buffer, position, NAME_PREFIX);
+            position = putNumber(buffer, position, n, 1);
+            position = put(buffer, position, EMAIL_PREFIX);
+            position = putNumber(buffer, position, n, 1);
+            position = put(buffer, position, EMAIL_DOMAIN);
+            position = put(buffer, position, gameNames[game]);
+            buffer[position++] = ',';
+            position = putNumber(buffer, position, skill, 1);
+            buffer[position++] = ',';
+            position = put(buffer, position, ROLE_NAMES[role]);
+            buffer[position++] = ',';
+            position = putNumber(buffer, position, score, 1);
+            buffer[position++] = ',';
+            position = put(buffer, position, TYPE_NAMES[type.ordinal()]);
+            buffer[position++] = '\n';
+        }
+        out.write(buffer, 0, position);
+        return written + position;
+    }
+
+    /**
+     * Running totals of the weights, normalized to end at 1
+     */
+    private static double[] cumulative(double[] weights) {
+        double total = 0;
+        for (double weight : weights) {
+            if (!(weight >= 0) || Double.isInfinite(weight)) {
+                throw new IllegalArgumentException("Weights must be finite and not negative");
+            }
+            total += weight;
+        }
+        if (total <= 0) {
+            throw new IllegalArgumentException("At least one weight must be positive");
+        }
+        double[] cumulative = new double[weights.length];
+        double sum = 0;
+        for (int i = 0; i < weights.length; i++) {
+            sum += weights[i];
+            cumulative[i] = sum / total;
+        }
+        cumulative[weights.length - 1] = 1.0;
+        return cumulative;
+    }
+
+    /**
+     * Index of the first running total above a uniform draw; zero-weight entries are never picked
+     */
+    private static int sample(double[] cumulative, SplittableRandom random) {
+        double u = random.nextDouble();
+        int lo = 0;
+        int hi = cumulative.length - 1;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (cumulative[mid] <= u) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    private static int put(byte[] buffer, int position, byte[] bytes) {
+        System.arraycopy(bytes, 0, buffer, position, bytes.length);
+        return position + bytes.length;
+    }
+
+    /**
+     * Writes a non-negative number in decimal, zero-padded to at least minDigits
+     */
+    private static int putNumber(byte[] buffer, int position, long value, int minDigits) {
+        int digits = 1;
+        for (long rest = value / 10; rest > 0; rest /= 10) digits++;
+        digits = Math.max(digits, minDigits);
+        for (int i = position + digits - 1; i >= position; i--) {
+            buffer[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        return position + digits;
+    }
+
+    public static void main(String[] args) throws IOException {
+        long rows = 1_000_000;
+        long seed = 42;
+        String out = "participants_generated.csv";
+        String profile = "realistic";
+        Map<String, String> overrides = new LinkedHashMap<>();
+
+        for (int i = 0; i < args.length; i += 2) {
+            if (i + 1 == args.length) {
+                usage("Missing value for " + args[i]);
+            }
+            String value = args[i + 1];
+            switch (args[i]) {
+                case "--rows": rows = Long.parseLong(value); break;
+                case "--seed": seed = Long.parseLong(value); break;
+                case "--out": out = value; break;
+                case "--profile": profile = value; break;
+                case "--games":
+                case "--roles":
+                case "--personality":
+                case "--skill-mean":
+                case "--skill-sd":
+                    overrides.put(args[i], value);
+                    break;
+                default:
+                    usage("Unknown option: " + args[i]);
+            }
+        }
+
+        ParticipantGenerator generator = new ParticipantGenerator(seed);
+        generator.applyProfile(profile);
+        if (overrides.containsKey("--games")) {
+            Map<String, Double> games = new LinkedHashMap<>();
+            parseWeights(overrides.get("--games")).forEach(games::put);
+            generator.setGameWeights(games);
+        }
+        if (overrides.containsKey("--roles")) {
+            Map<Role, Double> roles = new EnumMap<>(Role.class);
+            parseWeights(overrides.get("--roles")).forEach((name, w) -> roles.put(Role.valueOf(name.toUpperCase()), w));
+            generator.setRoleWeights(roles);
+        }
+        if (overrides.containsKey("--personality")) {
+            Map<PersonalityType, Double> types = new EnumMap<>(PersonalityType.class);
+            parseWeights(overrides.get("--personality"))
+                    .forEach((name, w) -> types.put(PersonalityType.valueOf(name.toUpperCase()), w));
+            generator.setPersonalityWeights(types);
+        }
+        if (overrides.containsKey("--skill-mean") || overrides.containsKey("--skill-sd")) {
+            generator.setSkillNormal(Double.parseDouble(overrides.getOrDefault("--skill-mean", "5.5")),
+                    Double.parseDouble(overrides.getOrDefault("--skill-sd", "2.0")));
+        }
+
+        long start = System.nanoTime();
+        long bytes = generator.write(Paths.get(out), rows);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("Wrote %,d participants (%,d bytes) to %s in %.2f s (%.1f MB/s)%n",
+                rows, bytes, out, seconds, bytes / seconds / (1024 * 1024));
+    }
+
+    /**
+     * Parses NAME=weight pairs separated by commas
+     */
+    private static Map<String, Double> parseWeights(String text) {
+        Map<String, Double> weights = new LinkedHashMap<>();
+        for (String pair : text.split(",")) {
+            int equals = pair.lastIndexOf('=');
+            if (equals <= 0) {
+                usage("Expected NAME=weight, got '" + pair + "'");
+            }
+            weights.put(pair.substring(0, equals).trim(), Double.parseDouble(pair.substring(equals + 1).trim()));
+        }
+        return weights;
+    }
+
+    private static void usage(String problem) {
+        System.err.println(problem);
+        System.err.println("Usage: ParticipantGenerator [--rows N] [--out FILE] [--seed S] " +
+                "[--profile realistic|uniform|leader-shortage|dominant-game] [--games NAME=W,...] " +
+                "[--roles ROLE=W,...] [--skill-mean M] [--skill-sd SD] [--personality TYPE=W,...]");
+        System.exit(2);
+    }
+}
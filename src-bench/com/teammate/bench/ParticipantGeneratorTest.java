@@ -0,0 +1,126 @@
+package com.teammate.bench;
+
+import com.teammate.model.*;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Tests for ParticipantGenerator
+ *
+ * Lives next to the generator in the src-bench source root; build it as
+ * described in TeamMateBench and run:
+ *   java -cp out com.teammate.bench.ParticipantGeneratorTest
+ *
+ * @author Krisanthi Segar 2425596
+ * @version 1.0
+ * @since 2025
+ */
+public class ParticipantGeneratorTest {
+
+    private static int testsRun = 0;
+    private static int testsPassed = 0;
+    private static int testsFailed = 0;
+
+    public static void main(String[] args) {
+        System.out.println("\n[UNIT TESTS] ParticipantGenerator");
+        System.out.println("----------------------------------------------------------------");
+
+        test("Same seed gives byte-identical output across buffer flushes", () -> {
+            byte[] first = generate(new ParticipantGenerator(42), 30_000);
+            byte[] second = generate(new ParticipantGenerator(42), 30_000);
+            byte[] other = generate(new ParticipantGenerator(43), 30_000);
+            return first.length > 2 << 20 &&
+                    Arrays.equals(first, second) &&
+                    !Arrays.equals(first, other);
+        });
+
+        test("Generated shares match the configured weights", () -> {
+            ParticipantGenerator generator = new ParticipantGenerator(7);
+            Map<String, Double> games = new LinkedHashMap<>();
+            games.put("FIFA", 3.0);
+            games.put("Chess", 1.0);
+            generator.setGameWeights(games);
+            generator.setRoleWeights(Collections.singletonMap(Role.ATTACKER, 1.0));
+            generator.setSkillWeights(new double[]{0, 1, 0, 0, 0, 0, 0, 0, 1, 0});
+            Map<PersonalityType, Double> types = new EnumMap<>(PersonalityType.class);
+            types.put(PersonalityType.LEADER, 1.0);
+            types.put(PersonalityType.THINKER, 3.0);
+            generator.setPersonalityWeights(types);
+
+            int rows = 200_000;
+            String[] lines = new String(generate(generator, rows), StandardCharsets.UTF_8).split("\n");
+            int fifa = 0, skillTwo = 0, leaders = 0;
+            for (int i = 1; i < lines.length; i++) {
+                String[] fields = lines[i].split(",");
+                if (fields.length != 8) return false;
+                PersonalityType type = PersonalityType.valueOf(fields[7]);
+                int score = Integer.parseInt(fields[6]);
+                if (!fields[5].equals("ATTACKER") || score < type.getMinScore() || score > type.getMaxScore()) {
+                    return false;
+                }
+                if (fields[3].equals("FIFA")) fifa++;
+                else if (!fields[3].equals("Chess")) return false;
+                if (fields[4].equals("2")) skillTwo++;
+                else if (!fields[4].equals("9")) return false;
+                if (type == PersonalityType.LEADER) leaders++;
+            }
+            return lines.length == rows + 1 &&
+                    Math.abs(fifa / (double) rows - 0.75) < 0.01 &&
+                    Math.abs(skillTwo / (double) rows - 0.50) < 0.01 &&
+                    Math.abs(leaders / (double) rows - 0.25) < 0.01;
+        });
+
+        test("Game names up to the row limit are written whole; longer ones are rejected", () -> {
+            char[] longest = new char[ParticipantGenerator.MAX_GAME_NAME_BYTES];
+            Arrays.fill(longest, 'g');
+            ParticipantGenerator generator = new ParticipantGenerator(1);
+            generator.setGameWeights(Collections.singletonMap(new String(longest), 1.0));
+
+            String[] lines = new String(generate(generator, 20_000), StandardCharsets.UTF_8).split("\n");
+            for (int i = 1; i < lines.length; i++) {
+                String[] fields = lines[i].split(",");
+                if (fields.length != 8 || fields[3].length() != longest.length) return false;
+            }
+
+            try {
+                generator.setGameWeights(Collections.singletonMap(new String(longest) + "g", 1.0));
+                return false;
+            } catch (IllegalArgumentException e) {
+                return lines.length == 20_001;
+            }
+        });
+
+        System.out.println("\nTotal Tests Run: " + testsRun);
+        System.out.println("Tests Passed: " + testsPassed);
+        System.out.println("Tests Failed: " + testsFailed);
+    }
+
+    private static byte[] generate(ParticipantGenerator generator, int rows) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long written = generator.write(out, rows);
+        return written == out.size() ? out.toByteArray() : new byte[0];
+    }
+
+    private static void test(String description, TestCase testCase) {
+        testsRun++;
+        try {
+            boolean passed = testCase.run();
+            if (passed) {
+                testsPassed++;
+                System.out.println( "[PASSED]"+ description);
+            } else {
+                testsFailed++;
+                System.err.println("[FAILED]"+description);
+            }
+        } catch (Exception e) {
+            testsFailed++;
+            System.err.println( "[FAILED]"+ description + " (Exception: " + e.getMessage() + ")");
+        }
+    }
+
+    @FunctionalInterface
+    interface TestCase {
+        boolean run() throws Exception;
+    }
+}
@@ -0,0 +1,263 @@
+package com.teammate.bench;
+
+import com.teammate.model.*;
+import com.teammate.service.*;
+import java.io.*;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * TeamMateBench - Benchmarks for formation, scoring, CSV I/O and participant changes
+ *
+ * Benchmarks (select with --only, comma separated):
+ *   formation  TeamBuilder.formTeams, ms per run, at each --sizes participant count;
+ *              seeded, with the size-based local-search iteration count and no time cap
+ *   scoring    PlacementScorer.calculateTeamScore, team scores per second
+ *   csv        FileHandler.loadParticipants and saveTeams, rows per second
+ *   users      UserService register (CSV append), update and delete (CSV rewrite), ms per change
+ *
+ * The benchmarks live in the separate src-bench source root so they are not
+ * part of the application build. Build the main sources first, then this root
+ * against them, and run with enough heap for the largest size:
+ *   javac -encoding UTF-8 -d out $(find src -name '*.java')
+ *   javac -encoding UTF-8 -cp out -d out $(find src-bench -name '*.java')
+ *   java -Xmx4g -cp out com.teammate.bench.TeamMateBench --json bench.json
+ *
+ * Options:
+ *   --sizes 100,10000,100000,1000000   Formation sizes (default as shown)
+ *   --only formation,scoring,csv,users Benchmarks to run (default all)
+ *   --json FILE                        Write results as JSON
+ *
+ * Files are written to a temporary directory that is deleted afterwards;
+ * formation still appends to the application log in the working directory,
+ * as it does in production.
+ *
+ * @author Krisanthi Segar 2425596
+ * @version 1.0
+ * @since 2025
+ */
+public class TeamMateBench {
+
+    private static final int TEAM_SIZE = 5;
+    private static final long FORMATION_SEED = 42;
+    private static final int SCORING_TEAMS = 10_000;
+    private static final int SCORING_PROBES = 100;
+    private static final int CSV_ROWS = 100_000;
+    private static final int USER_BASE = 1_000;
+    private static final int USER_CHANGES = 20;
+    private static final String[] GAMES = {"FIFA", "Chess", "Valorant", "Basketball", "DOTA 2", "CS:GO"};
+
+    private final BenchHarness harness = new BenchHarness();
+    private final Path workDir;
+
+    private TeamMateBench(Path workDir) {
+        this.workDir = workDir;
+    }
+
+    public static void main(String[] args) throws Exception {
+        int[] sizes = {100, 10_000, 100_000, 1_000_000};
+        Set<String> only = new HashSet<>(Arrays.asList("formation", "scoring", "csv", "users"));
+        String jsonFile = null;
+
+        for (int i = 0; i < args.length; i++) {
+            String value = i + 1 < args.length ? args[i + 1] : "";
+            switch (args[i]) {
+                case "--sizes":
+                    sizes = Arrays.stream(value.split(",")).mapToInt(s -> Integer.parseInt(s.trim())).toArray();
+                    i++;
+                    break;
+                case "--only":
+                    only = new HashSet<>(Arrays.asList(value.split(",")));
+                    i++;
+                    break;
+                case "--json":
+                    jsonFile = value;
+                    i++;
+                    break;
+                default:
+                    System.err.println("Unknown option: " + args[i]);
+                    System.exit(2);
+            }
+        }
+
+        Path workDir = Files.createTempDirectory("teammate-bench");
+        TeamMateBench bench = new TeamMateBench(workDir);
+        try {
+            System.out.println("Java " + System.getProperty("java.version") + ", " +
+                    Runtime.getRuntime().availableProcessors() + " CPUs, max heap " +
+                    Runtime.getRuntime().maxMemory() / (1024 * 1024) + " MB");
+            if (only.contains("formation")) bench.formation(sizes);
+            if (only.contains("scoring")) bench.scoring();
+            if (only.contains("csv")) bench.csv();
+            if (only.contains("users")) bench.users();
+        } finally {
+            deleteAll(workDir);
+        }
+
+        if (jsonFile != null) {
+            Files.write(Paths.get(jsonFile), bench.harness.toJson().getBytes("UTF-8"));
+            System.out.println("Results written to " + jsonFile);
+        }
+        System.out.println("(checksum " + bench.harness.getSink() + ")");
+    }
+
+    /**
+     * TeamBuilder.formTeams end to end; fewer iterations as the size grows
+     *
+     * Every run uses the same seed and a fixed number of local-search swaps
+     * instead of the default one-second cap, so runs do the same work and the
+     * timing does not depend on where the clock happens to stop the search.
+     */
+    private void formation(int[] sizes) throws Exception {
+        for (int size : sizes) {
+            List<Participant> participants = participants(size, new Random(size));
+            int warmups = size <= 10_000 ? 3 : size <= 100_000 ? 1 : 0;
+            int iterations = size <= 10_000 ? 5 : size <= 100_000 ? 3 : 1;
+            harness.run("formation.formTeams", params("participants", size), BenchHarness.Mode.AVERAGE_TIME, 1,
+                    warmups, iterations, () -> {
+                        TeamBuilder builder = new TeamBuilder(participants, TEAM_SIZE, FORMATION_SEED);
+                        builder.setOptimizationBudget(-1, 0);
+                        List<Team> teams = builder.formTeams();
+                        return teams.size();
+                    });
+        }
+    }
+
+    /**
+     * calculateTeamScore of unplaced participants against partly filled teams
+     */
+    private void scoring() throws Exception {
+        Random random = new Random(7);
+        FormationColumns columns = new FormationColumns(TEAM_SIZE, SCORING_TEAMS * TEAM_SIZE, SCORING_TEAMS);
+        for (int t = 0; t < SCORING_TEAMS; t++) {
+            columns.addTeam();
+            int members = 1 + random.nextInt(TEAM_SIZE - 1);
+            for (int k = 0; k < members; k++) {
+                columns.add(columns.addParticipant(participant(t * TEAM_SIZE + k, random)), t);
+            }
+        }
+        int firstProbe = columns.getParticipantCount();
+        for (int i = 0; i < SCORING_PROBES; i++) {
+            columns.addParticipant(participant(SCORING_TEAMS * TEAM_SIZE + i, random));
+        }
+
+        PlacementScorer scorer = new PlacementScorer(new Random(7));
+        harness.run("scoring.calculateTeamScore", params("teams", SCORING_TEAMS), BenchHarness.Mode.THROUGHPUT,
+                (long) SCORING_TEAMS * SCORING_PROBES, 5, 10, () -> {
+                    long sum = 0;
+                    for (int p = firstProbe; p < firstProbe + SCORING_PROBES; p++) {
+                        for (int t = 0; t < SCORING_TEAMS; t++) {
+                            sum += scorer.calculateTeamScore(columns, t, p, 5.5);
+                        }
+                    }
+                    return sum;
+                });
+    }
+
+    /**
+     * FileHandler CSV reads and writes, scored in rows per second
+     */
+    private void csv() throws Exception {
+        List<Participant> participants = participants(CSV_ROWS, new Random(11));
+        String participantFile = workDir.resolve("participants.csv").toString();
+        String teamFile = workDir.resolve("teams.csv").toString();
+        new FileHandler("", participantFile).saveParticipants(participants, participantFile);
+
+        harness.run("csv.loadParticipants", params("rows", CSV_ROWS), BenchHarness.Mode.THROUGHPUT, CSV_ROWS,
+                3, 5, () -> new FileHandler(participantFile, "").loadParticipants().size());
+
+        List<Team> teams = new ArrayList<>();
+        for (int i = 0; i < CSV_ROWS; i += TEAM_SIZE) {
+            Team team = new Team("TEAM_" + (teams.size() + 1), TEAM_SIZE);
+            for (int k = i; k < Math.min(CSV_ROWS, i + TEAM_SIZE); k++) {
+                team.addMember(participants.get(k));
+            }
+            teams.add(team);
+        }
+        harness.run("csv.saveTeams", params("rows", CSV_ROWS), BenchHarness.Mode.THROUGHPUT, CSV_ROWS,
+                3, 5, () -> {
+                    new FileHandler("", teamFile).saveTeams(teams);
+                    return new File(teamFile).length();
+                });
+    }
+
+    /**
+     * UserService changes against a CSV that already holds USER_BASE participants
+     */
+    private void users() throws Exception {
+        String csvFile = workDir.resolve("users.csv").toString();
+        List<Participant> base = participants(USER_BASE, new Random(13));
+        new FileHandler("", csvFile).saveParticipants(base, csvFile);
+        UserService service = new UserService(csvFile);
+        service.loadFromCSV(csvFile);
+        Random random = new Random(13);
+        List<String> added = new ArrayList<>();
+
+        harness.run("users.register", params("participants", USER_BASE), BenchHarness.Mode.AVERAGE_TIME,
+                USER_CHANGES, 3, 10, () -> {
+                    long sum = 0;
+                    for (int i = 0; i < USER_CHANGES; i++) {
+                        Participant p = service.registerParticipant("Bench User", "bench@uni.edu",
+                                GAMES[random.nextInt(GAMES.length)], 1 + random.nextInt(10),
+                                Role.values()[random.nextInt(Role.values().length)], 50 + random.nextInt(51));
+                        added.add(p.getId());
+                        sum += p.getSkillLevel();
+                    }
+                    return sum;
+                });
+
+        harness.run("users.update", params("participants", USER_BASE), BenchHarness.Mode.AVERAGE_TIME,
+                USER_CHANGES, 3, 10, () -> {
+                    for (int i = 0; i < USER_CHANGES; i++) {
+                        Participant p = base.get(random.nextInt(base.size()));
+                        p.setSkillLevel(1 + random.nextInt(10));
+                        service.updateParticipant(p);
+                    }
+                    return service.getAllParticipants().size();
+                });
+
+        // Delete what register added, USER_CHANGES at a time, so the base size stays put
+        int[] next = {0};
+        int iterations = Math.min(10, added.size() / USER_CHANGES - 1);
+        harness.run("users.delete", params("participants", USER_BASE), BenchHarness.Mode.AVERAGE_TIME,
+                USER_CHANGES, 1, iterations, () -> {
+                    long deleted = 0;
+                    for (int i = 0; i < USER_CHANGES; i++) {
+                        if (service.deleteParticipant(added.get(next[0]++))) deleted++;
+                    }
+                    return deleted;
+                });
+    }
+
+    private static Map<String, Object> params(String name, Object value) {
+        Map<String, Object> params = new LinkedHashMap<>();
+        params.put(name, value);
+        return params;
+    }
+
+    private static List<Participant> participants(int count, Random random) {
+        List<Participant> participants = new ArrayList<>(count);
+        GameDictionary games = new GameDictionary();
+        for (int i = 0; i < count; i++) {
+            Participant p = participant(i, random);
+            games.assign(p);
+            participants.add(p);
+        }
+        return participants;
+    }
+
+    private static Participant participant(int n, Random random) {
+        return new Participant(String.format("P%06d", n + 1), "Bench " + n, "p" + n + "@bench.edu",
+                GAMES[random.nextInt(GAMES.length)], 1 + random.nextInt(10),
+                Role.values()[random.nextInt(Role.values().length)], 50 + random.nextInt(51));
+    }
+
+    private static void deleteAll(Path dir) throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir)) {
+            for (Path file : files) {
+                Files.deleteIfExists(file);
+            }
+        }
+        Files.deleteIfExists(dir);
+    }
+}
@@ -4,6 +4,7 @@ import com.teammate.model.*;
 import com.teammate.service.*;
 import com.teammate.util.*;
 import java.util.*;
+import java.util.concurrent.*;
 
 /**
  * TeamMate: Intelligent Team Formation System
@@ -22,9 +23,12 @@ public class TeamMateApp {
 
     private static final String ORGANIZER_PASSWORD = "Teammate";
     private static final String PARTICIPANT_CSV = "participants_sample.csv";
-    private static final Scanner scanner = new Scanner(System.in);
+    private static final int ONLINE_TEAM_SIZE = 5;
+    private static final long ONLINE_REBALANCE_MILLIS = 30_000;
+    private static final ConsoleInput input = new ConsoleInput(System.in);
     private static UserService userService;
     private static TeamService teamService;
+    private static OnlineTeamFormation onlineFormation;
 
     public static void main(String[] args) {
         Logger.logInfo("TeamMate application started");
@@ -37,6 +41,12 @@ public class TeamMateApp {
         try {
             userService = new UserService(PARTICIPANT_CSV);
             teamService = new TeamService();
+            userService.setTeamService(teamService);
+
+            // Provisional teams, filled as participants register or are loaded
+            onlineFormation = new OnlineTeamFormation(ONLINE_TEAM_SIZE);
+            userService.setOnlineFormation(onlineFormation);
+            onlineFormation.startRebalancing(ONLINE_REBALANCE_MILLIS);
 
             boolean exit = false;
             while (!exit) {
@@ -64,9 +74,10 @@ public class TeamMateApp {
             System.err.println("[ERROR] Application error: " + e.getMessage());
             Logger.logException("Critical application error", e);
         } finally {
-            if (scanner != null) {
-                scanner.close();
+            if (onlineFormation != null) {
+                onlineFormation.stopRebalancing();
             }
+            input.close();
             Logger.logInfo("Application terminated");
         }
     }
@@ -334,6 +345,11 @@ public class TeamMateApp {
 
     private static void viewParticipantTeam(Participant participant) {
         Team team = teamService.getTeamByParticipant(participant.getId());
+        boolean provisional = false;
+        if (team == null && onlineFormation != null) {
+            team = onlineFormation.getTeam(participant.getId());
+            provisional = team != null;
+        }
 
         if (team == null) {
             System.out.println("\n[INFO] You are not assigned to a team yet.");
@@ -341,14 +357,18 @@ public class TeamMateApp {
             return;
         }
 
-        System.out.println("\n[YOUR TEAM: " + team.getTeamId() + "]");
+        System.out.println("\n[YOUR TEAM: " + team.getTeamId() + (provisional ? " (provisional)" : "") + "]");
         System.out.println("================================================================");
         System.out.println("Team Size: " + team.getCurrentSize() + "/" + team.getTeamSize());
         System.out.println("Average Skill: " + String.format("%.2f", team.getAverageSkill()));
+        if (provisional) {
+            System.out.println("Placed on registration; may change until the organizer generates teams.");
+        }
         System.out.println("\nTeam Members:");
         System.out.println("----------------------------------------------------------------");
 
-        for (Participant member : team.getMembers()) {
+        for (int i = 0; i < team.getCurrentSize(); i++) {
+            Participant member = team.getMember(i);
             String marker = member.getId().equals(participant.getId()) ? " (YOU)" : "";
             System.out.printf("%-15s | %-10s | %-12s | Skill: %d%s\n",
                     member.getName(),
@@ -396,10 +416,11 @@ public class TeamMateApp {
             System.out.println("  6. View All Teams with Statistics");
             System.out.println("  7. View Unassigned Participants");
             System.out.println("  8. Export Teams to CSV");
+            System.out.println("  9. View Formation Metrics");
             System.out.println("  0. Back to Main Menu");
             System.out.println("================================================================");
 
-            String choice = getUserInput("Enter your choice (0-8): ");
+            String choice = getUserInput("Enter your choice (0-9): ");
 
             switch (choice) {
                 case "1": viewAllParticipants(); break;
@@ -410,6 +431,7 @@ public class TeamMateApp {
                 case "6": viewAllTeamsWithStatistics(); break;
                 case "7": viewUnassignedParticipants(); break;
                 case "8": exportTeamsToCSV(); break;
+                case "9": viewFormationMetrics(); break;
                 case "0": back = true; break;
                 default: System.err.println("[ERROR] Invalid choice.");
             }
@@ -482,10 +504,18 @@ public class TeamMateApp {
             }
 
             System.out.println("\n[INFO] Generating teams using concurrent algorithm...");
+            System.out.println("[INFO] Press Enter to stop early and keep the teams formed so far.");
 
-            List<Team> teams = teamService.generateTeams(participants, teamSize);
+            List<Team> teams = generateCancellable(participants, teamSize);
 
             System.out.println("\n[SUCCESS] Generated " + teams.size() + " teams!");
+            FormationResult result = teamService.getLastResult();
+            if (result != null && !result.isComplete()) {
+                System.out.println("[WARNING] Formation stopped early: " +
+                        (result.getCompletion() == FormationResult.Completion.PARTIAL
+                                ? result.getUnassignedCount() + " participants are not placed."
+                                : "everyone is placed, but teams may be less balanced."));
+            }
             System.out.println("Use '7. View All Teams with Statistics' to see details.");
             System.out.println("Use '9. Export Teams to CSV' to save the results.");
 
@@ -497,6 +527,41 @@ public class TeamMateApp {
         }
     }
 
+    /**
+     * Runs team generation on a background thread; pressing Enter while it
+     * runs calls TeamService.cancelGeneration()
+     *
+     * Only a line typed after generation started counts as a cancel; lines
+     * typed ahead stay queued for the next prompts.
+     */
+    private static List<Team> generateCancellable(List<Participant> participants, int teamSize) throws Exception {
+        FutureTask<List<Team>> generation = new FutureTask<>(() -> teamService.generateTeams(participants, teamSize));
+        Thread worker = new Thread(generation, "team-generation");
+        worker.setDaemon(true);
+        long started = input.mark();
+        worker.start();
+
+        boolean stopRequested = false;
+        boolean stopped = false;
+        while (true) {
+            try {
+                return generation.get(100, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                if (!stopRequested && input.takeLineAfter(started)) {
+                    stopRequested = true;
+                    System.out.println("[INFO] Stopping team generation...");
+                }
+                // Retried until the generation has registered its deadline
+                if (stopRequested && !stopped) {
+                    stopped = teamService.cancelGeneration();
+                }
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                throw cause instanceof Exception ? (Exception) cause : e;
+            }
+        }
+    }
+
     /**
      * UC-05: View All Teams WITH COMPREHENSIVE STATISTICS
      */
@@ -519,7 +584,8 @@ public class TeamMateApp {
 
             // Display members
             System.out.println("MEMBERS:");
-            for (Participant member : team.getMembers()) {
+            for (int i = 0; i < team.getCurrentSize(); i++) {
+                Participant member = team.getMember(i);
                 System.out.printf("  %-15s | %-10s | %-12s | %-15s | Skill: %d\n",
                         member.getName(),
                         member.getPersonalityType(),
@@ -551,9 +617,7 @@ public class TeamMateApp {
             // Game distribution
             System.out.print("  Games: ");
             Set<String> games = new HashSet<>();
-            for (Participant p : team.getMembers()) {
-                games.add(p.getPreferredGame());
-            }
+            team.forEachMember(p -> games.add(p.getPreferredGame()));
             for (String game : games) {
                 int count = team.getGameCount(game);
                 System.out.print(game + "(" + count + ") ");
@@ -579,6 +643,9 @@ public class TeamMateApp {
         long balancedTeams = teams.stream().filter(Team::isBalanced).count();
         System.out.printf("Balanced Teams: %d/%d (%.1f%%)\n",
                 balancedTeams, teams.size(), (balancedTeams * 100.0 / teams.size()));
+
+        System.out.println("\nQUALITY REPORT:");
+        System.out.println(QualityReport.scoreParallel(teams).format());
         System.out.println("================================================================");
     }
 
@@ -588,9 +655,7 @@ public class TeamMateApp {
 
         Set<String> assignedIds = new HashSet<>();
         for (Team team : teams) {
-            for (Participant p : team.getMembers()) {
-                assignedIds.add(p.getId());
-            }
+            team.forEachMember(p -> assignedIds.add(p.getId()));
         }
 
         List<Participant> unassigned = new ArrayList<>();
@@ -628,6 +693,21 @@ public class TeamMateApp {
         System.out.println("Assigned: " + (allParticipants.size() - unassigned.size()));
     }
 
+    private static void viewFormationMetrics() {
+        FormationMetrics metrics = teamService.getLastMetrics();
+
+        System.out.println("\n[FORMATION METRICS]");
+        System.out.println("================================================================");
+
+        if (metrics == null) {
+            System.out.println("[INFO] No metrics yet. Generate teams first.");
+            return;
+        }
+
+        System.out.println(metrics.format());
+        System.out.println("================================================================");
+    }
+
     private static void exportTeamsToCSV() {
         try {
             List<Team> teams = teamService.getAllTeams();
@@ -731,10 +811,7 @@ public class TeamMateApp {
 
     private static String getUserInput(String prompt) {
         System.out.print(prompt);
-        try {
-            return scanner.nextLine().trim();
-        } catch (Exception e) {
-            return "";
-        }
+        String line = input.nextLine();
+        return line == null ? "" : line.trim();
     }
 }
\ No newline at end of file
@@ -0,0 +1,189 @@
+package com.teammate.model;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * GameDictionary - Shared spellings and dense integer IDs for game names
+ *
+ * Game names are compared ignoring case and surrounding spaces throughout the
+ * system. A dictionary folds every spelling of a game ("FIFA", "fifa", " Fifa ")
+ * to one ID from 0 upwards, in the order games are first seen, so teams can be
+ * counted by ID instead of comparing strings.
+ *
+ * assign() also hands a participant the dictionary's one String instance of
+ * its exact spelling, so a cohort loaded from CSV shares one copy of each
+ * spelling. Participants keep the spelling they were given; only the instance
+ * is shared. The participant remembers the dictionary and its game ID, and
+ * Team and FormationColumns use that ID directly.
+ *
+ * Each UserService, CSV load or formation run owns its own dictionary, so
+ * memory is bounded by the spellings of one cohort and IDs depend only on the
+ * order participants are added. Instances are not thread-safe: a dictionary
+ * is written only by the thread loading or registering its participants, and
+ * formations only read the IDs it gave out.
+ *
+ * @author Krisanthi Segar 2425596
+ * @version 1.0
+ * @since 2025
+ */
+public final class GameDictionary {
+
+    /** ID of a missing or blank game */
+    public static final int NO_GAME = -1;
+
+    // Exact spelling -> its shared instance and ID, so repeats skip case folding
+    private final Map<String, Spelling> spellings = new HashMap<>();
+    // Folded (trimmed, lower-case) name -> ID
+    private final Map<String, Integer> folded = new HashMap<>();
+    private String[] names = new String[16];
+    private int size;
+
+    public GameDictionary() {
+    }
+
+    /**
+     * Copies the games of another dictionary, keeping their IDs
+     * @param other The dictionary to copy
+     */
+    public GameDictionary(GameDictionary other) {
+        for (int id = 0; id < other.size; id++) {
+            register(other.names[id]);
+        }
+    }
+
+    /**
+     * Registers a game name if it is new and returns its ID
+     * @param name The game name in any case
+     * @return Game ID, or NO_GAME for null or blank names
+     */
+    public int register(String name) {
+        return name == null ? NO_GAME : spelling(name).id;
+    }
+
+    /**
+     * Registers a participant's game and gives the participant its ID
+     * The participant's preferredGame is replaced by the dictionary's shared
+     * instance of the same spelling.
+     * @param p The participant
+     */
+    public void assign(Participant p) {
+        String name = p.getPreferredGame();
+        if (name == null) {
+            p.setGame(null, NO_GAME, this);
+        } else {
+            Spelling spelling = spelling(name);
+            p.setGame(spelling.text, spelling.id, this);
+        }
+    }
+
+    private Spelling spelling(String name) {
+        Spelling spelling = spellings.get(name);
+        if (spelling != null) {
+            return spelling;
+        }
+
+        int id = NO_GAME;
+        String trimmed = name.trim();
+        if (!trimmed.isEmpty()) {
+            String key = trimmed.toLowerCase(Locale.ROOT);
+            Integer known = folded.get(key);
+            if (known == null) {
+                id = size;
+                if (id == names.length) {
+                    names = Arrays.copyOf(names, id * 2);
+                }
+                names[id] = trimmed;
+                size = id + 1;
+                folded.put(key, id);
+            } else {
+                id = known;
+            }
+        }
+        spelling = new Spelling(name, id);
+        spellings.put(name, spelling);
+        return spelling;
+    }
+
+    /**
+     * Looks up a game without registering it
+     * @param name The game name in any case
+     * @return Game ID, or NO_GAME if the game was never registered
+     */
+    public int find(String name) {
+        if (name == null) {
+            return NO_GAME;
+        }
+        Spelling spelling = spellings.get(name);
+        if (spelling != null) {
+            return spelling.id;
+        }
+        Integer id = folded.get(name.trim().toLowerCase(Locale.ROOT));
+        return id == null ? NO_GAME : id;
+    }
+
+    /**
+     * Gets the first spelling registered for a game, trimmed (for display)
+     * @param id Game ID
+     * @return Name, or null for NO_GAME
+     */
+    public String nameOf(int id) {
+        return id == NO_GAME ? null : names[id];
+    }
+
+    /**
+     * Number of distinct games registered; IDs run from 0 to size() - 1
+     * @return Game count
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Compares two game names ignoring case and surrounding spaces, without allocating
+     * @param a First name (may be null)
+     * @param b Second name (may be null)
+     * @return true if both name the same game
+     */
+    public static boolean sameGame(String a, String b) {
+        if (a == b) return true;
+        if (a == null || b == null) return false;
+        int aStart = trimStart(a);
+        int aLength = trimEnd(a) - aStart;
+        int bStart = trimStart(b);
+        return aLength == trimEnd(b) - bStart && a.regionMatches(true, aStart, b, bStart, aLength);
+    }
+
+    /**
+     * Whether a game name is missing or only spaces (counted as no game)
+     * @param name The game name
+     * @return true if blank
+     */
+    public static boolean isBlank(String name) {
+        return name == null || trimStart(name) == name.length();
+    }
+
+    private static int trimStart(String s) {
+        int i = 0;
+        while (i < s.length() && s.charAt(i) <= ' ') i++;
+        return i;
+    }
+
+    private static int trimEnd(String s) {
+        int i = s.length();
+        while (i > 0 && s.charAt(i - 1) <= ' ') i--;
+        return i;
+    }
+
+    private static final class Spelling {
+        private final String text;
+        private final int id;
+
+        Spelling(String text, int id) {
+            this.text = text;
+            this.id = id;
+        }
+    }
+}
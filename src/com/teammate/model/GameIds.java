@@ -0,0 +1,52 @@
+package com.teammate.model;
+
+/**
+ * GameIds - Game IDs of the participants in one team or formation
+ *
+ * While every participant added carries an ID from the same GameDictionary
+ * (given by GameDictionary.assign at load or registration), those IDs are
+ * used as they are and nothing is looked up. Once a participant without an
+ * ID, or with one from another dictionary, is added, a private copy of that
+ * dictionary takes over: it keeps every ID handed out so far and registers
+ * later games by name.
+ *
+ * @author Krisanthi Segar 2425596
+ * @version 1.0
+ * @since 2025
+ */
+public final class GameIds {
+
+    private GameDictionary games;
+    // Whether games is the participants' own dictionary rather than a private copy
+    private boolean shared;
+
+    /**
+     * Gets the ID of a participant's game
+     * @param p The participant
+     * @return Game ID, or GameDictionary.NO_GAME for a blank game
+     */
+    public int of(Participant p) {
+        GameDictionary source = p.getGameDictionary();
+        if (games == null) {
+            shared = source != null;
+            games = shared ? source : new GameDictionary();
+        }
+        if (shared) {
+            if (source == games) {
+                return p.getGameId();
+            }
+            games = new GameDictionary(games);
+            shared = false;
+        }
+        return games.register(p.getPreferredGame());
+    }
+
+    /**
+     * Looks up a game name without registering it
+     * @param name The game name in any case
+     * @return Game ID, or GameDictionary.NO_GAME if no participant added so far plays it
+     */
+    public int find(String name) {
+        return games == null ? GameDictionary.NO_GAME : games.find(name);
+    }
+}
@@ -18,6 +18,9 @@ public class Participant {
     private Role preferredRole;
     private int personalityScore;
     private PersonalityType personalityType;
+    // Dictionary that numbered preferredGame (see GameDictionary.assign), and the ID it gave
+    private GameDictionary games;
+    private int gameId = GameDictionary.NO_GAME;
 
     public Participant() {
     }
@@ -45,7 +48,30 @@ public class Participant {
     public void setEmail(String email) { this.email = email; }
 
     public String getPreferredGame() { return preferredGame; }
-    public void setPreferredGame(String preferredGame) { this.preferredGame = preferredGame; }
+    public void setPreferredGame(String preferredGame) {
+        this.preferredGame = preferredGame;
+        if (games != null) {
+            games.assign(this);
+        }
+    }
+
+    /**
+     * Gets the ID of the preferred game in getGameDictionary()
+     * @return Game ID, or GameDictionary.NO_GAME for a blank game or no dictionary
+     */
+    public int getGameId() { return gameId; }
+
+    /**
+     * Gets the dictionary that numbered the preferred game
+     * @return The dictionary, or null if the participant was never assigned one
+     */
+    public GameDictionary getGameDictionary() { return games; }
+
+    void setGame(String preferredGame, int gameId, GameDictionary games) {
+        this.preferredGame = preferredGame;
+        this.gameId = gameId;
+        this.games = games;
+    }
 
     public int getSkillLevel() { return skillLevel; }
     public void setSkillLevel(int skillLevel) { this.skillLevel = skillLevel; }
@@ -1,12 +1,25 @@
 package com.teammate.model;
 
 import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
 
 /**
  * Team - Represents a formed team with multiple participants
  *
  * Provides methods to check team balance and composition according to matching strategy.
  *
+ * Skill, role, personality and game tallies are kept as running aggregates,
+ * so reads are O(1). addMember and removeMember keep them up to date; code
+ * that edits a member in place must call refreshAggregates() afterwards
+ * (UserService.updateParticipant does this through TeamService). Games are
+ * tallied by the IDs members got from their GameDictionary (see GameIds), so
+ * "FIFA" and "fifa " count as the same game without comparing names.
+ *
+ * Members can be read without allocating through getMember, getSkillAt,
+ * forEachMember and forEachSkill; getMembers() returns a copy and is meant
+ * for callers that need their own list.
+ *
  * @author Krisanthi Segar 2425596
  * @version 1.0
  * @since 2025
@@ -15,13 +28,24 @@ public class Team {
     private String teamId;
     private List<Participant> members;
     private int teamSize;
-    private double averageSkill;
+
+    // Running aggregates, maintained by addMember/removeMember
+    private int skillSum;
+    private final int[] personalityCounts = new int[PersonalityType.values().length];
+    private final int[] roleCounts = new int[Role.values().length];
+    private int distinctPersonalities;
+    private int distinctRoles;
+    // Distinct game IDs of the members and their counts
+    private GameIds games = new GameIds();
+    private int[] gameIds = new int[4];
+    private int[] gameCounts = new int[4];
+    private int gameLength;
+    private int dominantGames;
 
     public Team(String teamId, int teamSize) {
         this.teamId = teamId;
         this.teamSize = teamSize;
         this.members = new ArrayList<>();
-        this.averageSkill = 0.0;
     }
 
     /**
@@ -34,7 +58,7 @@ public class Team {
             return false;
         }
         members.add(participant);
-        calculateAverageSkill();
+        updateAggregates(participant, 1);
         return true;
     }
 
@@ -44,36 +68,115 @@ public class Team {
      * @return true if removed successfully
      */
     public boolean removeMember(Participant participant) {
-        boolean removed = members.remove(participant);
-        if (removed) {
-            calculateAverageSkill();
+        int index = members.indexOf(participant);
+        if (index < 0) {
+            return false;
         }
-        return removed;
+        // Update from the stored instance in case an equal-but-different object was passed
+        updateAggregates(members.remove(index), -1);
+        return true;
     }
 
     /**
-     * Calculates average skill level of team members
+     * Applies a member's contribution to the running aggregates
+     * @param p The participant joining (delta 1) or leaving (delta -1)
+     * @param delta +1 or -1
+     */
+    private void updateAggregates(Participant p, int delta) {
+        skillSum += delta * p.getSkillLevel();
+
+        PersonalityType type = p.getPersonalityType();
+        if (type != null) {
+            int before = personalityCounts[type.ordinal()];
+            personalityCounts[type.ordinal()] = before + delta;
+            distinctPersonalities += distinctChange(before, before + delta);
+        }
+
+        Role role = p.getPreferredRole();
+        if (role != null) {
+            int before = roleCounts[role.ordinal()];
+            roleCounts[role.ordinal()] = before + delta;
+            distinctRoles += distinctChange(before, before + delta);
+        }
+
+        int game = games.of(p);
+        if (game != GameDictionary.NO_GAME) {
+            int i = findGame(game);
+            if (i < 0) {
+                if (gameLength == gameIds.length) {
+                    gameIds = Arrays.copyOf(gameIds, gameLength * 2);
+                    gameCounts = Arrays.copyOf(gameCounts, gameLength * 2);
+                }
+                i = gameLength++;
+                gameIds[i] = game;
+                gameCounts[i] = 0;
+            }
+            int before = gameCounts[i];
+            gameCounts[i] = before + delta;
+            int limit = teamSize / 2;
+            dominantGames += (gameCounts[i] > limit ? 1 : 0) - (before > limit ? 1 : 0);
+            if (gameCounts[i] == 0) {
+                gameLength--;
+                gameIds[i] = gameIds[gameLength];
+                gameCounts[i] = gameCounts[gameLength];
+            }
+        }
+    }
+
+    /**
+     * Position of a game ID in the game tallies
+     * @return Index, or -1 if no member plays it
+     */
+    private int findGame(int game) {
+        for (int i = 0; i < gameLength; i++) {
+            if (gameIds[i] == game) return i;
+        }
+        return -1;
+    }
+
+    private static int distinctChange(int before, int after) {
+        if (before == 0 && after > 0) return 1;
+        if (before > 0 && after == 0) return -1;
+        return 0;
+    }
+
+    /**
+     * Recalculates average skill level from the current members
      * @return The average skill level
      */
     public double calculateAverageSkill() {
-        if (members.isEmpty()) {
-            averageSkill = 0.0;
-            return 0.0;
+        int totalSkill = 0;
+        for (int i = 0; i < members.size(); i++) {
+            totalSkill += members.get(i).getSkillLevel();
         }
+        skillSum = totalSkill;
+        return getAverageSkill();
+    }
 
-        int totalSkill = 0;
+    /**
+     * Rebuilds all running aggregates from the current members
+     * Call after editing the game, skill, role or personality of a member.
+     */
+    public void refreshAggregates() {
+        skillSum = 0;
+        Arrays.fill(personalityCounts, 0);
+        Arrays.fill(roleCounts, 0);
+        distinctPersonalities = 0;
+        distinctRoles = 0;
+        games = new GameIds();
+        gameLength = 0;
+        dominantGames = 0;
         for (Participant p : members) {
-            totalSkill += p.getSkillLevel();
+            updateAggregates(p, 1);
         }
-        averageSkill = (double) totalSkill / members.size();
-        return averageSkill;
     }
 
     /**
      * Checks if team is balanced according to all matching criteria:
      * 1. Team is full
      * 2. At least 3 different roles
-     * 3. No single game dominates (max half the team)
+     * 3. No single game dominates (max half the team), ignoring case and
+     *    surrounding spaces in game names
      * 4. At least 2 different personality types
      *
      * @return true if team meets all balance criteria
@@ -83,28 +186,9 @@ public class Team {
             return false;
         }
 
-        // Check role diversity
-        Set<Role> uniqueRoles = new HashSet<>();
-        for (Participant p : members) {
-            uniqueRoles.add(p.getPreferredRole());
-        }
-
-        // Check personality mix
-        Map<PersonalityType, Integer> personalityCount = new HashMap<>();
-        for (Participant p : members) {
-            personalityCount.merge(p.getPersonalityType(), 1, Integer::sum);
-        }
-
-        // Check game diversity
-        Map<String, Integer> gameCount = new HashMap<>();
-        for (Participant p : members) {
-            gameCount.merge(p.getPreferredGame(), 1, Integer::sum);
-        }
-
-        // Balance criteria
-        boolean rolesDiverse = uniqueRoles.size() >= Math.min(3, teamSize);
-        boolean noGameDomination = gameCount.values().stream().noneMatch(count -> count > teamSize / 2);
-        boolean hasPersonalityMix = personalityCount.size() >= 2;
+        boolean rolesDiverse = distinctRoles >= Math.min(3, teamSize);
+        boolean noGameDomination = dominantGames == 0;
+        boolean hasPersonalityMix = distinctPersonalities >= 2;
 
         return rolesDiverse && noGameDomination && hasPersonalityMix;
     }
@@ -123,13 +207,7 @@ public class Team {
      * @return Number of participants with that type
      */
     public int getPersonalityCount(PersonalityType type) {
-        int count = 0;
-        for (Participant p : members) {
-            if (p.getPersonalityType() == type) {
-                count++;
-            }
-        }
-        return count;
+        return type == null ? 0 : personalityCounts[type.ordinal()];
     }
 
     /**
@@ -138,46 +216,103 @@ public class Team {
      * @return Number of participants with that role
      */
     public int getRoleCount(Role role) {
-        int count = 0;
-        for (Participant p : members) {
-            if (p.getPreferredRole() == role) {
-                count++;
-            }
-        }
-        return count;
+        return role == null ? 0 : roleCounts[role.ordinal()];
     }
 
     /**
-     * Counts participants preferring a specific game
+     * Counts participants preferring a specific game (ignoring case and surrounding spaces)
      * @param game The game name
      * @return Number of participants preferring that game
      */
     public int getGameCount(String game) {
-        int count = 0;
-        for (Participant p : members) {
-            if (p.getPreferredGame().equalsIgnoreCase(game)) {
-                count++;
-            }
-        }
-        return count;
+        int id = games.find(game);
+        if (id == GameDictionary.NO_GAME) return 0;
+        int i = findGame(id);
+        return i < 0 ? 0 : gameCounts[i];
+    }
+
+    /**
+     * Counts the distinct roles present in the team
+     * @return Number of different roles
+     */
+    public int getDistinctRoleCount() {
+        return distinctRoles;
+    }
+
+    /**
+     * Sum of member skill levels
+     * @return Total skill
+     */
+    public int getSkillSum() {
+        return skillSum;
     }
 
     // Getters and Setters
     public String getTeamId() { return teamId; }
     public void setTeamId(String teamId) { this.teamId = teamId; }
 
+    /**
+     * Copies the member list
+     * @return New list of the current members, in joining order
+     */
     public List<Participant> getMembers() { return new ArrayList<>(members); }
 
+    /**
+     * Gets a member by position without copying the member list
+     * @param index Position, 0 to getCurrentSize() - 1
+     * @return The member
+     */
+    public Participant getMember(int index) { return members.get(index); }
+
+    /**
+     * Gets a member's skill level by position
+     * @param index Position, 0 to getCurrentSize() - 1
+     * @return Skill level
+     */
+    public int getSkillAt(int index) { return members.get(index).getSkillLevel(); }
+
+    /**
+     * Visits every member in joining order without copying the member list
+     * The action must not add or remove members of this team.
+     * @param action Called once per member
+     */
+    public void forEachMember(Consumer<? super Participant> action) {
+        for (int i = 0; i < members.size(); i++) {
+            action.accept(members.get(i));
+        }
+    }
+
+    /**
+     * Visits every member's skill level in joining order
+     * @param action Called once per member with the skill level
+     */
+    public void forEachSkill(IntConsumer action) {
+        for (int i = 0; i < members.size(); i++) {
+            action.accept(members.get(i).getSkillLevel());
+        }
+    }
+
     public int getTeamSize() { return teamSize; }
-    public void setTeamSize(int teamSize) { this.teamSize = teamSize; }
+    public void setTeamSize(int teamSize) {
+        this.teamSize = teamSize;
+        dominantGames = 0;
+        for (int i = 0; i < gameLength; i++) {
+            if (gameCounts[i] > teamSize / 2) dominantGames++;
+        }
+    }
 
-    public double getAverageSkill() { return averageSkill; }
+    public double getAverageSkill() {
+        if (members.isEmpty()) {
+            return 0.0;
+        }
+        return (double) skillSum / members.size();
+    }
 
     public int getCurrentSize() { return members.size(); }
 
     @Override
     public String toString() {
         return String.format("Team[id=%s, size=%d/%d, avgSkill=%.2f, balanced=%b]",
-                teamId, members.size(), teamSize, averageSkill, isBalanced());
+                teamId, members.size(), teamSize, getAverageSkill(), isBalanced());
     }
 }
\ No newline at end of file
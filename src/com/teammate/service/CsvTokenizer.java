@@ -0,0 +1,399 @@
+package com.teammate.service;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * CsvTokenizer - RFC 4180 record tokenizer over a byte buffer
+ *
+ * Reads UTF-8 CSV from a stream or a ByteBuffer (for example a memory-mapped
+ * region) into one reusable byte buffer and finds field boundaries in place.
+ * Fields may be quoted; quoted fields can hold commas, line breaks and doubled
+ * quotes (""). Records end at LF, CRLF or CR outside quotes.
+ *
+ * Nothing is allocated per record or field: numbers are parsed straight from
+ * the bytes, enum constants are matched against the bytes, and participant IDs
+ * are checked without a regex. Only stringField() builds a String, for fields
+ * that are kept.
+ *
+ * Leniency, matching the line-based parser it replaces: blanks around an
+ * unquoted field are trimmed (quoted fields are kept exactly), and a quote
+ * inside an unquoted field is taken literally. Text after a closing quote or
+ * an unterminated quote marks the record isMalformed(), so callers can skip it.
+ *
+ * A stray opening quote must not swallow the rest of the file. A quoted field
+ * may run for at most MAX_QUOTED_FIELD_BYTES, and a malformed record that
+ * spans lines is cut back to its first physical line; reading resumes on the
+ * next line, so only the line with the broken quote is lost.
+ *
+ * Field accessors refer to the current record and are valid until the next
+ * nextRecord() call.
+ *
+ * @author Krisanthi Segar 2425596
+ * @version 1.0
+ * @since 2025
+ */
+public class CsvTokenizer {
+
+    private static final int DEFAULT_BUFFER_SIZE = 1 << 16;
+    private static final int INITIAL_FIELDS = 16;
+    /** Longest quoted field accepted before its opening quote is treated as stray */
+    public static final int MAX_QUOTED_FIELD_BYTES = 64 * 1024;
+
+    private final InputStream in;
+    private final ByteBuffer source;
+    private byte[] buffer;
+    private int limit;
+    private int position;
+    private boolean endOfInput;
+
+    // Current record: field bounds in buffer (unquoted fields trimmed, quotes excluded)
+    private int[] fieldStart = new int[INITIAL_FIELDS];
+    private int[] fieldEnd = new int[INITIAL_FIELDS];
+    private boolean[] fieldEscaped = new boolean[INITIAL_FIELDS];
+    private int fieldCount;
+    private boolean malformed;
+    private boolean unterminatedQuote;
+    private int lineNumber;
+    private int nextLineNumber = 1;
+    private int scannedLineBreaks;
+
+    /**
+     * Tokenizes a stream
+     * @param in UTF-8 CSV input (read in large blocks; no buffering needed)
+     */
+    public CsvTokenizer(InputStream in) {
+        this.in = in;
+        this.source = null;
+        this.buffer = new byte[DEFAULT_BUFFER_SIZE];
+    }
+
+    /**
+     * Tokenizes the bytes between a buffer's position and limit
+     * @param source UTF-8 CSV bytes; its position advances as they are read
+     */
+    public CsvTokenizer(ByteBuffer source) {
+        this.in = null;
+        this.source = source;
+        this.buffer = new byte[Math.max(1024, Math.min(DEFAULT_BUFFER_SIZE, source.remaining()))];
+    }
+
+    /**
+     * Advances to the next record
+     * @return false once the input is exhausted
+     * @throws IOException if reading fails
+     */
+    public boolean nextRecord() throws IOException {
+        while (true) {
+            if (position < limit) {
+                int end = scan(position);
+                if (end >= 0) {
+                    position = end;
+                    lineNumber = nextLineNumber;
+                    nextLineNumber += 1 + scannedLineBreaks;
+                    return true;
+                }
+            } else if (endOfInput) {
+                fieldCount = 0;
+                return false;
+            }
+            fill();
+        }
+    }
+
+    /**
+     * Number of fields in the current record
+     * @return Field count (1 for a blank line)
+     */
+    public int getFieldCount() {
+        return fieldCount;
+    }
+
+    /**
+     * Line on which the current record starts (1-based, counting line breaks inside quotes)
+     * @return Line number
+     */
+    public int getLineNumber() {
+        return lineNumber;
+    }
+
+    /**
+     * Line on which the next record starts; after the last record, one more than the lines read
+     * @return Line number
+     */
+    public int getNextLineNumber() {
+        return nextLineNumber;
+    }
+
+    /**
+     * Whether the input ended inside a quoted field at some point
+     *
+     * Input cut at a line break that lies inside quotes (such as one chunk of a
+     * larger file) ends this way, so a chunked reader can tell its cut was not
+     * a record boundary.
+     *
+     * @return true if a quoted field ran into the end of the input
+     */
+    public boolean hasUnterminatedQuote() {
+        return unterminatedQuote;
+    }
+
+    /**
+     * Whether the current record has broken quoting
+     * @return true for text after a closing quote or an unterminated or over-long quoted field
+     */
+    public boolean isMalformed() {
+        return malformed;
+    }
+
+    /**
+     * Whether the current record is an empty or whitespace-only line
+     * @return true if blank
+     */
+    public boolean isBlank() {
+        return fieldCount == 1 && fieldStart[0] == fieldEnd[0] && !malformed;
+    }
+
+    /**
+     * Text of a field
+     * @param i Field index
+     * @return Field with quoting removed (trimmed if unquoted)
+     */
+    public String stringField(int i) {
+        int start = fieldStart[i];
+        int end = fieldEnd[i];
+        if (!fieldEscaped[i]) {
+            return new String(buffer, start, end - start, StandardCharsets.UTF_8);
+        }
+        byte[] unescaped = new byte[end - start];
+        int length = 0;
+        for (int k = start; k < end; k++) {
+            unescaped[length++] = buffer[k];
+            if (buffer[k] == '"') k++;
+        }
+        return new String(unescaped, 0, length, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Parses a field as a decimal int without creating a String
+     * @param i Field index
+     * @return The number
+     * @throws NumberFormatException if the field is not a valid int
+     */
+    public int intField(int i) {
+        int k = fieldStart[i];
+        int end = fieldEnd[i];
+        boolean negative = k < end && buffer[k] == '-';
+        if (k < end && (buffer[k] == '-' || buffer[k] == '+')) k++;
+        if (k == end) {
+            throw new NumberFormatException("Not a number in field " + (i + 1));
+        }
+        long value = 0;
+        for (; k < end; k++) {
+            int digit = buffer[k] - '0';
+            if (digit < 0 || digit > 9) {
+                throw new NumberFormatException("Not a number in field " + (i + 1));
+            }
+            value = value * 10 + digit;
+            if (value > (long) Integer.MAX_VALUE + 1) {
+                throw new NumberFormatException("Number out of range in field " + (i + 1));
+            }
+        }
+        value = negative ? -value : value;
+        if (value > Integer.MAX_VALUE) {
+            throw new NumberFormatException("Number out of range in field " + (i + 1));
+        }
+        return (int) value;
+    }
+
+    /**
+     * Matches a field against enum constant names, ignoring case
+     * @param i Field index
+     * @param constants Candidate constants (for example Role.values())
+     * @param <E> Enum type
+     * @return Matching constant, or null if none matches
+     */
+    public <E extends Enum<E>> E enumField(int i, E[] constants) {
+        int start = fieldStart[i];
+        int length = fieldEnd[i] - start;
+        for (E constant : constants) {
+            String name = constant.name();
+            if (name.length() != length) continue;
+            int k = 0;
+            while (k < length && Character.toUpperCase((char) (buffer[start + k] & 0xFF)) == name.charAt(k)) k++;
+            if (k == length) return constant;
+        }
+        return null;
+    }
+
+    /**
+     * Checks a field is a participant ID: 'P' followed by at least three digits
+     * @param i Field index
+     * @return true if valid
+     */
+    public boolean isParticipantId(int i) {
+        int start = fieldStart[i];
+        int end = fieldEnd[i];
+        if (end - start < 4 || buffer[start] != 'P') return false;
+        for (int k = start + 1; k < end; k++) {
+            if (buffer[k] < '0' || buffer[k] > '9') return false;
+        }
+        return true;
+    }
+
+    /**
+     * Quotes a value for writing if it holds a comma, quote, line break or edge blanks
+     * (which only survive a reload inside quotes)
+     * @param value Field value
+     * @return The value, quoted and with quotes doubled when needed
+     */
+    public static String escape(String value) {
+        if (value == null) return "";
+        boolean quote = !value.isEmpty() && (isBlank((byte) value.charAt(0))
+                || isBlank((byte) value.charAt(value.length() - 1)));
+        for (int k = 0; k < value.length() && !quote; k++) {
+            char c = value.charAt(k);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        return quote ? '"' + value.replace("\"", "\"\"") + '"' : value;
+    }
+
+    /**
+     * Finds the fields of the record starting at start
+     * @return Index just past the record's line break, or -1 if more input is needed
+     */
+    private int scan(int start) {
+        fieldCount = 0;
+        malformed = false;
+        scannedLineBreaks = 0;
+        int i = start;
+
+        while (true) {
+            while (i < limit && isBlank(buffer[i])) i++;
+
+            if (i < limit && buffer[i] == '"') {
+                int contentStart = ++i;
+                boolean escaped = false;
+                while (true) {
+                    if (i - contentStart > MAX_QUOTED_FIELD_BYTES) {
+                        malformed = true;
+                        return skipLine(start);
+                    }
+                    if (i >= limit) {
+                        if (!endOfInput) return -1;
+                        malformed = true;
+                        unterminatedQuote = true;
+                        return skipLine(start);
+                    }
+                    byte b = buffer[i];
+                    if (b == '"') {
+                        if (i + 1 >= limit && !endOfInput) return -1;
+                        if (i + 1 < limit && buffer[i + 1] == '"') {
+                            escaped = true;
+                            i += 2;
+                            continue;
+                        }
+                        break;
+                    }
+                    if (b == '\n') scannedLineBreaks++;
+                    i++;
+                }
+                addField(contentStart, i, escaped, true);
+                i++;
+                while (i < limit && isBlank(buffer[i])) i++;
+                if (i < limit && !isDelimiter(buffer[i])) {
+                    malformed = true;
+                    while (i < limit && !isDelimiter(buffer[i])) i++;
+                }
+            } else {
+                int fieldBegin = i;
+                while (i < limit && !isDelimiter(buffer[i])) i++;
+                addField(fieldBegin, i, false, false);
+            }
+
+            if (i < limit && buffer[i] == ',') {
+                i++;
+                continue;
+            }
+            int end;
+            if (i >= limit) {
+                if (!endOfInput) return -1;
+                end = limit;
+            } else if (buffer[i] == '\r') {
+                if (i + 1 >= limit && !endOfInput) return -1;
+                end = i + 1 < limit && buffer[i + 1] == '\n' ? i + 2 : i + 1;
+            } else {
+                end = i + 1;
+            }
+            // A broken record over several lines most likely started at a stray quote
+            return malformed && scannedLineBreaks > 0 ? skipLine(start) : end;
+        }
+    }
+
+    /**
+     * Ends a malformed record at the first line break after start, so the next record starts on the next line
+     * @return Index just past that line break, or limit if there is none
+     */
+    private int skipLine(int start) {
+        scannedLineBreaks = 0;
+        for (int i = start; i < limit; i++) {
+            if (buffer[i] == '\n') return i + 1;
+            if (buffer[i] == '\r') return i + 1 < limit && buffer[i + 1] == '\n' ? i + 2 : i + 1;
+        }
+        return limit;
+    }
+
+    private void addField(int start, int end, boolean escaped, boolean quoted) {
+        if (fieldCount == fieldStart.length) {
+            fieldStart = Arrays.copyOf(fieldStart, fieldCount * 2);
+            fieldEnd = Arrays.copyOf(fieldEnd, fieldCount * 2);
+            fieldEscaped = Arrays.copyOf(fieldEscaped, fieldCount * 2);
+        }
+        while (!quoted && start < end && isBlank(buffer[start])) start++;
+        while (!quoted && end > start && isBlank(buffer[end - 1])) end--;
+        fieldStart[fieldCount] = start;
+        fieldEnd[fieldCount] = end;
+        fieldEscaped[fieldCount] = escaped;
+        fieldCount++;
+    }
+
+    private static boolean isBlank(byte b) {
+        return b == ' ' || b == '\t';
+    }
+
+    private static boolean isDelimiter(byte b) {
+        return b == ',' || b == '\n' || b == '\r';
+    }
+
+    /**
+     * Keeps the unread bytes, growing the buffer if one record fills it, and reads more
+     */
+    private void fill() throws IOException {
+        if (position > 0) {
+            System.arraycopy(buffer, position, buffer, 0, limit - position);
+            limit -= position;
+            position = 0;
+        }
+        if (limit == buffer.length) {
+            buffer = Arrays.copyOf(buffer, buffer.length * 2);
+        }
+        int read;
+        if (in != null) {
+            read = in.read(buffer, limit, buffer.length - limit);
+        } else {
+            read = Math.min(source.remaining(), buffer.length - limit);
+            if (read == 0) {
+                read = -1;
+            } else {
+                source.get(buffer, limit, read);
+            }
+        }
+        if (read < 0) {
+            endOfInput = true;
+        } else {
+            limit += read;
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.teammate.service;
+
+import com.teammate.model.*;
+import java.util.*;
+
+/**
+ * EightPhaseStrategy - The multi-phase TeamBuilder as a formation strategy
+ *
+ * With parallelism above 1 the builder runs in sharded parallel mode. Results
+ * from form() carry the builder's FormationMetrics.
+ *
+ * @author Krisanthi Segar 2425596
+ * @version 1.0
+ * @since 2025
+ */
+public class EightPhaseStrategy implements TeamFormationStrategy {
+
+    public static final String NAME = "eight-phase";
+    public static final String PARALLEL_NAME = "eight-phase-parallel";
+
+    private final int parallelism;
+
+    /**
+     * Creates the sequential strategy
+     */
+    public EightPhaseStrategy() {
+        this(1);
+    }
+
+    /**
+     * Creates the strategy
+     * @param parallelism Worker threads; 1 runs the sequential builder
+     */
+    public EightPhaseStrategy(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1");
+        }
+        this.parallelism = parallelism;
+    }
+
+    @Override
+    public String getName() {
+        return parallelism > 1 ? PARALLEL_NAME : NAME;
+    }
+
+    @Override
+    public List<Team> formTeams(List<Participant> participants, int teamSize) throws Exception {
+        return formTeams(participants, teamSize, FormationDeadline.none());
+    }
+
+    @Override
+    public List<Team> formTeams(List<Participant> participants, int teamSize, FormationDeadline deadline)
+            throws Exception {
+        return run(newBuilder(participants, teamSize, deadline));
+    }
+
+    @Override
+    public FormationResult form(List<Participant> participants, int teamSize, FormationDeadline deadline)
+            throws Exception {
+        long start = System.nanoTime();
+        TeamBuilder builder = newBuilder(participants, teamSize, deadline);
+        List<Team> teams = run(builder);
+        long elapsed = System.nanoTime() - start;
+        return new FormationResult(getName(), teams, participants.size(), teamSize, elapsed,
+                deadline.getCompletion(), builder.getMetrics());
+    }
+
+    private TeamBuilder newBuilder(List<Participant> participants, int teamSize, FormationDeadline deadline) {
+        TeamBuilder builder = new TeamBuilder(participants, teamSize);
+        builder.setDeadline(deadline);
+        return builder;
+    }
+
+    private List<Team> run(TeamBuilder builder) throws Exception {
+        return parallelism > 1 ? builder.formTeamsParallel(parallelism) : builder.formTeams();
+    }
+}
@@ -0,0 +1,58 @@
+package com.teammate.service;
+
+import com.teammate.model.*;
+import java.util.*;
+
+/**
+ * ExactSolverStrategy - ExactTeamSolver as a formation strategy
+ *
+ * Metrics count search nodes as score evaluations and report the objective of
+ * the TeamBuilder incumbent and of the final solution.
+ *
+ * @author Krisanthi Segar 2425596
+ * @version 1.0
+ * @since 2025
+ */
+public class ExactSolverStrategy implements TeamFormationStrategy {
+
+    public static final String NAME = "exact";
+
+    private final long timeLimitMillis;
+
+    /**
+     * Creates the strategy
+     * @param timeLimitMillis Search time limit before the best incumbent is used
+     */
+    public ExactSolverStrategy(long timeLimitMillis) {
+        this.timeLimitMillis = timeLimitMillis;
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public List<Team> formTeams(List<Participant> participants, int teamSize) throws Exception {
+        return new ExactTeamSolver(timeLimitMillis, System.nanoTime()).solve(participants, teamSize);
+    }
+
+    @Override
+    public List<Team> formTeams(List<Participant> participants, int teamSize, FormationDeadline deadline)
+            throws Exception {
+        return formTeams(participants, teamSize, deadline, null);
+    }
+
+    @Override
+    public List<Team> formTeams(List<Participant> participants, int teamSize, FormationDeadline deadline,
+                                FormationMetrics metrics) throws Exception {
+        ExactTeamSolver solver = new ExactTeamSolver(timeLimitMillis, System.nanoTime());
+        solver.setDeadline(deadline);
+        solver.setMetrics(metrics);
+        List<Team> teams = solver.solve(participants, teamSize);
+        if (!solver.isOptimal() && deadline.isExpired()) {
+            deadline.degrade(FormationResult.Completion.SUBOPTIMAL);
+        }
+        return teams;
+    }
+}
@@ -0,0 +1,511 @@
+package com.teammate.service;
+
+import com.teammate.model.*;
+import com.teammate.util.Logger;
+import java.util.*;
+
+/**
+ * ExactTeamSolver - Branch-and-bound team formation for small cohorts
+ *
+ * Minimizes the same objective as TeamOptimizer (hard-rule violations weighted
+ * by HARD_WEIGHT plus the variance of team average skill) over every way of
+ * filling numTeams full teams; participants beyond numTeams * teamSize sit on a
+ * bench, as they stay unassigned in TeamBuilder.
+ *
+ * SEARCH:
+ * - Participants are assigned Leaders first, then Thinkers, then Balanced,
+ *   highest skill first, so the tight quotas are decided near the root
+ * - Symmetry breaking: teams are opened in index order (only the first empty
+ *   team is tried) and identical participants enter non-decreasing teams
+ * - The incumbent starts from a seeded TeamBuilder run
+ *
+ * LOWER BOUND at each node:
+ * - Violations that can only grow (game excess, extra Leaders/Thinkers)
+ * - Quota shortfalls the remaining Leaders, Thinkers and open slots cannot cover
+ * - Skill variance of the best real-valued split of the remaining skill, with
+ *   each team's final skill sum boxed by its smallest/largest possible fill
+ *
+ * When the time limit is hit the best solution found so far is returned and
+ * isOptimal() reports false.
+ *
+ * @author Krisanthi Segar 2425596
+ * @version 1.0
+ * @since 2025
+ */
+public class ExactTeamSolver {
+
+    public static final int MAX_PARTICIPANTS = 60;
+
+    private static final long DEFAULT_TIME_LIMIT_MILLIS = 1000;
+    private static final int TIME_CHECK_INTERVAL = 1024;
+    private static final int BISECTION_STEPS = 50;
+    private static final double BOUND_TOLERANCE = 1e-7;
+
+    private static final int ROLE_COUNT = Role.values().length;
+    private static final int TYPE_COUNT = PersonalityType.values().length;
+    private static final int LEADER = PersonalityType.LEADER.ordinal();
+    private static final int THINKER = PersonalityType.THINKER.ordinal();
+
+    private final long timeLimitMillis;
+    private final long seed;
+
+    // Participants in branching order
+    private Participant[] people;
+    private int[] skill;
+    private int[] role;
+    private int[] type;
+    private int[] game;
+    private boolean[] sameAsPrevious;
+    private int[] leadersFrom;
+    private int[] thinkersFrom;
+    private int[][] smallestFrom;
+    private int[][] largestFrom;
+
+    // Search state (team index numTeams is the bench)
+    private int numTeams;
+    private int teamSize;
+    private int benchCapacity;
+    private int[] assignment;
+    private int[] size;
+    private int[] skillSum;
+    private int[] roleCounts;
+    private int[] distinctRoles;
+    private int[] typeCounts;
+    private int[] gameCounts;
+    private int gameCount;
+    private int gameExcess;
+    private int usedTeams;
+    private int[][] candidates;
+    private int[][] candidateKeys;
+    private double[] scratchLow;
+    private double[] scratchHigh;
+
+    private int[] bestAssignment;
+    private double bestObjective;
+    private long nodes;
+    private long deadline;
+    private boolean timedOut;
+    private FormationDeadline stopAt = FormationDeadline.none();
+    private FormationMetrics metrics;
+
+    /**
+     * Creates a solver with the default one-second time limit
+     */
+    public ExactTeamSolver() {
+        this(DEFAULT_TIME_LIMIT_MILLIS, 0L);
+    }
+
+    /**
+     * Creates a solver
+     * @param timeLimitMillis Search time limit (0 for none)
+     * @param seed Seed for the TeamBuilder run that provides the first incumbent
+     */
+    public ExactTeamSolver(long timeLimitMillis, long seed) {
+        this.timeLimitMillis = timeLimitMillis;
+        this.seed = seed;
+    }
+
+    /**
+     * Stops the search early, keeping the best incumbent, once a deadline expires
+     * @param deadline Formation deadline
+     */
+    public void setDeadline(FormationDeadline deadline) {
+        this.stopAt = deadline;
+    }
+
+    /**
+     * Records the next solve's phases, search nodes (as score evaluations) and
+     * incumbent/final objectives
+     * @param metrics Metrics to fill, or null to stop recording
+     */
+    public void setMetrics(FormationMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * Forms teams minimizing the TeamOptimizer objective
+     * @param participants Participants to place (at most MAX_PARTICIPANTS)
+     * @param teamSize Team size
+     * @return Full teams; participants that do not fit in a full team are left out
+     * @throws Exception if the incumbent formation fails
+     */
+    public List<Team> solve(List<Participant> participants, int teamSize) throws Exception {
+        if (participants.size() > MAX_PARTICIPANTS) {
+            throw new IllegalArgumentException("Exact solver supports at most " + MAX_PARTICIPANTS +
+                    " participants, got " + participants.size());
+        }
+        if (teamSize < 1) {
+            throw new IllegalArgumentException("Team size must be positive");
+        }
+
+        this.teamSize = teamSize;
+        this.numTeams = participants.size() / teamSize;
+        this.benchCapacity = participants.size() - numTeams * teamSize;
+        this.nodes = 0;
+        this.timedOut = false;
+        if (numTeams == 0) {
+            bestObjective = 0.0;
+            return new ArrayList<>();
+        }
+
+        deadline = timeLimitMillis > 0 ? System.currentTimeMillis() + timeLimitMillis : Long.MAX_VALUE;
+        if (metrics != null) metrics.startPhase("1 Incumbent");
+        loadParticipants(participants);
+        initState();
+        seedIncumbent(participants);
+        double incumbent = bestObjective;
+        if (metrics != null) metrics.startPhase("2 Branch and bound");
+        search(0);
+        if (metrics != null) {
+            metrics.startPhase("3 Build teams");
+            metrics.addScoreEvaluations(nodes);
+            metrics.setObjectives(incumbent, bestObjective);
+        }
+
+        Logger.logInfo(String.format("Exact solver: %d nodes, objective %.4f (%s)",
+                nodes, bestObjective, timedOut ? "time limit, best incumbent" : "optimal"));
+        return buildTeams(bestAssignment);
+    }
+
+    /**
+     * Whether the last solve proved its result optimal
+     * @return false if the time limit stopped the search
+     */
+    public boolean isOptimal() {
+        return !timedOut;
+    }
+
+    /**
+     * Objective value of the last solution (lower is better)
+     * @return Objective
+     */
+    public double getObjective() {
+        return bestObjective;
+    }
+
+    /**
+     * Number of search nodes explored by the last solve
+     * @return Node count
+     */
+    public long getNodesExplored() {
+        return nodes;
+    }
+
+    /**
+     * Sorts participants into branching order and precomputes suffix data for bounds
+     */
+    private void loadParticipants(List<Participant> participants) {
+        // Number the cohort's games for the per-team count arrays (0 is the blank game)
+        GameDictionary games = new GameDictionary();
+        for (Participant p : participants) {
+            games.register(p.getPreferredGame());
+        }
+        gameCount = games.size() + 1;
+
+        List<Participant> ordered = new ArrayList<>(participants);
+        ordered.sort(Comparator
+                .comparingInt((Participant p) -> typeRank(p.getPersonalityType()))
+                .thenComparing(Comparator.comparingInt(Participant::getSkillLevel).reversed())
+                .thenComparingInt(p -> p.getPreferredRole() == null ? -1 : p.getPreferredRole().ordinal())
+                .thenComparingInt(p -> games.find(p.getPreferredGame()) + 1));
+
+        int n = ordered.size();
+        people = ordered.toArray(new Participant[0]);
+        skill = new int[n];
+        role = new int[n];
+        type = new int[n];
+        game = new int[n];
+        sameAsPrevious = new boolean[n];
+        for (int i = 0; i < n; i++) {
+            Participant p = people[i];
+            skill[i] = p.getSkillLevel();
+            role[i] = p.getPreferredRole() == null ? -1 : p.getPreferredRole().ordinal();
+            type[i] = p.getPersonalityType() == null ? -1 : p.getPersonalityType().ordinal();
+            game[i] = games.find(p.getPreferredGame()) + 1;
+            sameAsPrevious[i] = i > 0 && skill[i] == skill[i - 1] && role[i] == role[i - 1] &&
+                    type[i] == type[i - 1] && game[i] == game[i - 1];
+        }
+
+        leadersFrom = new int[n + 1];
+        thinkersFrom = new int[n + 1];
+        smallestFrom = new int[n + 1][];
+        largestFrom = new int[n + 1][];
+        for (int i = n; i >= 0; i--) {
+            if (i < n) {
+                leadersFrom[i] = leadersFrom[i + 1] + (type[i] == LEADER ? 1 : 0);
+                thinkersFrom[i] = thinkersFrom[i + 1] + (type[i] == THINKER ? 1 : 0);
+            }
+            int[] rest = Arrays.copyOfRange(skill, i, n);
+            Arrays.sort(rest);
+            int limit = Math.min(teamSize, rest.length);
+            smallestFrom[i] = new int[limit + 1];
+            largestFrom[i] = new int[limit + 1];
+            for (int k = 1; k <= limit; k++) {
+                smallestFrom[i][k] = smallestFrom[i][k - 1] + rest[k - 1];
+                largestFrom[i][k] = largestFrom[i][k - 1] + rest[rest.length - k];
+            }
+        }
+    }
+
+    private static int typeRank(PersonalityType t) {
+        if (t == PersonalityType.LEADER) return 0;
+        if (t == PersonalityType.THINKER) return 1;
+        return 2;
+    }
+
+    private void initState() {
+        int n = people.length;
+        assignment = new int[n];
+        size = new int[numTeams + 1];
+        skillSum = new int[numTeams];
+        roleCounts = new int[numTeams * ROLE_COUNT];
+        distinctRoles = new int[numTeams];
+        typeCounts = new int[numTeams * TYPE_COUNT];
+        gameCounts = new int[numTeams * gameCount];
+        gameExcess = 0;
+        usedTeams = 0;
+        candidates = new int[n][numTeams + 1];
+        candidateKeys = new int[n][numTeams + 1];
+        scratchLow = new double[numTeams];
+        scratchHigh = new double[numTeams];
+    }
+
+    /**
+     * Uses a seeded TeamBuilder result as the first incumbent
+     */
+    private void seedIncumbent(List<Participant> participants) throws Exception {
+        List<Team> formed = new TeamBuilder(participants, teamSize, seed).formTeams();
+
+        Map<Participant, Integer> teamOf = new IdentityHashMap<>();
+        for (int t = 0; t < formed.size(); t++) {
+            Team team = formed.get(t);
+            for (int i = 0; i < team.getCurrentSize(); i++) {
+                teamOf.put(team.getMember(i), t);
+            }
+        }
+
+        // Teams are interchangeable, so renumber them in order of first use
+        int[] renumber = new int[numTeams];
+        Arrays.fill(renumber, -1);
+        int next = 0;
+        bestAssignment = new int[people.length];
+        for (int i = 0; i < people.length; i++) {
+            Integer t = teamOf.get(people[i]);
+            if (t == null || t >= numTeams) {
+                bestAssignment[i] = numTeams;
+                continue;
+            }
+            if (renumber[t] < 0) renumber[t] = next++;
+            bestAssignment[i] = renumber[t];
+        }
+        bestObjective = TeamOptimizer.evaluate(formed);
+    }
+
+    private void search(int depth) {
+        if (timedOut) return;
+        if (++nodes % TIME_CHECK_INTERVAL == 0 && (System.currentTimeMillis() >= deadline || stopAt.isExpired())) {
+            timedOut = true;
+            return;
+        }
+
+        double bound = lowerBound(depth);
+        if (bound >= bestObjective - BOUND_TOLERANCE) {
+            return;
+        }
+        if (depth == people.length) {
+            bestObjective = bound;
+            bestAssignment = assignment.clone();
+            return;
+        }
+
+        int count = orderCandidates(depth);
+        int[] order = candidates[depth];
+        for (int k = 0; k < count; k++) {
+            int t = order[k];
+            place(depth, t);
+            search(depth + 1);
+            unplace(depth, t);
+            if (timedOut) return;
+        }
+    }
+
+    /**
+     * Collects feasible teams for a participant, most promising first
+     * @return Number of candidates written to candidates[depth]
+     */
+    private int orderCandidates(int depth) {
+        int[] order = candidates[depth];
+        int count = 0;
+        int minTeam = sameAsPrevious[depth] ? assignment[depth - 1] : 0;
+        int lastTeam = Math.min(usedTeams, numTeams - 1);
+
+        for (int t = minTeam; t <= lastTeam; t++) {
+            if (size[t] < teamSize) order[count++] = t;
+        }
+        if (size[numTeams] < benchCapacity) {
+            order[count++] = numTeams;
+        }
+
+        // Insertion sort by immediate rule damage, then by how far the team is below the mean
+        int[] keys = candidateKeys[depth];
+        for (int i = 0; i < count; i++) {
+            keys[i] = placementKey(depth, order[i]);
+        }
+        for (int i = 1; i < count; i++) {
+            int t = order[i];
+            int key = keys[i];
+            int j = i - 1;
+            while (j >= 0 && keys[j] > key) {
+                order[j + 1] = order[j];
+                keys[j + 1] = keys[j];
+                j--;
+            }
+            order[j + 1] = t;
+            keys[j + 1] = key;
+        }
+        return count;
+    }
+
+    private int placementKey(int p, int t) {
+        if (t == numTeams) {
+            return 1 << 20;
+        }
+        int damage = 0;
+        if (gameCounts[t * gameCount + game[p]] >= TeamBuilder.MAX_SAME_GAME) damage++;
+        if (type[p] == LEADER && typeCounts[t * TYPE_COUNT + LEADER] >= TeamBuilder.MAX_LEADERS_PER_TEAM) damage++;
+        if (type[p] == THINKER && typeCounts[t * TYPE_COUNT + THINKER] >= TeamBuilder.MAX_THINKERS_PER_TEAM) damage++;
+        if (role[p] >= 0 && roleCounts[t * ROLE_COUNT + role[p]] > 0) damage++;
+        // Prefer teams whose skill sum per member is lowest
+        int fill = size[t] == 0 ? 0 : (skillSum[t] * 16) / size[t];
+        return (damage << 12) + fill;
+    }
+
+    private void place(int p, int t) {
+        assignment[p] = t;
+        size[t]++;
+        if (t == numTeams) return;
+        if (t == usedTeams) usedTeams++;
+
+        skillSum[t] += skill[p];
+        if (role[p] >= 0 && roleCounts[t * ROLE_COUNT + role[p]]++ == 0) distinctRoles[t]++;
+        if (type[p] >= 0) typeCounts[t * TYPE_COUNT + type[p]]++;
+        if (++gameCounts[t * gameCount + game[p]] > TeamBuilder.MAX_SAME_GAME) gameExcess++;
+    }
+
+    private void unplace(int p, int t) {
+        size[t]--;
+        if (t == numTeams) return;
+        if (size[t] == 0) usedTeams--;
+
+        skillSum[t] -= skill[p];
+        if (role[p] >= 0 && --roleCounts[t * ROLE_COUNT + role[p]] == 0) distinctRoles[t]--;
+        if (type[p] >= 0) typeCounts[t * TYPE_COUNT + type[p]]--;
+        if (gameCounts[t * gameCount + game[p]]-- > TeamBuilder.MAX_SAME_GAME) gameExcess--;
+    }
+
+    /**
+     * Lower bound on the objective of any completion of the first depth assignments;
+     * exact when depth equals the participant count
+     */
+    private double lowerBound(int depth) {
+        int hard = gameExcess;
+        int leaderShortfall = 0;
+        int thinkerShortfall = 0;
+        int leaderRoom = 0;
+        int thinkerRoom = 0;
+        int roleTarget = Math.min(TeamBuilder.MIN_ROLE_DIVERSITY, teamSize);
+        boolean thinkersRequired = teamSize >= 2;
+
+        for (int t = 0; t < numTeams; t++) {
+            int open = teamSize - size[t];
+            int leaders = typeCounts[t * TYPE_COUNT + LEADER];
+            int thinkers = typeCounts[t * TYPE_COUNT + THINKER];
+
+            hard += Math.max(0, leaders - TeamBuilder.MAX_LEADERS_PER_TEAM);
+            leaderShortfall += Math.max(0, TeamBuilder.MAX_LEADERS_PER_TEAM - leaders);
+            leaderRoom += Math.max(0, Math.min(open, TeamBuilder.MAX_LEADERS_PER_TEAM - leaders));
+            if (thinkersRequired) {
+                hard += Math.max(0, thinkers - TeamBuilder.MAX_THINKERS_PER_TEAM);
+                thinkerShortfall += Math.max(0, TeamBuilder.MIN_THINKERS_PER_TEAM - thinkers);
+                thinkerRoom += Math.max(0, Math.min(open, TeamBuilder.MAX_THINKERS_PER_TEAM - thinkers));
+            }
+            hard += Math.max(0, roleTarget - distinctRoles[t] - open);
+        }
+        // Remaining Leaders/Thinkers can neither fill more gaps than exist nor leave
+        // the teams without overflowing them, except onto the bench
+        int benchRoom = benchCapacity - size[numTeams];
+        hard += Math.max(0, leaderShortfall - leadersFrom[depth]);
+        hard += Math.max(0, leadersFrom[depth] - leaderRoom - benchRoom);
+        if (thinkersRequired) {
+            hard += Math.max(0, thinkerShortfall - thinkersFrom[depth]);
+            hard += Math.max(0, thinkersFrom[depth] - thinkerRoom - benchRoom);
+        }
+
+        return TeamOptimizer.HARD_WEIGHT * hard + varianceBound(depth);
+    }
+
+    /**
+     * Smallest variance of team averages reachable when each team's final skill
+     * sum lies between its smallest and largest possible fill
+     */
+    private double varianceBound(int depth) {
+        double lowest = Double.MAX_VALUE;
+        double highest = -Double.MAX_VALUE;
+        int remainingSkill = 0;
+        for (int p = depth; p < people.length; p++) {
+            remainingSkill += skill[p];
+        }
+        int assignedSkill = 0;
+        for (int t = 0; t < numTeams; t++) {
+            int open = teamSize - size[t];
+            scratchLow[t] = skillSum[t] + smallestFrom[depth][open];
+            scratchHigh[t] = skillSum[t] + largestFrom[depth][open];
+            lowest = Math.min(lowest, scratchLow[t]);
+            highest = Math.max(highest, scratchHigh[t]);
+            assignedSkill += skillSum[t];
+        }
+
+        // Optimal sums are clamp(level, low, high) for a common level
+        double low = lowest;
+        double high = highest;
+        double total = assignedSkill + remainingSkill;
+        for (int step = 0; step < BISECTION_STEPS; step++) {
+            double level = (low + high) / 2;
+            double sum = 0;
+            for (int t = 0; t < numTeams; t++) {
+                sum += Math.max(scratchLow[t], Math.min(scratchHigh[t], level));
+            }
+            // Without a bench the total is fixed; with one, the level must equal the mean
+            boolean tooHigh = benchCapacity == 0 ? sum > total : sum / numTeams < level;
+            if (tooHigh) {
+                high = level;
+            } else {
+                low = level;
+            }
+        }
+
+        double level = (low + high) / 2;
+        double sum = 0;
+        double squareSum = 0;
+        for (int t = 0; t < numTeams; t++) {
+            double average = Math.max(scratchLow[t], Math.min(scratchHigh[t], level)) / teamSize;
+            sum += average;
+            squareSum += average * average;
+        }
+        double mean = sum / numTeams;
+        return Math.max(0.0, squareSum / numTeams - mean * mean);
+    }
+
+    private List<Team> buildTeams(int[] solution) {
+        List<Team> teams = new ArrayList<>(numTeams);
+        for (int t = 0; t < numTeams; t++) {
+            teams.add(new Team("TEAM_" + (t + 1), teamSize));
+        }
+        for (int i = 0; i < people.length; i++) {
+            if (solution[i] < numTeams) {
+                teams.get(solution[i]).addMember(people[i]);
+            }
+        }
+        return teams;
+    }
+}
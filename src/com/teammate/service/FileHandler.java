@@ -3,12 +3,25 @@ package com.teammate.service;
 import com.teammate.model.*;
 import com.teammate.util.*;
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
 import java.util.*;
+import java.util.concurrent.*;
 
 /**
  * FileHandler - CSV File Operations
  *
  * Handles reading and writing CSV files for participants and teams.
+ * Participant files are read with CsvTokenizer (RFC 4180 quoting), and
+ * text fields are quoted on write when they hold commas or quotes.
+ * loadParticipantsParallel() parses a memory-mapped file in line-aligned
+ * chunks on several threads for large imports.
+ * Every load passes the participants through a GameDictionary (see
+ * setGameDictionary), so all rows with the same game spelling share one
+ * String instance and carry the game's ID.
+ * Loads and saves are recorded as JFR events (TeamMateEvents.CsvLoad and
+ * TeamMateEvents.CsvSave).
  *
  * @author Krisanthi Segar 2425596
  * @version 1.0
@@ -18,93 +31,328 @@ public class FileHandler {
 
     private String inputFilePath;
     private String outputFilePath;
-    private static final String CSV_DELIMITER = ",";
+    private GameDictionary games;
+    private static final Role[] ROLES = Role.values();
+
+    /** Files at least this large are worth loading with loadParticipantsParallel */
+    public static final long PARALLEL_LOAD_THRESHOLD = 64L << 20;
+    private static final int CHUNKS_PER_THREAD = 4;
+    private static final long MIN_CHUNK_BYTES = 64L << 10;
+    private static final long MAX_CHUNK_BYTES = 256L << 20;
 
     public FileHandler(String inputFilePath, String outputFilePath) {
         this.inputFilePath = inputFilePath;
         this.outputFilePath = outputFilePath;
     }
 
+    /**
+     * Sets the dictionary that numbers the games of loaded participants
+     * Without one, each load numbers its participants with a new dictionary.
+     * @param games Dictionary, or null for a new one per load
+     */
+    public void setGameDictionary(GameDictionary games) {
+        this.games = games;
+    }
+
     /**
      * Loads participants from CSV file
      * @return List of participants
      * @throws FileProcessingException if file operation fails
      */
     public List<Participant> loadParticipants() throws FileProcessingException {
-        List<Participant> participants = new ArrayList<>();
-        BufferedReader reader = null;
+        ParsedChunk file = new ParsedChunk(0, 0, true);
+        TeamMateEvents.CsvLoad event = new TeamMateEvents.CsvLoad();
+        event.begin();
 
         try {
             validateCSV();
-            reader = new BufferedReader(new FileReader(inputFilePath));
-            String line;
-            boolean isFirstLine = true;
-            int lineNumber = 0;
-
-            while ((line = reader.readLine()) != null) {
-                lineNumber++;
-                if (isFirstLine) {
-                    isFirstLine = false;
-                    continue;
+            file.readStream(inputFilePath);
+        } catch (FileNotFoundException e) {
+            throw new FileProcessingException("File not found: " + inputFilePath, e);
+        } catch (IOException e) {
+            throw new FileProcessingException("Error reading file", e);
+        } finally {
+            commitLoad(event, file.participants.size(), file.skippedCount);
+        }
+
+        file.logSkipped(0);
+        if (file.participants.isEmpty()) {
+            throw new FileProcessingException("No valid participants found");
+        }
+
+        assignGames(file.participants);
+        return file.participants;
+    }
+
+    /**
+     * Loads participants from CSV file using several threads
+     *
+     * Memory-maps the file and cuts it into chunks that end at a line break,
+     * about CHUNKS_PER_THREAD per thread, and parses the chunks on a pool of
+     * the given size. Chunks are merged back in file order, so the result
+     * and the skipped-line warnings (with their line numbers) are the same
+     * as loadParticipants(). If a cut lands inside a quoted field that spans
+     * lines, the file is read again sequentially. Workers share no state:
+     * game spellings are shared and numbered after the merge, in file order.
+     *
+     * @param parallelism Number of worker threads
+     * @return List of participants, in file order
+     * @throws FileProcessingException if file operation fails
+     */
+    public List<Participant> loadParticipantsParallel(int parallelism) throws FileProcessingException {
+        List<ParsedChunk> chunks = new ArrayList<>();
+        int rows = 0;
+        int skipped = 0;
+        TeamMateEvents.CsvLoad event = new TeamMateEvents.CsvLoad();
+        event.begin();
+
+        try {
+            validateCSV();
+            try (FileChannel channel = FileChannel.open(Paths.get(inputFilePath), StandardOpenOption.READ)) {
+                long[] bounds = chunkBounds(channel, Math.max(1, parallelism));
+                for (int k = 0; k + 1 < bounds.length; k++) {
+                    chunks.add(new ParsedChunk(bounds[k], bounds[k + 1] - bounds[k], k == 0));
                 }
-                if (line.trim().isEmpty()) continue;
+                parseChunks(channel, chunks, parallelism);
+            }
 
-                try {
-                    Participant p = parseParticipantLine(line, lineNumber);
-                    if (p != null) participants.add(p);
-                } catch (InvalidInputException e) {
-                    Logger.logWarning("Skipping line " + lineNumber);
+            // A chunk is cut inside quotes only if the one before it ran out inside them
+            for (int k = 0; k + 1 < chunks.size(); k++) {
+                if (chunks.get(k).unterminatedQuote) {
+                    Logger.logInfo("Quoted field spans chunk boundary; loading " + inputFilePath + " sequentially");
+                    ParsedChunk file = new ParsedChunk(0, 0, true);
+                    file.readStream(inputFilePath);
+                    chunks = Collections.singletonList(file);
+                    break;
                 }
             }
+            for (ParsedChunk chunk : chunks) {
+                rows += chunk.participants.size();
+                skipped += chunk.skippedCount;
+            }
 
-        } catch (FileNotFoundException e) {
-            throw new FileProcessingException("File not found: " + inputFilePath, e);
         } catch (IOException e) {
             throw new FileProcessingException("Error reading file", e);
         } finally {
-            if (reader != null) {
-                try { reader.close(); } catch (IOException e) {}
-            }
+            commitLoad(event, rows, skipped);
+        }
+
+        List<Participant> participants = new ArrayList<>(rows);
+        int linesBefore = 0;
+        for (ParsedChunk chunk : chunks) {
+            participants.addAll(chunk.participants);
+            chunk.logSkipped(linesBefore);
+            linesBefore += chunk.lines;
         }
 
         if (participants.isEmpty()) {
             throw new FileProcessingException("No valid participants found");
         }
 
+        assignGames(participants);
         return participants;
     }
 
     /**
-     * Parses a CSV line into a Participant object
-     * @param line The CSV line
-     * @param lineNumber The line number
-     * @return Participant object
-     * @throws InvalidInputException if line is invalid
+     * Gives loaded participants their shared game spelling and game ID, in list order
+     */
+    private void assignGames(List<Participant> participants) {
+        GameDictionary dictionary = games != null ? games : new GameDictionary();
+        for (int i = 0; i < participants.size(); i++) {
+            dictionary.assign(participants.get(i));
+        }
+    }
+
+    /**
+     * Chunk start offsets plus the file size; every start but the first follows a line feed
+     */
+    private static long[] chunkBounds(FileChannel channel, int parallelism) throws IOException {
+        long size = channel.size();
+        long target = Math.min(MAX_CHUNK_BYTES,
+                Math.max(MIN_CHUNK_BYTES, size / ((long) parallelism * CHUNKS_PER_THREAD) + 1));
+        List<Long> bounds = new ArrayList<>();
+        bounds.add(0L);
+
+        long start = 0;
+        while (size - start > target) {
+            long next = nextLineStart(channel, start + target, size);
+            if (next >= size) break;
+            bounds.add(next);
+            start = next;
+        }
+        bounds.add(size);
+
+        long[] result = new long[bounds.size()];
+        for (int k = 0; k < result.length; k++) {
+            result[k] = bounds.get(k);
+            if (k > 0 && result[k] - result[k - 1] > Integer.MAX_VALUE) {
+                throw new IOException("Line too long to map near byte " + result[k - 1]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Offset just past the first line feed at or after position, or size if there is none
+     */
+    private static long nextLineStart(FileChannel channel, long position, long size) throws IOException {
+        ByteBuffer block = ByteBuffer.allocate(8192);
+        while (position < size) {
+            block.clear();
+            int read = channel.read(block, position);
+            if (read <= 0) break;
+            for (int i = 0; i < read; i++) {
+                if (block.get(i) == '\n') return position + i + 1;
+            }
+            position += read;
+        }
+        return size;
+    }
+
+    /**
+     * Parses every chunk on a pool of parallelism threads
      */
-    private Participant parseParticipantLine(String line, int lineNumber) throws InvalidInputException {
-        String[] fields = line.split(CSV_DELIMITER, -1);
+    private static void parseChunks(FileChannel channel, List<ParsedChunk> chunks, int parallelism)
+            throws IOException, FileProcessingException {
+        if (parallelism <= 1 || chunks.size() == 1) {
+            for (ParsedChunk chunk : chunks) {
+                chunk.readMapped(channel);
+            }
+            return;
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (ParsedChunk chunk : chunks) {
+                futures.add(pool.submit(() -> {
+                    chunk.readMapped(channel);
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new FileProcessingException("Interrupted while loading participants", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new FileProcessingException("Error parsing file", e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
 
-        if (fields.length < 8) {
+    /**
+     * Participants and skipped lines of one chunk of a participant file
+     */
+    private static final class ParsedChunk {
+        private final long start;
+        private final long length;
+        private final boolean hasHeader;
+        private final List<Participant> participants = new ArrayList<>();
+        // Line numbers within the chunk (from 1) of records that were skipped
+        private int[] skippedLines = new int[16];
+        private int skippedCount;
+        private int lines;
+        private boolean unterminatedQuote;
+
+        ParsedChunk(long start, long length, boolean hasHeader) {
+            this.start = start;
+            this.length = length;
+            this.hasHeader = hasHeader;
+        }
+
+        void readStream(String path) throws IOException {
+            try (InputStream in = new FileInputStream(path)) {
+                read(new CsvTokenizer(in));
+            }
+        }
+
+        void readMapped(FileChannel channel) throws IOException {
+            read(new CsvTokenizer(channel.map(FileChannel.MapMode.READ_ONLY, start, length)));
+        }
+
+        private void read(CsvTokenizer csv) throws IOException {
+            if (hasHeader) {
+                csv.nextRecord();
+            }
+            while (csv.nextRecord()) {
+                if (csv.isBlank()) continue;
+
+                try {
+                    participants.add(parseParticipant(csv));
+                } catch (InvalidInputException e) {
+                    if (skippedCount == skippedLines.length) {
+                        skippedLines = Arrays.copyOf(skippedLines, skippedCount * 2);
+                    }
+                    skippedLines[skippedCount++] = csv.getLineNumber();
+                }
+            }
+            lines = csv.getNextLineNumber() - 1;
+            unterminatedQuote = csv.hasUnterminatedQuote();
+        }
+
+        /**
+         * Logs the skipped lines, numbered from the start of the file
+         * @param linesBefore Lines in the file before this chunk
+         */
+        void logSkipped(int linesBefore) {
+            for (int i = 0; i < skippedCount; i++) {
+                Logger.logWarning("Skipping line " + (linesBefore + skippedLines[i]));
+            }
+        }
+    }
+
+    /**
+     * Ends a load event and commits it if JFR is recording it
+     */
+    private void commitLoad(TeamMateEvents.CsvLoad event, int rows, int skipped) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.path = inputFilePath;
+            event.bytes = new File(inputFilePath).length();
+            event.rows = rows;
+            event.skippedRows = skipped;
+            event.commit();
+        }
+    }
+
+    /**
+     * Parses the tokenizer's current record into a Participant object
+     *
+     * Numbers, the role and the ID are read from the record's bytes; only the
+     * kept text fields become Strings. The PersonalityType column is not read,
+     * since Participant derives the type from the score.
+     *
+     * @param csv Tokenizer positioned on a participant record
+     * @return Participant object
+     * @throws InvalidInputException if the record is invalid
+     */
+    static Participant parseParticipant(CsvTokenizer csv) throws InvalidInputException {
+        if (csv.isMalformed()) {
+            throw new InvalidInputException("Malformed quoting");
+        }
+        if (csv.getFieldCount() < 8) {
             throw new InvalidInputException("Insufficient fields");
         }
 
         try {
-            String id = fields[0].trim();
-            String name = fields[1].trim();
-            String email = fields[2].trim();
-            String preferredGame = fields[3].trim();
-            int skillLevel = Integer.parseInt(fields[4].trim());
-            Role preferredRole = Role.fromString(fields[5].trim());
-            int personalityScore = Integer.parseInt(fields[6].trim());
-
-            if (!ValidationUtils.isValidParticipantId(id) ||
+            int skillLevel = csv.intField(4);
+            Role preferredRole = csv.enumField(5, ROLES);
+            int personalityScore = csv.intField(6);
+
+            if (!csv.isParticipantId(0) || preferredRole == null ||
                     !ValidationUtils.isValidSkillLevel(skillLevel) ||
                     !PersonalityClassifier.validateScore(personalityScore)) {
                 throw new InvalidInputException("Invalid data");
             }
 
-            return new Participant(id, name, email, preferredGame, skillLevel,
-                    preferredRole, personalityScore);
+            return new Participant(csv.stringField(0), csv.stringField(1), csv.stringField(2),
+                    csv.stringField(3), skillLevel, preferredRole, personalityScore);
 
         } catch (NumberFormatException e) {
             throw new InvalidInputException("Invalid number format");
@@ -120,6 +368,8 @@ public class FileHandler {
     public void saveParticipants(List<Participant> participants, String filePath)
             throws FileProcessingException {
         BufferedWriter writer = null;
+        TeamMateEvents.CsvSave event = new TeamMateEvents.CsvSave();
+        event.begin();
 
         try {
             writer = new BufferedWriter(new FileWriter(filePath));
@@ -129,7 +379,8 @@ public class FileHandler {
 
             for (Participant p : participants) {
                 String line = String.format("%s,%s,%s,%s,%d,%s,%d,%s",
-                        p.getId(), p.getName(), p.getEmail(), p.getPreferredGame(),
+                        p.getId(), CsvTokenizer.escape(p.getName()), CsvTokenizer.escape(p.getEmail()),
+                        CsvTokenizer.escape(p.getPreferredGame()),
                         p.getSkillLevel(), p.getPreferredRole(),
                         p.getPersonalityScore(), p.getPersonalityType());
                 writer.write(line);
@@ -144,6 +395,7 @@ public class FileHandler {
             if (writer != null) {
                 try { writer.close(); } catch (IOException e) {}
             }
+            commitSave(event, filePath, "participants", participants.size());
         }
     }
 
@@ -154,6 +406,9 @@ public class FileHandler {
      */
     public void saveTeams(List<Team> teams) throws FileProcessingException {
         BufferedWriter writer = null;
+        int rows = 0;
+        TeamMateEvents.CsvSave event = new TeamMateEvents.CsvSave();
+        event.begin();
 
         try {
             writer = new BufferedWriter(new FileWriter(outputFilePath, false));
@@ -162,13 +417,16 @@ public class FileHandler {
             writer.newLine();
 
             for (Team team : teams) {
-                for (Participant p : team.getMembers()) {
+                for (int i = 0; i < team.getCurrentSize(); i++) {
+                    Participant p = team.getMember(i);
                     String line = String.format("%s,%s,%s,%s,%s,%d,%s,%s,%d",
-                            team.getTeamId(), p.getId(), p.getName(), p.getEmail(),
-                            p.getPreferredGame(), p.getSkillLevel(), p.getPreferredRole(),
+                            team.getTeamId(), p.getId(), CsvTokenizer.escape(p.getName()),
+                            CsvTokenizer.escape(p.getEmail()), CsvTokenizer.escape(p.getPreferredGame()),
+                            p.getSkillLevel(), p.getPreferredRole(),
                             p.getPersonalityType(), p.getPersonalityScore());
                     writer.write(line);
                     writer.newLine();
+                    rows++;
                 }
             }
 
@@ -180,6 +438,21 @@ public class FileHandler {
             if (writer != null) {
                 try { writer.close(); } catch (IOException e) {}
             }
+            commitSave(event, outputFilePath, "teams", rows);
+        }
+    }
+
+    /**
+     * Ends a save event and commits it if JFR is recording it
+     */
+    private static void commitSave(TeamMateEvents.CsvSave event, String filePath, String content, int rows) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.path = filePath;
+            event.content = content;
+            event.bytes = new File(filePath).length();
+            event.rows = rows;
+            event.commit();
         }
     }
 
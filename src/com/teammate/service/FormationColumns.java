@@ -0,0 +1,358 @@
+package com.teammate.service;
+
+import com.teammate.model.*;
+import java.util.*;
+
+/**
+ * FormationColumns - Struct-of-arrays view of participants and teams during formation
+ *
+ * Each participant is converted once into primitive columns (skill, role and
+ * personality ordinals, game ID, team) addressed by a participant index, and
+ * each team keeps its members and running counters in flat arrays addressed by
+ * a team index. Formation phases, the selection index and the optimizer read
+ * these columns instead of chasing Participant and Team objects; Team objects
+ * are only built at the end with toTeams().
+ *
+ * Game IDs are the ones participants got from their GameDictionary at load
+ * or registration, so no names are looked up while forming teams. Cohorts
+ * built some other way are numbered by a private dictionary in the order
+ * participants are added (see GameIds), so IDs are the same on every run.
+ *
+ * Member order inside a team follows Team semantics (append on add, order kept
+ * on remove), so teams built here match a FormationJournal replay exactly. An
+ * attached journal receives every add and remove.
+ *
+ * @author Krisanthi Segar 2425596
+ * @version 1.0
+ * @since 2025
+ */
+public class FormationColumns {
+
+    public static final int NO_TEAM = -1;
+
+    private static final int ROLE_COUNT = Role.values().length;
+    private static final int TYPE_COUNT = PersonalityType.values().length;
+
+    // Participant columns
+    private Participant[] people;
+    private int[] skill;
+    private byte[] role;
+    private byte[] personality;
+    private int[] game;
+    private int[] team;
+    private int participantCount;
+    private final GameIds games = new GameIds();
+
+    // Team columns: members of team t are members[t * capacity .. t * capacity + size[t])
+    private final int teamSize;
+    private final int capacity;
+    private int teamCount;
+    private int[] size;
+    private int[] skillSum;
+    private int[] roleCounts;
+    private int[] distinctRoles;
+    private int[] typeCounts;
+    private int[] members;
+    private int[] teamGames;
+    private int[] teamGameCounts;
+    private int[] teamGameLength;
+
+    private FormationJournal journal;
+
+    /**
+     * Creates empty columns
+     * @param teamSize Members per team
+     * @param expectedParticipants Initial participant capacity
+     * @param expectedTeams Initial team capacity
+     */
+    public FormationColumns(int teamSize, int expectedParticipants, int expectedTeams) {
+        this(teamSize, teamSize, expectedParticipants, expectedTeams);
+    }
+
+    private FormationColumns(int teamSize, int capacity, int expectedParticipants, int expectedTeams) {
+        this.teamSize = teamSize;
+        this.capacity = Math.max(1, capacity);
+        int participants = Math.max(1, expectedParticipants);
+        people = new Participant[participants];
+        skill = new int[participants];
+        role = new byte[participants];
+        personality = new byte[participants];
+        game = new int[participants];
+        team = new int[participants];
+        allocateTeams(Math.max(1, expectedTeams));
+    }
+
+    /**
+     * Converts existing teams, adding participants in team and member order
+     * @param teams The teams
+     * @return Columns holding the same teams and members
+     */
+    public static FormationColumns fromTeams(List<Team> teams) {
+        int teamSize = 1;
+        int capacity = 1;
+        int total = 0;
+        for (Team t : teams) {
+            teamSize = Math.max(teamSize, t.getTeamSize());
+            capacity = Math.max(capacity, Math.max(t.getTeamSize(), t.getCurrentSize()));
+            total += t.getCurrentSize();
+        }
+
+        FormationColumns columns = new FormationColumns(teamSize, capacity, total, teams.size());
+        for (Team t : teams) {
+            int teamIndex = columns.addTeam();
+            for (int k = 0; k < t.getCurrentSize(); k++) {
+                columns.addUnchecked(columns.addParticipant(t.getMember(k)), teamIndex);
+            }
+        }
+        return columns;
+    }
+
+    /**
+     * Records every following add and remove
+     * @param journal The journal, or null to stop recording
+     */
+    public void setJournal(FormationJournal journal) {
+        this.journal = journal;
+    }
+
+    /**
+     * Converts a participant into a new row of columns
+     * @param p The participant
+     * @return Participant index
+     */
+    public int addParticipant(Participant p) {
+        if (participantCount == people.length) {
+            int grown = participantCount * 2;
+            people = Arrays.copyOf(people, grown);
+            skill = Arrays.copyOf(skill, grown);
+            role = Arrays.copyOf(role, grown);
+            personality = Arrays.copyOf(personality, grown);
+            game = Arrays.copyOf(game, grown);
+            team = Arrays.copyOf(team, grown);
+        }
+        int index = participantCount++;
+        team[index] = NO_TEAM;
+        load(index, p);
+        return index;
+    }
+
+    /**
+     * Re-reads an unassigned participant's fields after they were edited
+     * @param index Participant index
+     * @param p The participant (same ID, possibly a new instance)
+     */
+    public void reload(int index, Participant p) {
+        if (team[index] != NO_TEAM) {
+            throw new IllegalStateException("Remove participant " + index + " from its team before reloading");
+        }
+        load(index, p);
+    }
+
+    private void load(int index, Participant p) {
+        people[index] = p;
+        skill[index] = p.getSkillLevel();
+        role[index] = (byte) (p.getPreferredRole() == null ? -1 : p.getPreferredRole().ordinal());
+        personality[index] = (byte) (p.getPersonalityType() == null ? -1 : p.getPersonalityType().ordinal());
+        game[index] = games.of(p);
+    }
+
+    /**
+     * Appends an empty team
+     * @return Team index
+     */
+    public int addTeam() {
+        if (teamCount == size.length) {
+            allocateTeams(teamCount * 2);
+        }
+        return teamCount++;
+    }
+
+    private void allocateTeams(int teams) {
+        size = size == null ? new int[teams] : Arrays.copyOf(size, teams);
+        skillSum = skillSum == null ? new int[teams] : Arrays.copyOf(skillSum, teams);
+        distinctRoles = distinctRoles == null ? new int[teams] : Arrays.copyOf(distinctRoles, teams);
+        teamGameLength = teamGameLength == null ? new int[teams] : Arrays.copyOf(teamGameLength, teams);
+        roleCounts = roleCounts == null ? new int[teams * ROLE_COUNT] : Arrays.copyOf(roleCounts, teams * ROLE_COUNT);
+        typeCounts = typeCounts == null ? new int[teams * TYPE_COUNT] : Arrays.copyOf(typeCounts, teams * TYPE_COUNT);
+        members = members == null ? new int[teams * capacity] : Arrays.copyOf(members, teams * capacity);
+        teamGames = teamGames == null ? new int[teams * capacity] : Arrays.copyOf(teamGames, teams * capacity);
+        teamGameCounts = teamGameCounts == null ? new int[teams * capacity] : Arrays.copyOf(teamGameCounts, teams * capacity);
+    }
+
+    /**
+     * Places an unassigned participant into a team
+     * @param p Participant index
+     * @param t Team index
+     * @return false if the team is full
+     */
+    public boolean add(int p, int t) {
+        if (team[p] != NO_TEAM) {
+            throw new IllegalStateException("Participant " + p + " is already in team " + team[p]);
+        }
+        if (size[t] >= teamSize) {
+            return false;
+        }
+        addUnchecked(p, t);
+        return true;
+    }
+
+    private void addUnchecked(int p, int t) {
+        members[t * capacity + size[t]++] = p;
+        team[p] = t;
+        count(p, t, 1);
+        if (journal != null) journal.recordAdd(p, t);
+    }
+
+    /**
+     * Takes a participant out of its team, keeping the order of the others
+     * @param p Participant index
+     * @return The team it left, or NO_TEAM if it had none
+     */
+    public int remove(int p) {
+        int t = team[p];
+        if (t == NO_TEAM) {
+            return NO_TEAM;
+        }
+        int base = t * capacity;
+        int position = 0;
+        while (members[base + position] != p) position++;
+        System.arraycopy(members, base + position + 1, members, base + position, size[t] - position - 1);
+        size[t]--;
+        team[p] = NO_TEAM;
+        count(p, t, -1);
+        if (journal != null) journal.recordRemove(p, t);
+        return t;
+    }
+
+    /**
+     * Exchanges two assigned participants between their teams
+     * @param p First participant index
+     * @param q Second participant index
+     */
+    public void swap(int p, int q) {
+        int teamP = remove(p);
+        int teamQ = remove(q);
+        addUnchecked(q, teamP);
+        addUnchecked(p, teamQ);
+    }
+
+    private void count(int p, int t, int delta) {
+        skillSum[t] += delta * skill[p];
+        int r = role[p];
+        if (r >= 0) {
+            int before = roleCounts[t * ROLE_COUNT + r];
+            roleCounts[t * ROLE_COUNT + r] = before + delta;
+            if (before == 0) distinctRoles[t]++;
+            else if (before + delta == 0) distinctRoles[t]--;
+        }
+        if (personality[p] >= 0) {
+            typeCounts[t * TYPE_COUNT + personality[p]] += delta;
+        }
+
+        int base = t * capacity;
+        int length = teamGameLength[t];
+        int i = 0;
+        while (i < length && teamGames[base + i] != game[p]) i++;
+        if (i == length) {
+            teamGames[base + length] = game[p];
+            teamGameCounts[base + length] = 0;
+            teamGameLength[t]++;
+        }
+        teamGameCounts[base + i] += delta;
+        if (teamGameCounts[base + i] == 0) {
+            length = teamGameLength[t]--;
+            teamGames[base + i] = teamGames[base + length - 1];
+            teamGameCounts[base + i] = teamGameCounts[base + length - 1];
+        }
+    }
+
+    /**
+     * Builds Team objects for every team
+     * @return Teams named TEAM_1..TEAM_n in index order
+     */
+    public List<Team> toTeams() {
+        List<Team> teams = new ArrayList<>(teamCount);
+        for (int t = 0; t < teamCount; t++) {
+            teams.add(toTeam(t));
+        }
+        return teams;
+    }
+
+    /**
+     * Builds the Team object for one team
+     * @param t Team index
+     * @return Team named TEAM_(t + 1)
+     */
+    public Team toTeam(int t) {
+        Team result = new Team(teamId(t), teamSize);
+        for (int k = 0; k < size[t]; k++) {
+            result.addMember(people[members[t * capacity + k]]);
+        }
+        return result;
+    }
+
+    /**
+     * ID given to a team by toTeam
+     * @param t Team index
+     * @return Team ID
+     */
+    public static String teamId(int t) {
+        return "TEAM_" + (t + 1);
+    }
+
+    // Participant columns
+    public int getParticipantCount() { return participantCount; }
+    public Participant getParticipant(int p) { return people[p]; }
+    public int skill(int p) { return skill[p]; }
+    public int role(int p) { return role[p]; }
+    public int personality(int p) { return personality[p]; }
+    public int game(int p) { return game[p]; }
+    public int teamOf(int p) { return team[p]; }
+    public boolean isAssigned(int p) { return team[p] != NO_TEAM; }
+
+    // Team columns
+    public int getTeamSize() { return teamSize; }
+    public int getTeamCount() { return teamCount; }
+    public int size(int t) { return size[t]; }
+    public boolean isFull(int t) { return size[t] >= teamSize; }
+    public int skillSum(int t) { return skillSum[t]; }
+    public int distinctRoles(int t) { return distinctRoles[t]; }
+    public int roleCount(int t, int roleOrdinal) { return roleCounts[t * ROLE_COUNT + roleOrdinal]; }
+    public int personalityCount(int t, int typeOrdinal) { return typeCounts[t * TYPE_COUNT + typeOrdinal]; }
+
+    /**
+     * Gets a team member by position
+     * @param t Team index
+     * @param k Position, 0 to size(t) - 1
+     * @return Participant index
+     */
+    public int member(int t, int k) {
+        return members[t * capacity + k];
+    }
+
+    /**
+     * Average skill of a team
+     * @param t Team index
+     * @return Average skill, 0 when empty
+     */
+    public double average(int t) {
+        return size[t] == 0 ? 0.0 : (double) skillSum[t] / size[t];
+    }
+
+    /**
+     * Number of members of a team playing a game
+     * @param t Team index
+     * @param gameId Game ID, as returned by game()
+     * @return Player count
+     */
+    public int gameCount(int t, int gameId) {
+        int base = t * capacity;
+        for (int i = 0; i < teamGameLength[t]; i++) {
+            if (teamGames[base + i] == gameId) return teamGameCounts[base + i];
+        }
+        return 0;
+    }
+
+    // Members per team row, including room for overfull teams converted by fromTeams
+    int memberCapacity() { return capacity; }
+}
@@ -0,0 +1,96 @@
+package com.teammate.service;
+
+/**
+ * FormationDeadline - Time limit and cancellation for one formation run
+ *
+ * Formation code polls isExpired() between placements and refinement steps.
+ * A deadline expires when its time is up, when cancel() is called (for
+ * example by an organizer from another thread), or when the thread running
+ * the formation is interrupted. Formation then stops early and keeps its
+ * current assignment, and records through degrade() how complete the
+ * returned teams are; strategies copy that into FormationResult.
+ *
+ * A deadline belongs to a single run, so none() returns a fresh instance.
+ *
+ * @author Krisanthi Segar 2425596
+ * @version 1.0
+ * @since 2025
+ */
+public class FormationDeadline {
+
+    private final long deadlineNanos;
+    private volatile boolean cancelled;
+    private volatile FormationResult.Completion completion = FormationResult.Completion.COMPLETE;
+
+    private FormationDeadline(long deadlineNanos) {
+        this.deadlineNanos = deadlineNanos;
+    }
+
+    /**
+     * Creates a deadline that only expires on cancellation or interruption
+     * @return Deadline without a time limit
+     */
+    public static FormationDeadline none() {
+        return new FormationDeadline(Long.MAX_VALUE);
+    }
+
+    /**
+     * Creates a deadline some time from now
+     * @param millis Time limit in milliseconds
+     * @return Deadline expiring after the limit
+     */
+    public static FormationDeadline in(long millis) {
+        return new FormationDeadline(System.nanoTime() + Math.max(0, millis) * 1_000_000L);
+    }
+
+    /**
+     * Asks the run to stop as soon as possible; safe from any thread
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    /**
+     * Whether the run was cancelled or its thread interrupted
+     * @return true if formation should stop without further work
+     */
+    public boolean isCancelled() {
+        return cancelled || Thread.currentThread().isInterrupted();
+    }
+
+    /**
+     * Whether formation should stop refining
+     * @return true once the time is up or the run is cancelled
+     */
+    public boolean isExpired() {
+        return isCancelled() || (deadlineNanos != Long.MAX_VALUE && System.nanoTime() - deadlineNanos >= 0);
+    }
+
+    /**
+     * Time left before the deadline
+     * @return Milliseconds left (0 once expired, Long.MAX_VALUE without a limit)
+     */
+    public long remainingMillis() {
+        if (isCancelled()) return 0;
+        if (deadlineNanos == Long.MAX_VALUE) return Long.MAX_VALUE;
+        return Math.max(0, (deadlineNanos - System.nanoTime()) / 1_000_000L);
+    }
+
+    /**
+     * Records that the run stopped early; the least complete report wins
+     * @param reached How complete the returned teams are
+     */
+    public synchronized void degrade(FormationResult.Completion reached) {
+        if (reached.ordinal() > completion.ordinal()) {
+            completion = reached;
+        }
+    }
+
+    /**
+     * How complete the run's teams are
+     * @return COMPLETE unless the run stopped early
+     */
+    public FormationResult.Completion getCompletion() {
+        return completion;
+    }
+}
@@ -0,0 +1,239 @@
+package com.teammate.service;
+
+import com.teammate.model.*;
+import java.io.*;
+import java.util.*;
+
+/**
+ * FormationJournal - Compact binary record of team formation decisions
+ *
+ * Records every membership change a TeamBuilder makes (placements, and the
+ * removals/additions that make up swaps) as variable-length integers keyed by
+ * participant position in the builder's input list and team index. Replaying a
+ * journal against the same participant list rebuilds identical teams, in the
+ * same member order, without running any scoring.
+ *
+ * Format: magic "TMJ1", then varints participantCount, teamSize, teamCount,
+ * followed by entries of varint (participant << 1 | op) and varint team,
+ * where op is 0 for add and 1 for remove.
+ *
+ * @author Krisanthi Segar 2425596
+ * @version 1.0
+ * @since 2025
+ */
+public class FormationJournal {
+
+    private static final byte[] MAGIC = {'T', 'M', 'J', '1'};
+    private static final int OP_ADD = 0;
+    private static final int OP_REMOVE = 1;
+
+    private int participantCount;
+    private int teamSize;
+    private int teamCount;
+
+    private byte[] entries = new byte[256];
+    private int length;
+    private int entryCount;
+
+    /**
+     * Starts a new recording, discarding any previous entries
+     * @param participantCount Size of the builder's input list
+     * @param teamSize Team size
+     * @param teamCount Number of teams created
+     */
+    public synchronized void begin(int participantCount, int teamSize, int teamCount) {
+        this.participantCount = participantCount;
+        this.teamSize = teamSize;
+        this.teamCount = teamCount;
+        this.length = 0;
+        this.entryCount = 0;
+    }
+
+    /**
+     * Records a participant joining a team
+     * @param participant Participant position in the input list
+     * @param team Team index
+     */
+    public synchronized void recordAdd(int participant, int team) {
+        record(participant, OP_ADD, team);
+    }
+
+    /**
+     * Records a participant leaving a team
+     * @param participant Participant position in the input list
+     * @param team Team index
+     */
+    public synchronized void recordRemove(int participant, int team) {
+        record(participant, OP_REMOVE, team);
+    }
+
+    /**
+     * Appends another journal's entries, renumbering participants and teams
+     * @param other Journal recorded against a subset of participants and teams
+     * @param participantMap Maps the other journal's participant positions to this journal's
+     * @param teamOffset Added to the other journal's team indices
+     */
+    public synchronized void append(FormationJournal other, int[] participantMap, int teamOffset) {
+        Cursor cursor = new Cursor(other.entries, 0, other.length);
+        while (cursor.hasNext()) {
+            long head = cursor.next();
+            int team = (int) cursor.next();
+            record(participantMap[(int) (head >>> 1)], (int) (head & 1), team + teamOffset);
+        }
+    }
+
+    /**
+     * Rebuilds the recorded teams from the same participant list
+     * @param participants The builder's original input list
+     * @return Teams identical to the recorded run
+     */
+    public synchronized List<Team> replay(List<Participant> participants) {
+        if (participants.size() != participantCount) {
+            throw new IllegalArgumentException("Journal was recorded for " + participantCount +
+                    " participants, got " + participants.size());
+        }
+
+        List<Team> teams = new ArrayList<>(teamCount);
+        for (int i = 0; i < teamCount; i++) {
+            teams.add(new Team("TEAM_" + (i + 1), teamSize));
+        }
+
+        Cursor cursor = new Cursor(entries, 0, length);
+        while (cursor.hasNext()) {
+            long head = cursor.next();
+            int team = (int) cursor.next();
+
+            Participant p = participants.get((int) (head >>> 1));
+            if ((head & 1) == OP_ADD) {
+                teams.get(team).addMember(p);
+            } else {
+                teams.get(team).removeMember(p);
+            }
+        }
+        return teams;
+    }
+
+    /**
+     * Number of recorded membership changes
+     * @return Entry count
+     */
+    public synchronized int getEntryCount() {
+        return entryCount;
+    }
+
+    /**
+     * Serializes the journal
+     * @return Encoded bytes
+     */
+    public synchronized byte[] toByteArray() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(length + 16);
+        out.write(MAGIC, 0, MAGIC.length);
+        byte[] header = new byte[15];
+        int headerLength = 0;
+        headerLength = writeVarint(header, headerLength, participantCount);
+        headerLength = writeVarint(header, headerLength, teamSize);
+        headerLength = writeVarint(header, headerLength, teamCount);
+        out.write(header, 0, headerLength);
+        out.write(entries, 0, length);
+        return out.toByteArray();
+    }
+
+    /**
+     * Writes the journal to a stream
+     * @param out Destination
+     * @throws IOException if writing fails
+     */
+    public void writeTo(OutputStream out) throws IOException {
+        out.write(toByteArray());
+    }
+
+    /**
+     * Decodes a journal produced by toByteArray
+     * @param data Encoded bytes
+     * @return The journal
+     */
+    public static FormationJournal fromByteArray(byte[] data) {
+        for (int i = 0; i < MAGIC.length; i++) {
+            if (data.length <= i || data[i] != MAGIC[i]) {
+                throw new IllegalArgumentException("Not a formation journal");
+            }
+        }
+
+        FormationJournal journal = new FormationJournal();
+        Cursor cursor = new Cursor(data, MAGIC.length, data.length);
+        journal.participantCount = (int) cursor.next();
+        journal.teamSize = (int) cursor.next();
+        journal.teamCount = (int) cursor.next();
+
+        journal.entries = Arrays.copyOfRange(data, cursor.position, data.length);
+        journal.length = journal.entries.length;
+        while (cursor.hasNext()) {
+            cursor.next();
+            cursor.next();
+            journal.entryCount++;
+        }
+        return journal;
+    }
+
+    /**
+     * Reads a journal from a stream
+     * @param in Source
+     * @return The journal
+     * @throws IOException if reading fails
+     */
+    public static FormationJournal readFrom(InputStream in) throws IOException {
+        return fromByteArray(in.readAllBytes());
+    }
+
+    private void record(int participant, int op, int team) {
+        if (length + 20 > entries.length) {
+            entries = Arrays.copyOf(entries, entries.length * 2);
+        }
+        length = writeVarint(entries, length, ((long) participant << 1) | op);
+        length = writeVarint(entries, length, team);
+        entryCount++;
+    }
+
+    private static int writeVarint(byte[] buffer, int position, long value) {
+        while ((value & ~0x7FL) != 0) {
+            buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[position++] = (byte) value;
+        return position;
+    }
+
+    /**
+     * Sequential varint reader over a byte range
+     */
+    private static final class Cursor {
+        private final byte[] buffer;
+        private final int end;
+        private int position;
+
+        Cursor(byte[] buffer, int start, int end) {
+            this.buffer = buffer;
+            this.position = start;
+            this.end = end;
+        }
+
+        boolean hasNext() {
+            return position < end;
+        }
+
+        long next() {
+            long value = 0;
+            int shift = 0;
+            byte b;
+            do {
+                if (position >= end) {
+                    throw new IllegalArgumentException("Truncated formation journal");
+                }
+                b = buffer[position++];
+                value |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+            return value;
+        }
+    }
+}
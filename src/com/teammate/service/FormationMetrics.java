@@ -0,0 +1,197 @@
+package com.teammate.service;
+
+import com.teammate.util.TeamMateEvents;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.*;
+
+/**
+ * FormationMetrics - Per-phase measurements of one formation run
+ *
+ * Holds wall time and allocated bytes for each phase, the number of score
+ * evaluations, refinement swaps attempted and accepted, and the TeamOptimizer
+ * objective before and after refinement (Phases 7-8 for TeamBuilder). Every
+ * TeamFormationStrategy fills one in; counters a strategy has no use for stay
+ * 0, and an objective it cannot measure stays NaN.
+ *
+ * Allocation is read from the JVM's per-thread counter for the thread running
+ * the phase, so work done on other threads (parallel shards) only shows up as
+ * wall time; it is -1 where the JVM does not provide the counter.
+ *
+ * Each phase is also a TeamMateEvents.FormationPhase event in a JFR recording.
+ *
+ * @author Krisanthi Segar 2425596
+ * @version 1.0
+ * @since 2025
+ */
+public class FormationMetrics {
+
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+    /**
+     * Measurements of one phase
+     */
+    public static class Phase {
+        private final String name;
+        private final long wallNanos;
+        private final long allocatedBytes;
+
+        Phase(String name, long wallNanos, long allocatedBytes) {
+            this.name = name;
+            this.wallNanos = wallNanos;
+            this.allocatedBytes = allocatedBytes;
+        }
+
+        public String getName() { return name; }
+        public long getWallNanos() { return wallNanos; }
+        public double getWallMillis() { return wallNanos / 1_000_000.0; }
+
+        /**
+         * Bytes allocated by the running thread during the phase
+         * @return Allocated bytes, or -1 if unavailable
+         */
+        public long getAllocatedBytes() { return allocatedBytes; }
+    }
+
+    private final int participantCount;
+    private final int teamCount;
+    private final List<Phase> phases = new ArrayList<>();
+    private long scoreEvaluations;
+    private long swapsAttempted;
+    private long swapsAccepted;
+    private double objectiveBefore = Double.NaN;
+    private double objectiveAfter = Double.NaN;
+
+    // Phase being measured
+    private String openPhase;
+    private long openNanos;
+    private long openBytes;
+    private TeamMateEvents.FormationPhase openEvent;
+
+    /**
+     * Creates empty metrics for a run
+     * @param participantCount Participants being placed
+     * @param teamCount Teams being formed
+     */
+    public FormationMetrics(int participantCount, int teamCount) {
+        this.participantCount = participantCount;
+        this.teamCount = teamCount;
+    }
+
+    /**
+     * Ends the phase in progress, if any, and starts measuring a new one
+     * @param name Phase name
+     */
+    public void startPhase(String name) {
+        endPhase();
+        openPhase = name;
+        openBytes = allocatedBytes();
+        openEvent = new TeamMateEvents.FormationPhase();
+        openEvent.begin();
+        openNanos = System.nanoTime();
+    }
+
+    /**
+     * Ends the phase in progress, if any
+     */
+    public void endPhase() {
+        if (openPhase == null) {
+            return;
+        }
+        long wall = System.nanoTime() - openNanos;
+        openEvent.end();
+        if (openEvent.shouldCommit()) {
+            openEvent.phase = openPhase;
+            openEvent.participants = participantCount;
+            openEvent.teams = teamCount;
+            openEvent.commit();
+        }
+        openEvent = null;
+        long bytes = allocatedBytes();
+        phases.add(new Phase(openPhase, wall, bytes < 0 || openBytes < 0 ? -1 : bytes - openBytes));
+        openPhase = null;
+    }
+
+    private static long allocatedBytes() {
+        if (THREADS instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) THREADS;
+            if (threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled()) {
+                return threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+            }
+        }
+        return -1;
+    }
+
+    public void addScoreEvaluations(long evaluations) {
+        scoreEvaluations += evaluations;
+    }
+
+    /**
+     * Counts refinement swaps
+     * @param attempted Swaps (or swap searches) evaluated
+     * @param accepted Swaps applied
+     */
+    public void addSwaps(long attempted, long accepted) {
+        swapsAttempted += attempted;
+        swapsAccepted += accepted;
+    }
+
+    /**
+     * Records the objective around refinement
+     * @param before TeamOptimizer objective before refinement, NaN if unknown
+     * @param after TeamOptimizer objective after refinement
+     */
+    public void setObjectives(double before, double after) {
+        this.objectiveBefore = before;
+        this.objectiveAfter = after;
+    }
+
+    public int getParticipantCount() { return participantCount; }
+    public int getTeamCount() { return teamCount; }
+    public List<Phase> getPhases() { return Collections.unmodifiableList(phases); }
+    public long getScoreEvaluations() { return scoreEvaluations; }
+    public long getSwapsAttempted() { return swapsAttempted; }
+    public long getSwapsAccepted() { return swapsAccepted; }
+    public double getObjectiveBefore() { return objectiveBefore; }
+    public double getObjectiveAfter() { return objectiveAfter; }
+
+    /**
+     * Sum of all phases' wall time
+     * @return Nanoseconds
+     */
+    public long getTotalNanos() {
+        long total = 0;
+        for (Phase phase : phases) total += phase.wallNanos;
+        return total;
+    }
+
+    /**
+     * Multi-line table of the phases and counters for console output
+     * @return Formatted metrics
+     */
+    public String format() {
+        StringBuilder text = new StringBuilder();
+        text.append(String.format("%-28s | %10s | %12s%n", "Phase", "Time (ms)", "Allocated KB"));
+        for (Phase phase : phases) {
+            text.append(String.format("%-28s | %10.2f | %12s%n", phase.name, phase.getWallMillis(),
+                    phase.allocatedBytes < 0 ? "n/a" : String.valueOf(phase.allocatedBytes / 1024)));
+        }
+        text.append(String.format("%-28s | %10.2f |%n", "Total", getTotalNanos() / 1_000_000.0));
+        text.append(String.format("Score evaluations: %d%n", scoreEvaluations));
+        text.append(String.format("Swaps attempted: %d, accepted: %d%n", swapsAttempted, swapsAccepted));
+        text.append(String.format("Objective before/after refinement: %s -> %s",
+                formatObjective(objectiveBefore), formatObjective(objectiveAfter)));
+        return text.toString();
+    }
+
+    private static String formatObjective(double objective) {
+        return Double.isNaN(objective) ? "n/a" : String.format("%.4f", objective);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d phases, %.1f ms, %d score evaluations, %d/%d swaps accepted, objective %.4f -> %.4f",
+                phases.size(), getTotalNanos() / 1_000_000.0, scoreEvaluations, swapsAccepted, swapsAttempted,
+                objectiveBefore, objectiveAfter);
+    }
+}
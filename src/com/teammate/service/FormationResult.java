@@ -0,0 +1,150 @@
+package com.teammate.service;
+
+import com.teammate.model.*;
+import java.util.*;
+
+/**
+ * FormationResult - Teams formed by a strategy plus comparable metrics
+ *
+ * Quality is measured the same way for every strategy: a QualityReport (rule
+ * violations, skill spread and the TeamOptimizer objective), the number of
+ * teams passing Team.isBalanced(), and how many participants were left
+ * without a team.
+ *
+ * A run stopped by its FormationDeadline reports how far it got through
+ * getCompletion(). Results from TeamFormationStrategy.form() carry a
+ * FormationMetrics, available from getMetrics().
+ *
+ * @author Krisanthi Segar 2425596
+ * @version 1.0
+ * @since 2025
+ */
+public class FormationResult {
+
+    /**
+     * How far a formation run got before returning
+     */
+    public enum Completion {
+        /** Every phase ran */
+        COMPLETE,
+        /** Everyone is placed, but placement or refinement was cut short; rules may be broken */
+        SUBOPTIMAL,
+        /** Cancelled before every participant was placed */
+        PARTIAL
+    }
+
+    private final String strategyName;
+    private final List<Team> teams;
+    private final int participantCount;
+    private final int teamSize;
+    private final long elapsedNanos;
+    private final double objective;
+    private final int balancedTeams;
+    private final int unassignedCount;
+    private final double skillStdDev;
+    private final QualityReport quality;
+    private final Completion completion;
+    private final FormationMetrics metrics;
+
+    /**
+     * Measures a finished formation
+     * @param strategyName Name of the strategy that formed the teams
+     * @param teams Formed teams
+     * @param participantCount Number of participants given to the strategy
+     * @param teamSize Requested team size
+     * @param elapsedNanos Wall time of the formation
+     */
+    public FormationResult(String strategyName, List<Team> teams, int participantCount,
+                           int teamSize, long elapsedNanos) {
+        this(strategyName, teams, participantCount, teamSize, elapsedNanos, Completion.COMPLETE);
+    }
+
+    /**
+     * Measures a formation that may have stopped early
+     * @param strategyName Name of the strategy that formed the teams
+     * @param teams Formed teams
+     * @param participantCount Number of participants given to the strategy
+     * @param teamSize Requested team size
+     * @param elapsedNanos Wall time of the formation
+     * @param completion How far the run got
+     */
+    public FormationResult(String strategyName, List<Team> teams, int participantCount,
+                           int teamSize, long elapsedNanos, Completion completion) {
+        this(strategyName, teams, participantCount, teamSize, elapsedNanos, completion, null);
+    }
+
+    /**
+     * Measures a formation and keeps the strategy's phase metrics
+     * @param strategyName Name of the strategy that formed the teams
+     * @param teams Formed teams
+     * @param participantCount Number of participants given to the strategy
+     * @param teamSize Requested team size
+     * @param elapsedNanos Wall time of the formation
+     * @param completion How far the run got
+     * @param metrics Per-phase metrics, or null if the strategy does not record them
+     */
+    public FormationResult(String strategyName, List<Team> teams, int participantCount,
+                           int teamSize, long elapsedNanos, Completion completion, FormationMetrics metrics) {
+        this.completion = completion;
+        this.metrics = metrics;
+        this.strategyName = strategyName;
+        this.teams = teams;
+        this.participantCount = participantCount;
+        this.teamSize = teamSize;
+        this.elapsedNanos = elapsedNanos;
+        this.quality = QualityReport.score(teams);
+        this.objective = quality.getObjective();
+
+        int balanced = 0;
+        for (Team team : teams) {
+            if (team.isBalanced()) balanced++;
+        }
+        this.balancedTeams = balanced;
+        this.unassignedCount = participantCount - quality.getParticipantCount();
+        this.skillStdDev = quality.getSkillStdDev();
+    }
+
+    public String getStrategyName() { return strategyName; }
+    public List<Team> getTeams() { return teams; }
+    public int getParticipantCount() { return participantCount; }
+    public int getTeamSize() { return teamSize; }
+    public long getElapsedNanos() { return elapsedNanos; }
+    public double getElapsedMillis() { return elapsedNanos / 1_000_000.0; }
+
+    /**
+     * TeamOptimizer objective of the teams (lower is better)
+     * @return Objective value
+     */
+    public double getObjective() { return objective; }
+    public int getBalancedTeamCount() { return balancedTeams; }
+    public int getUnassignedCount() { return unassignedCount; }
+
+    /**
+     * Standard deviation of team average skill
+     * @return Skill spread
+     */
+    public double getSkillStdDev() { return skillStdDev; }
+
+    /**
+     * Rule violations and skill spread of the teams
+     * @return Quality report
+     */
+    public QualityReport getQuality() { return quality; }
+    public Completion getCompletion() { return completion; }
+    public boolean isComplete() { return completion == Completion.COMPLETE; }
+
+    /**
+     * Per-phase metrics of the run
+     * @return Metrics, or null if the strategy does not record them
+     */
+    public FormationMetrics getMetrics() { return metrics; }
+
+    @Override
+    public String toString() {
+        String text = String.format("%s: %d teams (%d balanced), %d unassigned, objective %.4f, " +
+                        "skill stddev %.3f, %.1f ms",
+                strategyName, teams.size(), balancedTeams, unassignedCount, objective,
+                skillStdDev, getElapsedMillis());
+        return isComplete() ? text : text + " [" + completion + "]";
+    }
+}
@@ -0,0 +1,154 @@
+package com.teammate.service;
+
+import java.util.*;
+
+/**
+ * MinCostFlow - Successive-shortest-path min-cost flow solver
+ *
+ * Edges live in flat arrays (each edge stored next to its reverse), so a
+ * network with thousands of nodes and edges costs a few arrays and no
+ * per-edge objects. Each augmentation runs Dijkstra on reduced costs
+ * (Johnson potentials) and pushes the bottleneck capacity along the shortest
+ * path, so edge costs must be non-negative when the solver starts.
+ *
+ * Used by SkillFlowBalancer, whose transportation networks (skill bands to
+ * team classes) are small and dense, so the bottleneck pushes keep the number
+ * of augmentations close to the number of nodes.
+ *
+ * @author Krisanthi Segar 2425596
+ * @version 1.0
+ * @since 2025
+ */
+public class MinCostFlow {
+
+    private static final long INFINITE = Long.MAX_VALUE / 4;
+
+    private final int nodeCount;
+    private int[] head;
+    private int[] next;
+    private int[] to;
+    private long[] capacity;
+    private long[] cost;
+    private int edgeCount;
+
+    /**
+     * Creates an empty network
+     * @param nodeCount Number of nodes, numbered from 0
+     */
+    public MinCostFlow(int nodeCount) {
+        this.nodeCount = nodeCount;
+        this.head = new int[nodeCount];
+        Arrays.fill(head, -1);
+        int initial = 16;
+        next = new int[initial];
+        to = new int[initial];
+        capacity = new long[initial];
+        cost = new long[initial];
+    }
+
+    /**
+     * Adds a directed edge
+     * @param from Tail node
+     * @param target Head node
+     * @param edgeCapacity Capacity (at least 0)
+     * @param edgeCost Cost per unit of flow (at least 0)
+     * @return Edge ID for getFlow
+     */
+    public int addEdge(int from, int target, long edgeCapacity, long edgeCost) {
+        if (edgeCapacity < 0 || edgeCost < 0) {
+            throw new IllegalArgumentException("Edge capacity and cost must not be negative");
+        }
+        int id = edgeCount;
+        link(from, target, edgeCapacity, edgeCost);
+        link(target, from, 0, -edgeCost);
+        return id;
+    }
+
+    private void link(int from, int target, long edgeCapacity, long edgeCost) {
+        if (edgeCount == to.length) {
+            int grown = edgeCount * 2;
+            next = Arrays.copyOf(next, grown);
+            to = Arrays.copyOf(to, grown);
+            capacity = Arrays.copyOf(capacity, grown);
+            cost = Arrays.copyOf(cost, grown);
+        }
+        next[edgeCount] = head[from];
+        to[edgeCount] = target;
+        capacity[edgeCount] = edgeCapacity;
+        cost[edgeCount] = edgeCost;
+        head[from] = edgeCount++;
+    }
+
+    /**
+     * Flow currently on an edge
+     * @param edge Edge ID from addEdge
+     * @return Units of flow
+     */
+    public long getFlow(int edge) {
+        // The reverse edge's residual capacity is the flow pushed forward
+        return capacity[edge ^ 1];
+    }
+
+    /**
+     * Sends up to maxFlow units from source to sink at minimum total cost
+     * @param source Source node
+     * @param sink Sink node
+     * @param maxFlow Upper bound on the flow
+     * @return {flow sent, total cost}
+     */
+    public long[] solve(int source, int sink, long maxFlow) {
+        long[] potential = new long[nodeCount];
+        long[] distance = new long[nodeCount];
+        int[] parentEdge = new int[nodeCount];
+        long flow = 0;
+        long totalCost = 0;
+
+        while (flow < maxFlow) {
+            shortestPaths(source, potential, distance, parentEdge);
+            if (distance[sink] >= INFINITE) {
+                break;
+            }
+            for (int v = 0; v < nodeCount; v++) {
+                if (distance[v] < INFINITE) potential[v] += distance[v];
+            }
+
+            long push = maxFlow - flow;
+            for (int v = sink; v != source; v = to[parentEdge[v] ^ 1]) {
+                push = Math.min(push, capacity[parentEdge[v]]);
+            }
+            for (int v = sink; v != source; v = to[parentEdge[v] ^ 1]) {
+                capacity[parentEdge[v]] -= push;
+                capacity[parentEdge[v] ^ 1] += push;
+            }
+            flow += push;
+            totalCost += push * (potential[sink] - potential[source]);
+        }
+        return new long[]{flow, totalCost};
+    }
+
+    /**
+     * Dijkstra over reduced costs cost + potential[u] - potential[v]
+     */
+    private void shortestPaths(int source, long[] potential, long[] distance, int[] parentEdge) {
+        Arrays.fill(distance, INFINITE);
+        Arrays.fill(parentEdge, -1);
+        distance[source] = 0;
+        PriorityQueue<long[]> queue = new PriorityQueue<>(Comparator.comparingLong(entry -> entry[0]));
+        queue.add(new long[]{0, source});
+        while (!queue.isEmpty()) {
+            long[] entry = queue.poll();
+            int u = (int) entry[1];
+            if (entry[0] > distance[u]) continue;
+            for (int e = head[u]; e != -1; e = next[e]) {
+                if (capacity[e] == 0) continue;
+                int v = to[e];
+                long candidate = distance[u] + cost[e] + potential[u] - potential[v];
+                if (candidate < distance[v]) {
+                    distance[v] = candidate;
+                    parentEdge[v] = e;
+                    queue.add(new long[]{candidate, v});
+                }
+            }
+        }
+    }
+}
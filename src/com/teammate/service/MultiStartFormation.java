@@ -0,0 +1,200 @@
+package com.teammate.service;
+
+import com.teammate.model.*;
+import com.teammate.util.Logger;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * MultiStartFormation - Best-of-N team formation
+ *
+ * Runs several independently seeded TeamBuilder passes at once and keeps the
+ * result with the lowest TeamOptimizer objective. Each run owns its builder,
+ * columns, game dictionary and Random, and buffers its log lines in memory,
+ * so runs share nothing but the read-only participant list. The buffered
+ * lines are written to the log in run order once every run has finished.
+ *
+ * Each run's local search gets the budget set by setOptimizationBudget: by
+ * default the size-based iteration count of a seeded TeamBuilder, capped at
+ * DEFAULT_RUN_MILLIS per run so N starts cost about as much wall time as N
+ * unseeded builders. A run that hits the time cap is not reproducible from its
+ * seed; setOptimizationBudget(iterations, 0) makes every run reproducible.
+ *
+ * @author Krisanthi Segar 2425596
+ * @version 1.0
+ * @since 2025
+ */
+public class MultiStartFormation {
+
+    // Odd constant (golden ratio) to spread consecutive seeds
+    private static final long SEED_STEP = 0x9E3779B97F4A7C15L;
+    public static final long DEFAULT_RUN_MILLIS = 1000;
+
+    private final int starts;
+    private final int parallelism;
+    private long runIterations = -1;
+    private long runMillis = DEFAULT_RUN_MILLIS;
+    private FormationMetrics metrics;
+
+    /**
+     * Creates a multi-start runner
+     * @param starts Number of independent formation runs
+     * @param parallelism Number of worker threads
+     */
+    public MultiStartFormation(int starts, int parallelism) {
+        if (starts < 1 || parallelism < 1) {
+            throw new IllegalArgumentException("Starts and parallelism must be at least 1");
+        }
+        this.starts = starts;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Creates a runner using every available core
+     * @param starts Number of independent formation runs
+     */
+    public MultiStartFormation(int starts) {
+        this(starts, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Sets the local-search budget of every run
+     * @param iterations Maximum candidate swaps per run (negative for the size-based default)
+     * @param millis Maximum local-search time per run in milliseconds (0 for no limit)
+     */
+    public void setOptimizationBudget(long iterations, long millis) {
+        this.runIterations = iterations;
+        this.runMillis = millis;
+    }
+
+    /**
+     * Records the next formation's wall time, the score evaluations and swaps
+     * of all runs, and the best run's objective before and after Phases 7-8
+     * @param metrics Metrics to fill, or null to stop recording
+     */
+    public void setMetrics(FormationMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * Runs all starts and returns the best one
+     * @param participants Participants to form into teams
+     * @param teamSize Team size
+     * @param baseSeed Seed from which each run's seed is derived
+     * @return Best result and score spread
+     * @throws InterruptedException if interrupted while waiting
+     * @throws ExecutionException if a run fails
+     */
+    public Result form(List<Participant> participants, int teamSize, long baseSeed)
+            throws InterruptedException, ExecutionException {
+        return form(participants, teamSize, baseSeed, FormationDeadline.none());
+    }
+
+    /**
+     * Runs all starts under one deadline and returns the best one; runs cut
+     * short by the deadline still compete with their best-so-far teams
+     * @param participants Participants to form into teams
+     * @param teamSize Team size
+     * @param baseSeed Seed from which each run's seed is derived
+     * @param deadline Deadline shared by every run
+     * @return Best result and score spread
+     * @throws InterruptedException if interrupted while waiting
+     * @throws ExecutionException if a run fails
+     */
+    public Result form(List<Participant> participants, int teamSize, long baseSeed, FormationDeadline deadline)
+            throws InterruptedException, ExecutionException {
+        if (metrics != null) metrics.startPhase("1 Runs (" + starts + " starts)");
+        List<Participant> input = Collections.unmodifiableList(new ArrayList<>(participants));
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(parallelism, starts));
+
+        try {
+            List<Future<List<Team>>> futures = new ArrayList<>();
+            long[] seeds = new long[starts];
+            String[] logs = new String[starts];
+            FormationMetrics[] runMetrics = new FormationMetrics[starts];
+            for (int i = 0; i < starts; i++) {
+                long seed = baseSeed + SEED_STEP * i;
+                int run = i;
+                seeds[i] = seed;
+                futures.add(executor.submit(() -> {
+                    Logger.startBuffer();
+                    try {
+                        TeamBuilder builder = new TeamBuilder(input, teamSize, seed);
+                        builder.setOptimizationBudget(runIterations, runMillis);
+                        builder.setDeadline(deadline);
+                        List<Team> teams = builder.formTeams();
+                        runMetrics[run] = builder.getMetrics();
+                        return teams;
+                    } finally {
+                        logs[run] = Logger.takeBuffer();
+                    }
+                }));
+            }
+
+            double[] scores = new double[starts];
+            List<Team> bestTeams = null;
+            int bestRun = -1;
+            for (int i = 0; i < starts; i++) {
+                List<Team> teams = futures.get(i).get();
+                Logger.writeBuffered(logs[i]);
+                scores[i] = TeamOptimizer.evaluate(teams);
+                if (metrics != null) {
+                    metrics.addScoreEvaluations(runMetrics[i].getScoreEvaluations());
+                    metrics.addSwaps(runMetrics[i].getSwapsAttempted(), runMetrics[i].getSwapsAccepted());
+                }
+                if (bestRun < 0 || scores[i] < scores[bestRun]) {
+                    bestRun = i;
+                    bestTeams = teams;
+                }
+            }
+
+            if (metrics != null) {
+                metrics.endPhase();
+                metrics.setObjectives(runMetrics[bestRun].getObjectiveBefore(), scores[bestRun]);
+            }
+            Result result = new Result(bestTeams, seeds[bestRun], scores);
+            Logger.logInfo(String.format("Multi-start formation: best %.3f of %d runs (mean %.3f, worst %.3f)",
+                    result.getBestScore(), starts, result.getMeanScore(), result.getWorstScore()));
+            return result;
+
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Result of a multi-start run
+     */
+    public static class Result {
+        private final List<Team> teams;
+        private final long seed;
+        private final double[] scores;
+
+        Result(List<Team> teams, long seed, double[] scores) {
+            this.teams = teams;
+            this.seed = seed;
+            this.scores = scores;
+        }
+
+        public List<Team> getTeams() { return new ArrayList<>(teams); }
+
+        public long getSeed() { return seed; }
+
+        public double[] getScores() { return scores.clone(); }
+
+        public double getBestScore() { return Arrays.stream(scores).min().orElse(0.0); }
+
+        public double getWorstScore() { return Arrays.stream(scores).max().orElse(0.0); }
+
+        public double getMeanScore() { return Arrays.stream(scores).average().orElse(0.0); }
+
+        public double getScoreStdDev() {
+            double mean = getMeanScore();
+            double sumSquares = 0;
+            for (double score : scores) {
+                sumSquares += (score - mean) * (score - mean);
+            }
+            return Math.sqrt(sumSquares / scores.length);
+        }
+    }
+}
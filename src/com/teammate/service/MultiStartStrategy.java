@@ -0,0 +1,53 @@
+package com.teammate.service;
+
+import com.teammate.model.*;
+import java.util.*;
+
+/**
+ * MultiStartStrategy - Best-of-N MultiStartFormation as a formation strategy
+ *
+ * Metrics add up the score evaluations and swaps of every run and report the
+ * best run's objective before and after refinement.
+ *
+ * @author Krisanthi Segar 2425596
+ * @version 1.0
+ * @since 2025
+ */
+public class MultiStartStrategy implements TeamFormationStrategy {
+
+    public static final String NAME = "multi-start";
+
+    private final int starts;
+
+    /**
+     * Creates the strategy
+     * @param starts Number of independent builder runs
+     */
+    public MultiStartStrategy(int starts) {
+        this.starts = starts;
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public List<Team> formTeams(List<Participant> participants, int teamSize) throws Exception {
+        return formTeams(participants, teamSize, FormationDeadline.none());
+    }
+
+    @Override
+    public List<Team> formTeams(List<Participant> participants, int teamSize, FormationDeadline deadline)
+            throws Exception {
+        return formTeams(participants, teamSize, deadline, null);
+    }
+
+    @Override
+    public List<Team> formTeams(List<Participant> participants, int teamSize, FormationDeadline deadline,
+                                FormationMetrics metrics) throws Exception {
+        MultiStartFormation formation = new MultiStartFormation(starts);
+        formation.setMetrics(metrics);
+        return formation.form(participants, teamSize, System.nanoTime(), deadline).getTeams();
+    }
+}
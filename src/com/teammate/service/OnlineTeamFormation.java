@@ -0,0 +1,255 @@
+package com.teammate.service;
+
+import com.teammate.model.*;
+import com.teammate.util.Logger;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * OnlineTeamFormation - Places participants into teams as they register
+ *
+ * Instead of waiting for the whole cohort and running the batch builder, each
+ * new participant is scored against the open teams through a TeamSelectionIndex
+ * and joins the best one immediately. A small pool of open teams is kept
+ * available; when it runs low a new empty team is opened.
+ *
+ * Full teams leave the index, so a placement scores one bucket per distinct
+ * open-team state and at most every open team (see TeamSelectionIndex.findBest).
+ * The pool holds openTeamTarget teams plus any reopened by remove(), so the
+ * cost does not grow with the total number of teams; it is O(open teams), not
+ * O(log T).
+ *
+ * Greedy placement can lock in poor combinations (for example two Leaders in
+ * one team), so rebalance() periodically runs the TeamOptimizer over every
+ * non-empty team, and startRebalancing() does that on a background thread.
+ *
+ * Teams live in FormationColumns; Team objects are only built by getTeams().
+ * A participant keeps its column index for as long as the formation exists,
+ * so removing and re-registering the same ID reuses the row.
+ *
+ * All public methods are synchronized, so registrations, updates and a
+ * background rebalance never observe a half-changed team.
+ *
+ * @author Krisanthi Segar 2425596
+ * @version 1.0
+ * @since 2025
+ */
+public class OnlineTeamFormation {
+
+    private static final int DEFAULT_OPEN_TEAMS = 4;
+    private static final long REBALANCE_ITERATIONS = 20000;
+    private static final long REBALANCE_MILLIS = 200;
+
+    private final int teamSize;
+    private final int openTeamTarget;
+    private final Random random;
+    private final FormationColumns columns;
+    private final Map<String, Integer> participantIndex = new HashMap<>();
+    private final TeamSelectionIndex index;
+    private int placedCount;
+
+    private ScheduledExecutorService rebalancer;
+
+    /**
+     * Creates an empty online formation
+     * @param teamSize Members per team
+     */
+    public OnlineTeamFormation(int teamSize) {
+        this(teamSize, DEFAULT_OPEN_TEAMS, new Random());
+    }
+
+    /**
+     * Creates an empty online formation
+     * @param teamSize Members per team
+     * @param openTeamTarget Number of open teams to keep available for placement
+     * @param random Source of randomness for tie-breaking and rebalancing
+     */
+    public OnlineTeamFormation(int teamSize, int openTeamTarget, Random random) {
+        if (teamSize < 2) {
+            throw new IllegalArgumentException("Team size must be at least 2");
+        }
+        if (openTeamTarget < 1) {
+            throw new IllegalArgumentException("At least one open team is required");
+        }
+        this.teamSize = teamSize;
+        this.openTeamTarget = openTeamTarget;
+        this.random = random;
+        this.columns = new FormationColumns(teamSize, teamSize * openTeamTarget, openTeamTarget);
+        this.index = new TeamSelectionIndex(columns, new PlacementScorer(random), PlacementScorer.SCORE_JITTER);
+        openTeams();
+    }
+
+    /**
+     * Places a participant into the best open team
+     * @param p The participant
+     * @return ID of the team joined
+     */
+    public synchronized String place(Participant p) {
+        Integer known = participantIndex.get(p.getId());
+        int participant;
+        if (known == null) {
+            participant = columns.addParticipant(p);
+            participantIndex.put(p.getId(), participant);
+        } else if (columns.isAssigned(known)) {
+            throw new IllegalArgumentException("Participant already placed: " + p.getId());
+        } else {
+            participant = known;
+            columns.reload(participant, p);
+        }
+
+        int teamIndex = index.findBest(participant, random);
+        columns.add(participant, teamIndex);
+        placedCount++;
+        index.update(teamIndex);
+        openTeams();
+        return FormationColumns.teamId(teamIndex);
+    }
+
+    /**
+     * Removes a participant from their team, reopening the slot
+     * @param participantId Participant ID
+     * @return true if the participant was placed
+     */
+    public synchronized boolean remove(String participantId) {
+        Integer participant = participantIndex.get(participantId);
+        if (participant == null || !columns.isAssigned(participant)) {
+            return false;
+        }
+        int teamIndex = columns.remove(participant);
+        placedCount--;
+        index.update(teamIndex);
+        return true;
+    }
+
+    /**
+     * Applies an edited participant to their team
+     *
+     * The participant may be the placed instance changed in place or a new
+     * instance with the same ID; either way its columns are re-read and the
+     * team's counters rebuilt.
+     *
+     * @param p The edited participant
+     * @return true if the participant was placed
+     */
+    public synchronized boolean refresh(Participant p) {
+        Integer participant = participantIndex.get(p.getId());
+        if (participant == null || !columns.isAssigned(participant)) {
+            return false;
+        }
+        int teamIndex = columns.remove(participant);
+        columns.reload(participant, p);
+        columns.add(participant, teamIndex);
+        index.update(teamIndex);
+        return true;
+    }
+
+    /**
+     * Improves the current teams with the local-search optimizer
+     * @return Objective value after rebalancing (lower is better)
+     */
+    public synchronized double rebalance() {
+        TeamOptimizer optimizer = new TeamOptimizer(REBALANCE_ITERATIONS, REBALANCE_MILLIS, random);
+        optimizer.setMoveLeaders(true);
+        double objective = optimizer.optimize(columns);
+
+        for (int t = 0; t < columns.getTeamCount(); t++) {
+            index.update(t);
+        }
+        Logger.logInfo("Online teams rebalanced: objective " + String.format("%.3f", objective));
+        return objective;
+    }
+
+    /**
+     * Starts rebalancing on a background thread at a fixed period
+     * @param periodMillis Delay between rebalances
+     */
+    public synchronized void startRebalancing(long periodMillis) {
+        if (rebalancer != null) {
+            return;
+        }
+        rebalancer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "team-rebalancer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        rebalancer.scheduleWithFixedDelay(() -> {
+            try {
+                rebalance();
+            } catch (RuntimeException e) {
+                Logger.logError("Background rebalance failed: " + e.getMessage());
+            }
+        }, periodMillis, periodMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops background rebalancing, waiting for a running pass to finish
+     */
+    public void stopRebalancing() {
+        ScheduledExecutorService executor;
+        synchronized (this) {
+            executor = rebalancer;
+            rebalancer = null;
+        }
+        if (executor == null) {
+            return;
+        }
+        executor.shutdown();
+        try {
+            executor.awaitTermination(REBALANCE_MILLIS * 10, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Gets copies of all non-empty teams
+     * @return Teams in creation order
+     */
+    public synchronized List<Team> getTeams() {
+        List<Team> result = new ArrayList<>();
+        for (int t = 0; t < columns.getTeamCount(); t++) {
+            if (columns.size(t) > 0) {
+                result.add(columns.toTeam(t));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Gets a copy of the team a participant was placed in
+     * @param participantId Participant ID
+     * @return The team, or null if not placed
+     */
+    public synchronized Team getTeam(String participantId) {
+        Integer participant = participantIndex.get(participantId);
+        return participant == null || !columns.isAssigned(participant) ? null
+                : columns.toTeam(columns.teamOf(participant));
+    }
+
+    /**
+     * Gets the ID of the team a participant was placed in
+     * @param participantId Participant ID
+     * @return Team ID, or null if not placed
+     */
+    public synchronized String getTeamId(String participantId) {
+        Integer participant = participantIndex.get(participantId);
+        return participant == null || !columns.isAssigned(participant) ? null
+                : FormationColumns.teamId(columns.teamOf(participant));
+    }
+
+    /**
+     * Number of participants currently placed
+     * @return Placed participant count
+     */
+    public synchronized int getPlacedCount() {
+        return placedCount;
+    }
+
+    private void openTeams() {
+        int open = index.getOpenTeamCount();
+        while (open < openTeamTarget) {
+            index.update(columns.addTeam());
+            open++;
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.teammate.service;
+
+import java.util.Random;
+
+/**
+ * PlacementScorer - Scores how well a participant fits an open team
+ *
+ * Scoring rules (higher is better, base 100):
+ * - Game variety: -40 if the team already has MAX_SAME_GAME players of the game
+ * - Role diversity: +25 if nobody in the team has the participant's role
+ * - Personality mix: +15 if the participant's type is under a third of the team
+ * - Skill balance: penalty/bonus for moving the team average away from/towards
+ *   the global average
+ * - Randomization: uniform jitter of +/- SCORE_JITTER
+ *
+ * The score is split so that TeamSelectionIndex can share the bucket part
+ * across all teams with identical score-relevant state. For teams of one size,
+ * role set and quota mask the skill term is highest at the lowest or highest
+ * skill sum and falls towards the one nearest the global average, which lets
+ * the index search each class from both ends.
+ *
+ * @author Krisanthi Segar 2425596
+ * @version 1.0
+ * @since 2025
+ */
+public class PlacementScorer implements TeamSelectionIndex.Scorer {
+
+    public static final int SCORE_JITTER = 3;
+
+    private static final int BASE_SCORE = 100;
+    private static final int MISSING_ROLE_BONUS = 25;
+    private static final int PERSONALITY_QUOTA_BONUS = 15;
+    private static final int GAME_CAP_PENALTY = 40;
+
+    private final Random random;
+
+    public PlacementScorer(Random random) {
+        this.random = random;
+    }
+
+    /**
+     * Calculates the part of the placement score shared by all teams with the
+     * same size, skill sum, role set and personality quotas
+     * @param columns Team and participant columns
+     * @param team The team
+     * @param p The participant
+     * @param globalAvg Global average skill
+     * @return Score before game penalty and randomization
+     */
+    @Override
+    public int bucketScore(FormationColumns columns, int team, int p, double globalAvg) {
+        int score = BASE_SCORE;
+        int size = columns.size(team);
+
+        // Role diversity
+        int role = columns.role(p);
+        if (role >= 0 && columns.roleCount(team, role) == 0) {
+            score += MISSING_ROLE_BONUS;
+        }
+
+        // Personality mix
+        int type = columns.personality(p);
+        if (type >= 0 && columns.personalityCount(team, type) < size / 3) {
+            score += PERSONALITY_QUOTA_BONUS;
+        }
+
+        // Skill balance
+        double teamAvg = columns.average(team);
+        if (teamAvg > 0) {
+            double newAvg = (double) (columns.skillSum(team) + columns.skill(p)) / (size + 1);
+
+            double currentDiff = Math.abs(teamAvg - globalAvg);
+            double newDiff = Math.abs(newAvg - globalAvg);
+
+            if (newDiff > currentDiff) {
+                score -= (int)((newDiff - currentDiff) * 10);
+            } else {
+                score += (int)((currentDiff - newDiff) * 5);
+            }
+        }
+
+        return score;
+    }
+
+    /**
+     * Completes a team's placement score from its bucket score
+     * @param columns Team and participant columns
+     * @param team The team
+     * @param p The participant
+     * @param bucketScore Result of bucketScore for this team
+     * @return Score (higher is better)
+     */
+    @Override
+    public int teamScore(FormationColumns columns, int team, int p, int bucketScore) {
+        int score = bucketScore;
+
+        // Game variety
+        if (columns.gameCount(team, columns.game(p)) >= TeamBuilder.MAX_SAME_GAME) {
+            score -= GAME_CAP_PENALTY;
+        }
+
+        // Randomization
+        score += random.nextInt(2 * SCORE_JITTER + 1) - SCORE_JITTER;
+
+        return score;
+    }
+
+    /**
+     * Calculates the full placement score of one team
+     * @param columns Team and participant columns
+     * @param team The team
+     * @param p The participant
+     * @param globalAvg Global average skill
+     * @return Score (higher is better)
+     */
+    public int calculateTeamScore(FormationColumns columns, int team, int p, double globalAvg) {
+        return teamScore(columns, team, p, bucketScore(columns, team, p, globalAvg));
+    }
+}
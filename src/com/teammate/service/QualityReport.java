@@ -0,0 +1,303 @@
+package com.teammate.service;
+
+import com.teammate.model.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * QualityReport - Numeric quality of a set of teams, computed in one pass
+ *
+ * Visits every member of every team once and reports:
+ * - spread of team average skill (standard deviation, minimum, maximum)
+ * - game-cap violations: players beyond MAX_SAME_GAME per game and team
+ * - role-diversity shortfall: roles missing below MIN_ROLE_DIVERSITY
+ * - personality-quota violations: Leaders away from exactly one, Thinkers outside 1-2
+ * - leader coverage: share of non-empty teams with at least one Leader
+ *
+ * The rules are counted exactly as TeamOptimizer counts them, so getObjective()
+ * equals TeamOptimizer.evaluate() without building FormationColumns.
+ *
+ * Counts are taken from the members themselves rather than Team's aggregates,
+ * so the report stays right after participants are edited in place. Role,
+ * personality and game tallies live in scratch arrays owned by each pass (game
+ * tallies are stamped with the team number instead of being cleared), so no
+ * memory is allocated per team. scoreParallel() splits the list into ranges
+ * on the common ForkJoinPool and merges the partial reports.
+ *
+ * @author Krisanthi Segar 2425596
+ * @version 1.0
+ * @since 2025
+ */
+public class QualityReport {
+
+    private static final int ROLE_COUNT = Role.values().length;
+    private static final int TYPE_COUNT = PersonalityType.values().length;
+    private static final int LEADER = PersonalityType.LEADER.ordinal();
+    private static final int THINKER = PersonalityType.THINKER.ordinal();
+    private static final int PARALLEL_CHUNK = 4096;
+
+    private int teamCount;
+    private int nonEmptyTeams;
+    private int participantCount;
+    private double averageSum;
+    private double averageSquareSum;
+    private double minAverage = Double.POSITIVE_INFINITY;
+    private double maxAverage = Double.NEGATIVE_INFINITY;
+    private int gameCapExcess;
+    private int teamsOverGameCap;
+    private int roleShortfall;
+    private int teamsShortOfRoles;
+    private int personalityViolations;
+    private int teamsOffPersonalityQuota;
+    private int teamsWithLeader;
+
+    private QualityReport() {
+    }
+
+    /**
+     * Scores teams on the calling thread
+     * @param teams The teams
+     * @return Quality report
+     */
+    public static QualityReport score(List<Team> teams) {
+        QualityReport report = new QualityReport();
+        report.add(teams, 0, teams.size());
+        return report;
+    }
+
+    /**
+     * Scores teams on the common ForkJoinPool; worthwhile for many thousands of teams
+     * @param teams The teams (a random-access list)
+     * @return Quality report
+     */
+    public static QualityReport scoreParallel(List<Team> teams) {
+        if (teams.size() <= PARALLEL_CHUNK) {
+            return score(teams);
+        }
+        return ForkJoinPool.commonPool().invoke(new Range(teams, 0, teams.size()));
+    }
+
+    /**
+     * Scores a range of teams, splitting it in halves down to PARALLEL_CHUNK teams
+     */
+    private static final class Range extends RecursiveTask<QualityReport> {
+        private static final long serialVersionUID = 1L;
+
+        private final List<Team> teams;
+        private final int from;
+        private final int to;
+
+        Range(List<Team> teams, int from, int to) {
+            this.teams = teams;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected QualityReport compute() {
+            if (to - from <= PARALLEL_CHUNK) {
+                QualityReport report = new QualityReport();
+                report.add(teams, from, to);
+                return report;
+            }
+            int middle = (from + to) >>> 1;
+            Range left = new Range(teams, from, middle);
+            left.fork();
+            QualityReport right = new Range(teams, middle, to).compute();
+            return left.join().merge(right);
+        }
+    }
+
+    /**
+     * Adds teams [from, to) to the totals
+     */
+    private void add(List<Team> teams, int from, int to) {
+        int[] roleCounts = new int[ROLE_COUNT];
+        int[] typeCounts = new int[TYPE_COUNT];
+        // Game tallies indexed by game ID + 1 (blank games count as one game, as in TeamOptimizer)
+        GameDictionary games = new GameDictionary();
+        int[] gameCounts = new int[16];
+        int[] gameStamp = new int[gameCounts.length];
+
+        for (int t = from; t < to; t++) {
+            Team team = teams.get(t);
+            int size = team.getCurrentSize();
+            teamCount++;
+            if (size == 0) continue;
+
+            Arrays.fill(roleCounts, 0);
+            Arrays.fill(typeCounts, 0);
+            int stamp = t + 1;
+            int skillSum = 0;
+            int distinctRoles = 0;
+            int excess = 0;
+            for (int i = 0; i < size; i++) {
+                Participant p = team.getMember(i);
+                skillSum += p.getSkillLevel();
+                if (p.getPreferredRole() != null && roleCounts[p.getPreferredRole().ordinal()]++ == 0) {
+                    distinctRoles++;
+                }
+                if (p.getPersonalityType() != null) {
+                    typeCounts[p.getPersonalityType().ordinal()]++;
+                }
+
+                int game = games.register(p.getPreferredGame()) + 1;
+                if (game >= gameCounts.length) {
+                    gameCounts = Arrays.copyOf(gameCounts, gameCounts.length * 2);
+                    gameStamp = Arrays.copyOf(gameStamp, gameCounts.length);
+                }
+                if (gameStamp[game] != stamp) {
+                    gameStamp[game] = stamp;
+                    gameCounts[game] = 0;
+                }
+                // Every player past the cap is one more unit of excess
+                if (++gameCounts[game] > TeamBuilder.MAX_SAME_GAME) excess++;
+            }
+
+            double average = (double) skillSum / size;
+            nonEmptyTeams++;
+            participantCount += size;
+            averageSum += average;
+            averageSquareSum += average * average;
+            minAverage = Math.min(minAverage, average);
+            maxAverage = Math.max(maxAverage, average);
+
+            gameCapExcess += excess;
+            if (excess > 0) teamsOverGameCap++;
+
+            int shortfall = Math.max(0, Math.min(TeamBuilder.MIN_ROLE_DIVERSITY, size) - distinctRoles);
+            roleShortfall += shortfall;
+            if (shortfall > 0) teamsShortOfRoles++;
+
+            int leaders = typeCounts[LEADER];
+            int thinkers = typeCounts[THINKER];
+            int violations = Math.abs(leaders - TeamBuilder.MAX_LEADERS_PER_TEAM);
+            if (size >= 2) {
+                violations += thinkers < TeamBuilder.MIN_THINKERS_PER_TEAM
+                        ? TeamBuilder.MIN_THINKERS_PER_TEAM - thinkers
+                        : Math.max(0, thinkers - TeamBuilder.MAX_THINKERS_PER_TEAM);
+            }
+            personalityViolations += violations;
+            if (violations > 0) teamsOffPersonalityQuota++;
+            if (leaders > 0) teamsWithLeader++;
+        }
+    }
+
+    /**
+     * Adds another partial report to this one
+     * @return This report
+     */
+    private QualityReport merge(QualityReport other) {
+        teamCount += other.teamCount;
+        nonEmptyTeams += other.nonEmptyTeams;
+        participantCount += other.participantCount;
+        averageSum += other.averageSum;
+        averageSquareSum += other.averageSquareSum;
+        minAverage = Math.min(minAverage, other.minAverage);
+        maxAverage = Math.max(maxAverage, other.maxAverage);
+        gameCapExcess += other.gameCapExcess;
+        teamsOverGameCap += other.teamsOverGameCap;
+        roleShortfall += other.roleShortfall;
+        teamsShortOfRoles += other.teamsShortOfRoles;
+        personalityViolations += other.personalityViolations;
+        teamsOffPersonalityQuota += other.teamsOffPersonalityQuota;
+        teamsWithLeader += other.teamsWithLeader;
+        return this;
+    }
+
+    public int getTeamCount() { return teamCount; }
+    public int getNonEmptyTeamCount() { return nonEmptyTeams; }
+    public int getParticipantCount() { return participantCount; }
+
+    /**
+     * Mean of team average skill over non-empty teams
+     * @return Mean, or 0 without non-empty teams
+     */
+    public double getMeanTeamSkill() {
+        return nonEmptyTeams == 0 ? 0.0 : averageSum / nonEmptyTeams;
+    }
+
+    /**
+     * Variance of team average skill over non-empty teams
+     * @return Population variance
+     */
+    public double getSkillVariance() {
+        if (nonEmptyTeams == 0) return 0.0;
+        double mean = averageSum / nonEmptyTeams;
+        return Math.max(0.0, averageSquareSum / nonEmptyTeams - mean * mean);
+    }
+
+    /**
+     * Standard deviation of team average skill
+     * @return Skill spread
+     */
+    public double getSkillStdDev() { return Math.sqrt(getSkillVariance()); }
+    public double getMinTeamSkill() { return nonEmptyTeams == 0 ? 0.0 : minAverage; }
+    public double getMaxTeamSkill() { return nonEmptyTeams == 0 ? 0.0 : maxAverage; }
+
+    /**
+     * Players beyond the per-game cap, summed over teams and games
+     * @return Game-cap excess
+     */
+    public int getGameCapViolations() { return gameCapExcess; }
+    public int getTeamsOverGameCap() { return teamsOverGameCap; }
+
+    /**
+     * Roles missing below the required diversity, summed over teams
+     * @return Role-diversity shortfall
+     */
+    public int getRoleDiversityShortfall() { return roleShortfall; }
+    public int getTeamsShortOfRoles() { return teamsShortOfRoles; }
+
+    /**
+     * Leader and Thinker quota misses, summed over teams
+     * @return Personality-quota violations
+     */
+    public int getPersonalityQuotaViolations() { return personalityViolations; }
+    public int getTeamsOffPersonalityQuota() { return teamsOffPersonalityQuota; }
+
+    /**
+     * Share of non-empty teams with at least one Leader
+     * @return Coverage between 0 and 1 (1 without non-empty teams)
+     */
+    public double getLeaderCoverage() {
+        return nonEmptyTeams == 0 ? 1.0 : (double) teamsWithLeader / nonEmptyTeams;
+    }
+
+    /**
+     * Sum of all hard-rule violations
+     * @return Game-cap, role and personality violations
+     */
+    public int getHardViolations() {
+        return gameCapExcess + roleShortfall + personalityViolations;
+    }
+
+    /**
+     * TeamOptimizer objective of the teams (lower is better)
+     * @return HARD_WEIGHT * hard violations + skill variance
+     */
+    public double getObjective() {
+        return TeamOptimizer.HARD_WEIGHT * getHardViolations() + getSkillVariance();
+    }
+
+    /**
+     * Multi-line summary for console output
+     * @return Formatted report
+     */
+    public String format() {
+        return String.format("Team skill: mean %.2f, stddev %.3f, range %.2f-%.2f%n",
+                getMeanTeamSkill(), getSkillStdDev(), getMinTeamSkill(), getMaxTeamSkill()) +
+                String.format("Game-cap violations: %d (%d teams)%n", gameCapExcess, teamsOverGameCap) +
+                String.format("Role-diversity shortfall: %d (%d teams)%n", roleShortfall, teamsShortOfRoles) +
+                String.format("Personality-quota violations: %d (%d teams)%n",
+                        personalityViolations, teamsOffPersonalityQuota) +
+                String.format("Leader coverage: %.1f%% of %d teams", getLeaderCoverage() * 100, nonEmptyTeams);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d teams, skill stddev %.3f, %d game-cap, %d role, %d personality violations, " +
+                        "leader coverage %.1f%%", teamCount, getSkillStdDev(), gameCapExcess, roleShortfall,
+                personalityViolations, getLeaderCoverage() * 100);
+    }
+}
@@ -0,0 +1,360 @@
+package com.teammate.service;
+
+import com.teammate.model.PersonalityType;
+import java.util.*;
+
+/**
+ * SkillFlowBalancer - Skill balancing as transportation problems
+ *
+ * Each non-Leader personality type is balanced on its own, so every team
+ * keeps its personality mix. The type's members are lifted into a pool and
+ * every free slot gets a target skill: a team with m slots takes the m strata
+ * of the pool (quantiles (j + 0.5) / m) shifted by the skill it still needs to
+ * reach the global average.
+ *
+ * Assigning the pool to slots is a transportation problem from skill bands
+ * (distinct skill values in the pool) to slot classes (slots whose target
+ * rounds to the same skill), with cost (skill - target)^2 per member, solved
+ * by MinCostFlow. Grouping slots by target keeps the network at a few hundred
+ * nodes even for 10,000 teams. The middle stratum of each team is solved but
+ * left in the pool, and a closing pass places it against the exact remaining
+ * need, which absorbs the rounding of the first pass.
+ *
+ * Improvement sweeps then lift one member per team at a time and place the
+ * pool exactly against the teams' needs again. A pass is only kept if it
+ * lowers the TeamOptimizer objective, so balancing never trades away a hard
+ * rule.
+ *
+ * The flow only decides skills. Within a class every slot takes the member
+ * that suits its team best among the bands routed to the class: a game under
+ * the per-team cap first, then a role the team lacks, then the nearest skill.
+ *
+ * @author Krisanthi Segar 2425596
+ * @version 1.0
+ * @since 2025
+ */
+public class SkillFlowBalancer {
+
+    private static final int LEADER = PersonalityType.LEADER.ordinal();
+    private static final int TYPE_COUNT = PersonalityType.values().length;
+    private static final int MAX_CANDIDATES = 32;
+    private static final int BEST_FIT = 3;
+    private static final int MAX_SWEEPS = 8;
+    private static final int ALL = -1;
+    private static final double MIN_IMPROVEMENT = 1e-9;
+
+    private final FormationColumns columns;
+
+    // Pool of the type being balanced, grouped by band (ascending skill):
+    // band b holds pool[bandStart[b] .. bandStart[b] + bandLive[b])
+    private int[] pool;
+    private int[] bandSkill;
+    private int[] bandStart;
+    private int[] bandLive;
+    private int bandCount;
+    private int poolLive;
+
+    /**
+     * Creates a balancer over formed teams
+     * @param columns Teams and participants
+     */
+    public SkillFlowBalancer(FormationColumns columns) {
+        this.columns = columns;
+    }
+
+    /**
+     * Reassigns every non-Leader personality type across the teams
+     * @return Number of participants that ended up in a different team
+     */
+    public int balance() {
+        int teamCount = columns.getTeamCount();
+        long totalSkill = 0;
+        int totalSize = 0;
+        int widest = 0;
+        for (int t = 0; t < teamCount; t++) {
+            totalSkill += columns.skillSum(t);
+            totalSize += columns.size(t);
+            widest = Math.max(widest, columns.size(t));
+        }
+        if (totalSize == 0) {
+            return 0;
+        }
+        double globalAvg = (double) totalSkill / totalSize;
+        int[] previousTeam = snapshot();
+        double objective = TeamOptimizer.evaluate(columns);
+
+        int[] freeSlots = new int[teamCount];
+        double[] need = new double[teamCount];
+        for (int type = 0; type < TYPE_COUNT; type++) {
+            if (type == LEADER || lift(type, ALL, globalAvg, freeSlots, need) == 0) continue;
+            placeAll(freeSlots, need, true);
+            placeAll(freeSlots, need, false);
+        }
+        objective = keepIfBetter(previousTeam, objective);
+
+        // Improvement sweeps: one member per team at a time, placed exactly against its team's need
+        for (int sweep = 0; sweep < MAX_SWEEPS; sweep++) {
+            int[] beforeSweep = snapshot();
+            for (int type = 0; type < TYPE_COUNT; type++) {
+                for (int position = 0; position < widest && type != LEADER; position++) {
+                    if (lift(type, position, globalAvg, freeSlots, need) > 0) {
+                        placeAll(freeSlots, need, false);
+                    }
+                }
+            }
+            double swept = keepIfBetter(beforeSweep, objective);
+            if (swept > objective - MIN_IMPROVEMENT) break;
+            objective = swept;
+        }
+
+        int moved = 0;
+        for (int p = 0; p < previousTeam.length; p++) {
+            if (columns.teamOf(p) != previousTeam[p]) moved++;
+        }
+        return moved;
+    }
+
+    private int[] snapshot() {
+        int[] teams = new int[columns.getParticipantCount()];
+        for (int p = 0; p < teams.length; p++) {
+            teams[p] = columns.teamOf(p);
+        }
+        return teams;
+    }
+
+    /**
+     * Keeps the current teams if they beat the TeamOptimizer objective,
+     * otherwise puts everyone back where the snapshot had them
+     * @return Objective of the teams kept
+     */
+    private double keepIfBetter(int[] saved, double objective) {
+        double current = TeamOptimizer.evaluate(columns);
+        if (current < objective) {
+            return current;
+        }
+        List<Integer> moved = new ArrayList<>();
+        for (int p = 0; p < saved.length; p++) {
+            if (columns.teamOf(p) != saved[p]) {
+                columns.remove(p);
+                moved.add(p);
+            }
+        }
+        for (int p : moved) {
+            columns.add(p, saved[p]);
+        }
+        return objective;
+    }
+
+    /**
+     * Takes members of one type out of their teams into the pool
+     * @param position Which of a team's members of the type to take, or ALL
+     * @return Number of members lifted
+     */
+    private int lift(int type, int position, double globalAvg, int[] freeSlots, double[] need) {
+        int teamCount = columns.getTeamCount();
+        int[] lifted = new int[columns.getParticipantCount()];
+        int count = 0;
+        for (int t = 0; t < teamCount; t++) {
+            int seen = 0;
+            for (int k = 0; k < columns.size(t); k++) {
+                int p = columns.member(t, k);
+                if (columns.personality(p) != type) continue;
+                if (position == ALL || seen == position) lifted[count++] = p;
+                seen++;
+            }
+        }
+        Arrays.fill(freeSlots, 0);
+        for (int i = 0; i < count; i++) {
+            freeSlots[columns.remove(lifted[i])]++;
+        }
+        for (int t = 0; t < teamCount; t++) {
+            need[t] = globalAvg * (columns.size(t) + freeSlots[t]) - columns.skillSum(t);
+        }
+        buildBands(Arrays.copyOf(lifted, count));
+        return count;
+    }
+
+    /**
+     * Groups the lifted members into bands of equal skill
+     */
+    private void buildBands(int[] members) {
+        Integer[] bySkill = new Integer[members.length];
+        for (int i = 0; i < members.length; i++) bySkill[i] = members[i];
+        Arrays.sort(bySkill, Comparator.comparingInt(columns::skill));
+
+        pool = new int[members.length];
+        bandSkill = new int[members.length];
+        bandStart = new int[members.length];
+        bandLive = new int[members.length];
+        bandCount = 0;
+        for (int i = 0; i < bySkill.length; i++) {
+            int p = bySkill[i];
+            if (bandCount == 0 || bandSkill[bandCount - 1] != columns.skill(p)) {
+                bandSkill[bandCount] = columns.skill(p);
+                bandStart[bandCount] = i;
+                bandCount++;
+            }
+            pool[i] = p;
+            bandLive[bandCount - 1]++;
+        }
+        poolLive = members.length;
+    }
+
+    /**
+     * Solves the transportation problem for the free slots and deals the pool
+     * @param holdMiddle Leave each team's middle stratum free for a closing pass
+     */
+    private void placeAll(int[] freeSlots, double[] need, boolean holdMiddle) {
+        if (poolLive == 0) {
+            return;
+        }
+        int teamCount = columns.getTeamCount();
+        int lowest = Integer.MAX_VALUE;
+        int highest = Integer.MIN_VALUE;
+        for (int b = 0; b < bandCount; b++) {
+            if (bandLive[b] == 0) continue;
+            lowest = Math.min(lowest, bandSkill[b]);
+            highest = Math.max(highest, bandSkill[b]);
+        }
+
+        // Slot targets: the team's strata of the pool, shifted by what it still needs
+        int slotCount = 0;
+        int[] slotTeam = new int[poolLive];
+        double[] slotTarget = new double[poolLive];
+        boolean[] slotHeld = new boolean[poolLive];
+        for (int t = 0; t < teamCount; t++) {
+            int m = freeSlots[t];
+            if (m == 0) continue;
+            double strata = 0;
+            for (int j = 0; j < m; j++) strata += quantile((j + 0.5) / m);
+            double shift = (need[t] - strata) / m;
+            for (int j = 0; j < m; j++) {
+                slotHeld[slotCount] = holdMiddle && j == m / 2;
+                slotTeam[slotCount] = t;
+                slotTarget[slotCount++] = Math.max(lowest, Math.min(highest, quantile((j + 0.5) / m) + shift));
+            }
+        }
+
+        // Slots grouped into classes by rounded target
+        TreeMap<Integer, Integer> classOf = new TreeMap<>();
+        for (int i = 0; i < slotCount; i++) classOf.putIfAbsent((int) Math.round(slotTarget[i]), 0);
+        int classCount = 0;
+        int[] classTarget = new int[classOf.size()];
+        for (Map.Entry<Integer, Integer> entry : classOf.entrySet()) {
+            classTarget[classCount] = entry.getKey();
+            entry.setValue(classCount++);
+        }
+        List<List<Integer>> classSlots = new ArrayList<>();
+        for (int c = 0; c < classCount; c++) classSlots.add(new ArrayList<>());
+        for (int i = 0; i < slotCount; i++) {
+            classSlots.get(classOf.get((int) Math.round(slotTarget[i]))).add(i);
+        }
+
+        // Network: source -> bands -> classes -> sink
+        int source = 0;
+        int sink = 1;
+        int firstClass = 2 + bandCount;
+        MinCostFlow flow = new MinCostFlow(firstClass + classCount);
+        int[][] bandToClass = new int[bandCount][classCount];
+        for (int b = 0; b < bandCount; b++) {
+            flow.addEdge(source, 2 + b, bandLive[b], 0);
+            for (int c = 0; c < classCount; c++) {
+                long delta = bandSkill[b] - classTarget[c];
+                bandToClass[b][c] = flow.addEdge(2 + b, firstClass + c,
+                        Math.min(bandLive[b], classSlots.get(c).size()), delta * delta);
+            }
+        }
+        for (int c = 0; c < classCount; c++) {
+            flow.addEdge(firstClass + c, sink, classSlots.get(c).size(), 0);
+        }
+        flow.solve(source, sink, Math.min(slotCount, poolLive));
+
+        // Deal each class's bands to its slots: every slot takes the member that
+        // suits its team best among the bands routed to the class, nearest skill first
+        long[] quota = new long[bandCount];
+        for (int c = 0; c < classCount; c++) {
+            List<Integer> slots = classSlots.get(c);
+            slots.sort((i1, i2) -> Double.compare(slotTarget[i2], slotTarget[i1]));
+            for (int b = 0; b < bandCount; b++) {
+                quota[b] = flow.getFlow(bandToClass[b][c]);
+            }
+            for (int slot : slots) {
+                int t = slotTeam[slot];
+                int bestBand = -1;
+                int bestFit = -1;
+                double bestDistance = Double.MAX_VALUE;
+                for (int b = 0; b < bandCount; b++) {
+                    if (quota[b] == 0) continue;
+                    int fit = slotHeld[slot] ? 0 : fit(b, t);
+                    double distance = Math.abs(bandSkill[b] - slotTarget[slot]);
+                    if (fit > bestFit || (fit == bestFit && distance < bestDistance)) {
+                        bestBand = b;
+                        bestFit = fit;
+                        bestDistance = distance;
+                    }
+                }
+                if (bestBand < 0) break;
+                quota[bestBand]--;
+                if (slotHeld[slot]) continue;
+
+                int p = take(bestBand, t);
+                columns.add(p, t);
+                need[t] -= columns.skill(p);
+                freeSlots[t]--;
+            }
+        }
+    }
+
+    /**
+     * Skill at a quantile of the remaining pool
+     */
+    private double quantile(double q) {
+        int rank = (int) Math.min(poolLive - 1, Math.max(0, Math.floor(q * poolLive)));
+        for (int b = 0; b < bandCount; b++) {
+            if (rank < bandLive[b]) return bandSkill[b];
+            rank -= bandLive[b];
+        }
+        return bandSkill[bandCount - 1];
+    }
+
+    /**
+     * How well a band's best candidate suits a team: 2 for a game under the
+     * cap, plus 1 for a role the team lacks
+     */
+    private int fit(int band, int t) {
+        int best = 0;
+        for (int i = 0; i < Math.min(bandLive[band], MAX_CANDIDATES) && best < BEST_FIT; i++) {
+            best = Math.max(best, memberFit(pool[bandStart[band] + i], t));
+        }
+        return best;
+    }
+
+    private int memberFit(int p, int t) {
+        int fit = 0;
+        if (columns.gameCount(t, columns.game(p)) < TeamBuilder.MAX_SAME_GAME) fit += 2;
+        if (columns.role(p) >= 0 && columns.roleCount(t, columns.role(p)) == 0) fit += 1;
+        return fit;
+    }
+
+    /**
+     * Removes the band member that suits a team best from the pool
+     */
+    private int take(int band, int t) {
+        int start = bandStart[band];
+        int live = bandLive[band];
+        int best = 0;
+        int bestFit = -1;
+        for (int i = 0; i < Math.min(live, MAX_CANDIDATES) && bestFit < BEST_FIT; i++) {
+            int fit = memberFit(pool[start + i], t);
+            if (fit > bestFit) {
+                bestFit = fit;
+                best = i;
+            }
+        }
+        int p = pool[start + best];
+        pool[start + best] = pool[start + live - 1];
+        bandLive[band]--;
+        poolLive--;
+        return p;
+    }
+}
@@ -0,0 +1,347 @@
+package com.teammate.service;
+
+import com.teammate.model.PersonalityType;
+import java.util.*;
+
+/**
+ * SkillSwapIndex - Finds skill-balancing swaps between teams
+ *
+ * Keeps each team's non-Leader members sorted by personality type, then skill.
+ * For a team above and a team below the global average, the deviation after
+ * swapping members with skills a and b depends only on d = a - b and is convex
+ * in d, with its minimum between the two "ideal" deltas that would bring one
+ * team exactly to the average. So for every member of one team a binary search
+ * in the other team's same-type members around those deltas finds the best
+ * swap for the pair in O(s log s) instead of trying all s^2 member pairs.
+ *
+ * Only swaps that keep the hard rules are considered: members swap with the
+ * same personality type (so Leader and Thinker quotas are untouched) and a
+ * swap may not add game-cap excess or role-diversity shortfall to either
+ * team. From the search position the scan moves outwards to the nearest
+ * allowed member on each side, which by convexity is the best allowed one.
+ *
+ * balance() drives repeated best swaps: teams above and below the average sit
+ * in two priority queues ordered by deviation, and the most deviating team is
+ * paired with the teams below in order of deviation until one swap improves.
+ * A swap moves each average by at least 1 / (team size), so once the two
+ * deviations add up to no more than that no later partner can help and the scan
+ * stops there. A team that finds no swap is parked and tried again after later
+ * swaps have changed the teams below; balance() returns once a full round of
+ * parked teams finds nothing, i.e. no above/below pair has an improving swap.
+ * Every swap strictly lowers the total deviation, so the loop converges.
+ *
+ * Leaders never move, matching the greedy refinement rules.
+ *
+ * @author Krisanthi Segar 2425596
+ * @version 1.0
+ * @since 2025
+ */
+public class SkillSwapIndex {
+
+    private static final int LEADER = PersonalityType.LEADER.ordinal();
+    private static final int TYPE_COUNT = PersonalityType.values().length;
+    private static final double MIN_IMPROVEMENT = 1e-9;
+
+    private final FormationColumns columns;
+    private final int capacity;
+
+    // Non-Leader members of team t by type, then ascending skill: [t * capacity, t * capacity + count[t]);
+    // type y occupies [typeStart[t * (TYPE_COUNT + 1) + y], typeStart[t * (TYPE_COUNT + 1) + y + 1])
+    private int[] sorted;
+    private int[] sortedSkill;
+    private int[] count;
+    private int[] typeStart;
+
+    private int bestHigh;
+    private int bestLow;
+    private long searches;
+
+    /**
+     * Queue entry; stale once the team's version has moved on
+     */
+    private static final class Entry {
+        final int team;
+        final double deviation;
+        final int version;
+
+        Entry(int team, double deviation, int version) {
+            this.team = team;
+            this.deviation = deviation;
+            this.version = version;
+        }
+    }
+
+    /**
+     * Indexes every team of the columns
+     * @param columns Teams and participants
+     */
+    public SkillSwapIndex(FormationColumns columns) {
+        this.columns = columns;
+        this.capacity = columns.memberCapacity();
+        int teamCount = columns.getTeamCount();
+        sorted = new int[teamCount * capacity];
+        sortedSkill = new int[teamCount * capacity];
+        count = new int[teamCount];
+        typeStart = new int[teamCount * (TYPE_COUNT + 1)];
+        for (int t = 0; t < teamCount; t++) {
+            rebuild(t);
+        }
+    }
+
+    /**
+     * Re-sorts a team's movable members after its membership changed
+     * @param t Team index
+     */
+    public void rebuild(int t) {
+        int base = t * capacity;
+        int starts = t * (TYPE_COUNT + 1);
+        int n = 0;
+        for (int type = 0; type < TYPE_COUNT; type++) {
+            typeStart[starts + type] = n;
+            if (type == LEADER) continue;
+            for (int k = 0; k < columns.size(t); k++) {
+                int p = columns.member(t, k);
+                if (columns.personality(p) != type) continue;
+
+                // Insertion sort: teams are small
+                int skill = columns.skill(p);
+                int i = n++;
+                while (i > typeStart[starts + type] && sortedSkill[base + i - 1] > skill) {
+                    sorted[base + i] = sorted[base + i - 1];
+                    sortedSkill[base + i] = sortedSkill[base + i - 1];
+                    i--;
+                }
+                sorted[base + i] = p;
+                sortedSkill[base + i] = skill;
+            }
+        }
+        typeStart[starts + TYPE_COUNT] = n;
+        count[t] = n;
+    }
+
+    /**
+     * Finds the swap between two teams that most reduces their combined
+     * deviation from the global average
+     * @param high Team index (usually above the average)
+     * @param low Team index (usually below the average)
+     * @param globalAvg Global average skill
+     * @return true if an improving swap exists; read it with getSwapHigh/getSwapLow
+     */
+    public boolean findBestSwap(int high, int low, double globalAvg) {
+        searches++;
+        int sizeH = columns.size(high);
+        int sizeL = columns.size(low);
+        if (sizeH == 0 || sizeL == 0 || count[high] == 0 || count[low] == 0) {
+            return false;
+        }
+        int sumH = columns.skillSum(high);
+        int sumL = columns.skillSum(low);
+        double best = Math.abs((double) sumH / sizeH - globalAvg) + Math.abs((double) sumL / sizeL - globalAvg)
+                - MIN_IMPROVEMENT;
+        bestHigh = -1;
+        bestLow = -1;
+
+        // Skill deltas a - b that would put exactly one of the teams on the average
+        double idealForHigh = sumH - globalAvg * sizeH;
+        double idealForLow = globalAvg * sizeL - sumL;
+
+        int baseH = high * capacity;
+        int baseL = low * capacity;
+        for (int i = 0; i < count[high]; i++) {
+            int p = sorted[baseH + i];
+            int a = sortedSkill[baseH + i];
+            int type = columns.personality(p);
+            int from = typeStart[low * (TYPE_COUNT + 1) + Math.max(0, type)];
+            int to = typeStart[low * (TYPE_COUNT + 1) + Math.max(0, type) + 1];
+            if (type < 0 || from == to) continue;
+
+            for (int pass = 0; pass < 2; pass++) {
+                double target = a - (pass == 0 ? idealForHigh : idealForLow);
+                int position = from + lowerBound(baseL + from, to - from, target);
+                // Nearest allowed member below and at/above the target
+                for (int direction = -1; direction <= 1; direction += 2) {
+                    int j = direction < 0 ? position - 1 : position;
+                    while (j >= from && j < to && !keepsRules(p, sorted[baseL + j], high, low)) {
+                        j += direction;
+                    }
+                    if (j < from || j >= to) continue;
+
+                    int b = sortedSkill[baseL + j];
+                    if (a == b) continue;
+                    double deviation = Math.abs((double) (sumH - a + b) / sizeH - globalAvg)
+                            + Math.abs((double) (sumL - b + a) / sizeL - globalAvg);
+                    if (deviation < best) {
+                        best = deviation;
+                        bestHigh = p;
+                        bestLow = sorted[baseL + j];
+                    }
+                }
+            }
+        }
+        return bestHigh >= 0;
+    }
+
+    /**
+     * Whether swapping p (in team a) with q (in team b) adds no game-cap excess
+     * and no role-diversity shortfall to either team
+     */
+    private boolean keepsRules(int p, int q, int a, int b) {
+        int gameP = columns.game(p);
+        int gameQ = columns.game(q);
+        if (gameP != gameQ && (gameCapChange(a, gameP, gameQ) > 0 || gameCapChange(b, gameQ, gameP) > 0)) {
+            return false;
+        }
+        int roleP = columns.role(p);
+        int roleQ = columns.role(q);
+        return roleP == roleQ || (roleShortfallChange(a, roleP, roleQ) <= 0 && roleShortfallChange(b, roleQ, roleP) <= 0);
+    }
+
+    private int gameCapChange(int t, int leaving, int joining) {
+        int change = 0;
+        if (columns.gameCount(t, leaving) > TeamBuilder.MAX_SAME_GAME) change--;
+        if (columns.gameCount(t, joining) >= TeamBuilder.MAX_SAME_GAME) change++;
+        return change;
+    }
+
+    private int roleShortfallChange(int t, int leaving, int joining) {
+        int distinct = columns.distinctRoles(t);
+        int after = distinct;
+        if (leaving >= 0 && columns.roleCount(t, leaving) == 1) after--;
+        if (joining >= 0 && columns.roleCount(t, joining) == 0) after++;
+        int required = Math.min(TeamBuilder.MIN_ROLE_DIVERSITY, columns.size(t));
+        return Math.max(0, required - after) - Math.max(0, required - distinct);
+    }
+
+    /**
+     * Participant leaving the first team in the last swap found
+     * @return Participant index
+     */
+    public int getSwapHigh() {
+        return bestHigh;
+    }
+
+    /**
+     * Participant leaving the second team in the last swap found
+     * @return Participant index
+     */
+    public int getSwapLow() {
+        return bestLow;
+    }
+
+    /**
+     * Number of findBestSwap calls so far, i.e. team pairs tried for a swap
+     * @return Swap searches
+     */
+    public long getSwapSearches() {
+        return searches;
+    }
+
+    /**
+     * Applies best swaps, most deviating teams first, until none improves
+     * @param globalAvg Global average skill
+     * @param maxSwaps Upper bound on swaps
+     * @return Number of swaps made
+     */
+    public int balance(double globalAvg, int maxSwaps) {
+        int teamCount = columns.getTeamCount();
+        Comparator<Entry> mostDeviating = (e1, e2) -> Double.compare(e2.deviation, e1.deviation);
+        PriorityQueue<Entry> above = new PriorityQueue<>(mostDeviating);
+        PriorityQueue<Entry> below = new PriorityQueue<>(mostDeviating);
+        int[] version = new int[teamCount];
+        int largestTeam = 1;
+        for (int t = 0; t < teamCount; t++) {
+            enqueue(t, version[t], globalAvg, above, below);
+            largestTeam = Math.max(largestTeam, columns.size(t));
+        }
+        // A swap moves each team's average by at least 1 / size, so a pair whose
+        // deviations add up to no more than that cannot improve (see class comment)
+        double smallestStep = 1.0 / largestTeam;
+
+        int swaps = 0;
+        List<Entry> partners = new ArrayList<>();
+        List<Entry> parked = new ArrayList<>();
+        int[] swapsWhenParked = new int[teamCount];
+        while (swaps < maxSwaps) {
+            Entry high = poll(above, version);
+            if (high == null) {
+                // Re-check parked teams if any swap happened since they last failed
+                int kept = 0;
+                for (Entry entry : parked) {
+                    if (swapsWhenParked[entry.team] < swaps) {
+                        above.add(entry);
+                    } else {
+                        parked.set(kept++, entry);
+                    }
+                }
+                if (kept == parked.size()) break;
+                parked.subList(kept, parked.size()).clear();
+                continue;
+            }
+
+            partners.clear();
+            boolean swapped = false;
+            while (!swapped) {
+                Entry low = poll(below, version);
+                if (low == null) break;
+                partners.add(low);
+                if (high.deviation + low.deviation <= smallestStep) break;
+                if (findBestSwap(high.team, low.team, globalAvg)) {
+                    columns.swap(bestHigh, bestLow);
+                    rebuild(high.team);
+                    rebuild(low.team);
+                    version[high.team]++;
+                    version[low.team]++;
+                    enqueue(high.team, version[high.team], globalAvg, above, below);
+                    enqueue(low.team, version[low.team], globalAvg, above, below);
+                    swaps++;
+                    swapped = true;
+                }
+            }
+            for (Entry partner : partners) {
+                if (partner.version == version[partner.team]) {
+                    below.add(partner);
+                }
+            }
+            if (!swapped) {
+                swapsWhenParked[high.team] = swaps;
+                parked.add(high);
+            }
+        }
+        return swaps;
+    }
+
+    private void enqueue(int t, int version, double globalAvg, PriorityQueue<Entry> above, PriorityQueue<Entry> below) {
+        if (columns.size(t) == 0) return;
+        double deviation = columns.average(t) - globalAvg;
+        if (deviation > 0) {
+            above.add(new Entry(t, deviation, version));
+        } else if (deviation < 0) {
+            below.add(new Entry(t, -deviation, version));
+        }
+    }
+
+    private static Entry poll(PriorityQueue<Entry> queue, int[] version) {
+        Entry entry;
+        while ((entry = queue.poll()) != null) {
+            if (entry.version == version[entry.team]) return entry;
+        }
+        return null;
+    }
+
+    /**
+     * First position in a team's sorted skills whose skill is at least target
+     */
+    private int lowerBound(int base, int length, double target) {
+        int lo = 0;
+        int hi = length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (sortedSkill[base + mid] < target) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+}
@@ -0,0 +1,389 @@
+package com.teammate.service;
+
+import com.teammate.model.*;
+import com.teammate.util.Logger;
+import java.util.*;
+
+/**
+ * SnakeDraftFormation - Linear-time team formation for very large cohorts
+ *
+ * DRAFT:
+ * Participants are sorted once by skill (counting sort, highest first) inside
+ * their PersonalityType bucket, then dealt round by round in serpentine order
+ * (teams 1..T, then T..1, ...):
+ * Round 1: one Leader per team
+ * Round 2-3: one Thinker per team, then a second while Thinkers last
+ * Round 4+: Balanced participants, followed by any surplus Leaders/Thinkers,
+ *           which therefore end up unassigned first when the cohort does not
+ *           divide evenly
+ *
+ * FIX-UP:
+ * Teams breaking MAX_SAME_GAME or MIN_ROLE_DIVERSITY swap an offending member
+ * with a member of the same personality type in one of the FIX_WINDOW nearest
+ * teams, preferring the closest skill. Neighbouring teams were dealt from the
+ * same stretch of the sorted order, so swaps rarely disturb skill balance. When
+ * no nearby swap helps (skill correlated with game or role makes neighbours
+ * look alike) up to RANDOM_PROBES random teams are tried instead. Each team
+ * gets at most MAX_FIX_ATTEMPTS swaps and the whole pass at most
+ * FIX_EVALUATIONS_PER_TEAM candidate swaps per team, keeping it linear.
+ *
+ * All work happens on primitive columns; Team objects are built once at the end.
+ *
+ * @author Krisanthi Segar 2425596
+ * @version 1.0
+ * @since 2025
+ */
+public class SnakeDraftFormation {
+
+    private static final int FIX_WINDOW = 8;
+    private static final int RANDOM_PROBES = 32;
+    private static final int FIX_EVALUATIONS_PER_TEAM = 256;
+    private static final int MAX_FIX_ATTEMPTS = 4;
+
+    private static final int ROLE_COUNT = Role.values().length;
+    private static final int LEADER = PersonalityType.LEADER.ordinal();
+    private static final int THINKER = PersonalityType.THINKER.ordinal();
+    private static final int BALANCED = PersonalityType.BALANCED.ordinal();
+
+    // Participant columns
+    private Participant[] people;
+    private int[] skill;
+    private int[] role;
+    private int[] type;
+    private int[] game;
+
+    // Team slots: members of team t are slots[t * teamSize .. t * teamSize + fill[t])
+    private int teamSize;
+    private int numTeams;
+    private int[] slots;
+    private int[] fill;
+
+    private final Random random;
+    private int swaps;
+    private long evaluationsLeft;
+    private FormationMetrics metrics;
+
+    // Best swap found by the current fix-up search
+    private int bestTeam;
+    private int bestSlot;
+    private int bestOther;
+    private int bestGain;
+    private int bestSkillGap;
+
+    /**
+     * Creates a formation with a random fix-up seed
+     */
+    public SnakeDraftFormation() {
+        this(new Random());
+    }
+
+    /**
+     * Creates a formation whose random fix-up probes come from a seed
+     * @param seed Seed for the fix-up probes
+     */
+    public SnakeDraftFormation(long seed) {
+        this(new Random(seed));
+    }
+
+    private SnakeDraftFormation(Random random) {
+        this.random = random;
+    }
+
+    /**
+     * Records the next formation's phases, fix-up evaluations and swaps, and
+     * the objective before and after fix-up
+     * @param metrics Metrics to fill, or null to stop recording
+     */
+    public void setMetrics(FormationMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * Forms teams by snake draft plus bounded fix-up
+     * @param participants Participants to place
+     * @param teamSize Team size
+     * @return Full teams; participants beyond the last full team are left out
+     */
+    public List<Team> formTeams(List<Participant> participants, int teamSize) {
+        if (teamSize < 1) {
+            throw new IllegalArgumentException("Team size must be positive");
+        }
+        this.teamSize = teamSize;
+        this.numTeams = participants.size() / teamSize;
+        this.swaps = 0;
+
+        if (metrics != null) metrics.startPhase("1 Load and sort");
+        load(participants);
+        int[][] buckets = sortedBuckets();
+
+        if (metrics != null) metrics.startPhase("2 Deal");
+        slots = new int[numTeams * teamSize];
+        fill = new int[numTeams];
+        int round = 0;
+
+        int[] leaders = buckets[LEADER];
+        int[] thinkers = buckets[THINKER];
+        int leadersUsed = deal(leaders, 0, Math.min(leaders.length, numTeams), round++);
+        int thinkersUsed = deal(thinkers, 0, Math.min(thinkers.length, numTeams), round++);
+        thinkersUsed += deal(thinkers, thinkersUsed, Math.min(thinkers.length - thinkersUsed, numTeams), round++);
+
+        // Everyone else fills the remaining slots in serpentine rounds
+        int[] rest = new int[buckets[BALANCED].length + (thinkers.length - thinkersUsed) + (leaders.length - leadersUsed)];
+        int length = 0;
+        System.arraycopy(buckets[BALANCED], 0, rest, length, buckets[BALANCED].length);
+        length += buckets[BALANCED].length;
+        System.arraycopy(thinkers, thinkersUsed, rest, length, thinkers.length - thinkersUsed);
+        length += thinkers.length - thinkersUsed;
+        System.arraycopy(leaders, leadersUsed, rest, length, leaders.length - leadersUsed);
+        fillRemaining(rest, round);
+
+        // Measuring the dealt teams costs a pass over everyone, so only when recording
+        double dealtObjective = metrics != null ? TeamOptimizer.evaluate(buildTeams()) : Double.NaN;
+
+        if (metrics != null) metrics.startPhase("3 Fix-up");
+        long evaluationBudget = (long) numTeams * FIX_EVALUATIONS_PER_TEAM;
+        evaluationsLeft = evaluationBudget;
+        for (int t = 0; t < numTeams; t++) {
+            fixUp(t);
+        }
+        if (evaluationsLeft <= 0) {
+            Logger.logWarning("Snake draft fix-up budget exhausted; some teams may break game/role rules");
+        }
+
+        if (metrics != null) metrics.startPhase("4 Build teams");
+        List<Team> teams = buildTeams();
+        if (metrics != null) {
+            metrics.endPhase();
+            long evaluations = evaluationBudget - Math.max(0, evaluationsLeft);
+            metrics.addScoreEvaluations(evaluations);
+            metrics.addSwaps(evaluations, swaps);
+            metrics.setObjectives(dealtObjective, TeamOptimizer.evaluate(teams));
+        }
+        Logger.logInfo("Snake draft formed " + teams.size() + " teams (" + swaps + " fix-up swaps)");
+        return teams;
+    }
+
+    /**
+     * Number of fix-up swaps made by the last formation
+     * @return Swap count
+     */
+    public int getFixUpSwaps() {
+        return swaps;
+    }
+
+    private void load(List<Participant> participants) {
+        int n = participants.size();
+        people = participants.toArray(new Participant[0]);
+        skill = new int[n];
+        role = new int[n];
+        type = new int[n];
+        game = new int[n];
+
+        GameIds games = new GameIds();
+        for (int i = 0; i < n; i++) {
+            Participant p = people[i];
+            skill[i] = p.getSkillLevel();
+            role[i] = p.getPreferredRole() == null ? -1 : p.getPreferredRole().ordinal();
+            type[i] = p.getPersonalityType() == null ? BALANCED : p.getPersonalityType().ordinal();
+
+            game[i] = games.of(p);
+        }
+    }
+
+    /**
+     * Counting-sorts participant indices by skill, highest first, within each personality type
+     * @return Index arrays per PersonalityType ordinal
+     */
+    private int[][] sortedBuckets() {
+        int n = people.length;
+        int minSkill = Integer.MAX_VALUE;
+        int maxSkill = Integer.MIN_VALUE;
+        for (int i = 0; i < n; i++) {
+            minSkill = Math.min(minSkill, skill[i]);
+            maxSkill = Math.max(maxSkill, skill[i]);
+        }
+        int typeCount = PersonalityType.values().length;
+        if (n == 0) {
+            return new int[typeCount][0];
+        }
+
+        int range = maxSkill - minSkill + 1;
+        int[] start = new int[typeCount * range + 1];
+        for (int i = 0; i < n; i++) {
+            start[key(i, minSkill, maxSkill, range) + 1]++;
+        }
+        for (int k = 1; k < start.length; k++) {
+            start[k] += start[k - 1];
+        }
+
+        int[] order = new int[n];
+        int[] next = Arrays.copyOf(start, start.length - 1);
+        for (int i = 0; i < n; i++) {
+            order[next[key(i, minSkill, maxSkill, range)]++] = i;
+        }
+
+        int[][] buckets = new int[typeCount][];
+        for (int t = 0; t < typeCount; t++) {
+            buckets[t] = Arrays.copyOfRange(order, start[t * range], start[(t + 1) * range]);
+        }
+        return buckets;
+    }
+
+    private int key(int i, int minSkill, int maxSkill, int range) {
+        return type[i] * range + (maxSkill - skill[i]);
+    }
+
+    /**
+     * Deals up to count participants, one per team with room, in this round's direction
+     * @return Number dealt; fewer than count when some teams are already full
+     */
+    private int deal(int[] source, int from, int count, int round) {
+        boolean forward = round % 2 == 0;
+        int dealt = 0;
+        for (int k = 0; k < numTeams && dealt < count; k++) {
+            int t = forward ? k : numTeams - 1 - k;
+            if (fill[t] < teamSize) {
+                slots[t * teamSize + fill[t]++] = source[from + dealt++];
+            }
+        }
+        return dealt;
+    }
+
+    /**
+     * Deals the rest in serpentine rounds over teams that still have room
+     */
+    private void fillRemaining(int[] rest, int round) {
+        int next = 0;
+        boolean placed = true;
+        while (next < rest.length && placed) {
+            placed = false;
+            boolean forward = round++ % 2 == 0;
+            for (int k = 0; k < numTeams && next < rest.length; k++) {
+                int t = forward ? k : numTeams - 1 - k;
+                if (fill[t] < teamSize) {
+                    slots[t * teamSize + fill[t]++] = rest[next++];
+                    placed = true;
+                }
+            }
+        }
+    }
+
+    /**
+     * Swaps rule-breaking members of a team with like-typed members of nearby
+     * teams, falling back to random teams when no nearby swap helps
+     */
+    private void fixUp(int t) {
+        for (int attempt = 0; attempt < MAX_FIX_ATTEMPTS; attempt++) {
+            int current = violations(t);
+            if (current == 0) return;
+
+            bestTeam = -1;
+            bestGain = 0;
+            bestSkillGap = Integer.MAX_VALUE;
+            for (int d = 1; d <= FIX_WINDOW; d++) {
+                if (findSwap(t, current, t - d, false) || findSwap(t, current, t + d, false)) break;
+            }
+            for (int probe = 0; bestTeam < 0 && probe < RANDOM_PROBES && numTeams > 1; probe++) {
+                int u = random.nextInt(numTeams - 1);
+                if (findSwap(t, current, u >= t ? u + 1 : u, true)) break;
+            }
+
+            if (bestTeam < 0) return;
+            swap(t, bestSlot, bestTeam, bestOther);
+            swaps++;
+        }
+    }
+
+    /**
+     * Tries every same-type swap between team t and team u, keeping the best in the best* fields
+     * @param anySkill Accept a full fix regardless of skill gap
+     * @return true if a swap clears all of t's violations without hurting u
+     *         (and, unless anySkill, without changing skill balance)
+     */
+    private boolean findSwap(int t, int current, int u, boolean anySkill) {
+        if (u < 0 || u >= numTeams || evaluationsLeft <= 0) return false;
+        int otherBefore = violations(u);
+
+        for (int slot = 0; slot < fill[t]; slot++) {
+            int x = slots[t * teamSize + slot];
+            if (!offends(t, x)) continue;
+
+            for (int other = 0; other < fill[u]; other++) {
+                int y = slots[u * teamSize + other];
+                if (type[y] != type[x] || (game[y] == game[x] && role[y] == role[x])) continue;
+                int skillGap = Math.abs(skill[y] - skill[x]);
+
+                evaluationsLeft--;
+                swap(t, slot, u, other);
+                // Never trade u's rules for t's: u may already have been fixed
+                int gain = violations(u) > otherBefore ? 0 : current - violations(t);
+                swap(t, slot, u, other);
+
+                if (gain > bestGain || (gain > 0 && gain == bestGain && skillGap < bestSkillGap)) {
+                    bestGain = gain;
+                    bestSkillGap = skillGap;
+                    bestTeam = u;
+                    bestSlot = slot;
+                    bestOther = other;
+                    if (gain == current && (anySkill || skillGap == 0)) return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private void swap(int a, int slotA, int b, int slotB) {
+        int i = a * teamSize + slotA;
+        int j = b * teamSize + slotB;
+        int tmp = slots[i];
+        slots[i] = slots[j];
+        slots[j] = tmp;
+    }
+
+    /**
+     * Game-cap excess plus role-diversity shortfall of one team
+     */
+    private int violations(int t) {
+        int base = t * teamSize;
+        int excess = 0;
+        int roleMask = 0;
+        for (int i = 0; i < fill[t]; i++) {
+            int p = slots[base + i];
+            if (role[p] >= 0) roleMask |= 1 << role[p];
+            int sameGame = 0;
+            for (int j = 0; j < i; j++) {
+                if (game[slots[base + j]] == game[p]) sameGame++;
+            }
+            if (sameGame >= TeamBuilder.MAX_SAME_GAME) excess++;
+        }
+        int roleTarget = Math.min(TeamBuilder.MIN_ROLE_DIVERSITY, Math.min(fill[t], ROLE_COUNT));
+        return excess + Math.max(0, roleTarget - Integer.bitCount(roleMask));
+    }
+
+    /**
+     * Whether moving a member out could help: it shares its game or role with others
+     */
+    private boolean offends(int t, int x) {
+        int base = t * teamSize;
+        int sameGame = 0;
+        int sameRole = 0;
+        for (int i = 0; i < fill[t]; i++) {
+            int p = slots[base + i];
+            if (game[p] == game[x]) sameGame++;
+            if (role[p] == role[x]) sameRole++;
+        }
+        return sameGame > TeamBuilder.MAX_SAME_GAME || sameRole > 1;
+    }
+
+    private List<Team> buildTeams() {
+        List<Team> teams = new ArrayList<>(numTeams);
+        for (int t = 0; t < numTeams; t++) {
+            Team team = new Team("TEAM_" + (t + 1), teamSize);
+            for (int i = 0; i < fill[t]; i++) {
+                team.addMember(people[slots[t * teamSize + i]]);
+            }
+            teams.add(team);
+        }
+        return teams;
+    }
+}
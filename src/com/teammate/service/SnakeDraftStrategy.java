@@ -0,0 +1,37 @@
+package com.teammate.service;
+
+import com.teammate.model.*;
+import java.util.*;
+
+/**
+ * SnakeDraftStrategy - SnakeDraftFormation as a formation strategy
+ *
+ * Metrics count fix-up swap evaluations and report the objective of the dealt
+ * teams and of the fixed-up teams.
+ *
+ * @author Krisanthi Segar 2425596
+ * @version 1.0
+ * @since 2025
+ */
+public class SnakeDraftStrategy implements TeamFormationStrategy {
+
+    public static final String NAME = "snake-draft";
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public List<Team> formTeams(List<Participant> participants, int teamSize) {
+        return new SnakeDraftFormation().formTeams(participants, teamSize);
+    }
+
+    @Override
+    public List<Team> formTeams(List<Participant> participants, int teamSize, FormationDeadline deadline,
+                                FormationMetrics metrics) {
+        SnakeDraftFormation formation = new SnakeDraftFormation();
+        formation.setMetrics(metrics);
+        return formation.formTeams(participants, teamSize);
+    }
+}
@@ -0,0 +1,113 @@
+package com.teammate.service;
+
+import java.util.*;
+
+/**
+ * StrategyRegistry - Named team formation strategies with cohort-size rules
+ *
+ * Strategies are looked up by name, or chosen for a cohort size: the strategy
+ * registered with the smallest size limit that still covers the cohort wins,
+ * and cohorts above every limit get the default strategy.
+ *
+ * The standard registry holds:
+ * - "exact" for cohorts up to ExactTeamSolver.MAX_PARTICIPANTS
+ * - "eight-phase" for cohorts up to LARGE_COHORT
+ * - "snake-draft" as the default, i.e. for larger cohorts
+ * - "eight-phase-parallel" and "multi-start", by name only
+ *
+ * @author Krisanthi Segar 2425596
+ * @version 1.0
+ * @since 2025
+ */
+public class StrategyRegistry {
+
+    public static final int LARGE_COHORT = 100_000;
+
+    private static final long DEFAULT_EXACT_TIME_LIMIT_MILLIS = 2000;
+    private static final int DEFAULT_MULTI_STARTS = 4;
+
+    private final Map<String, TeamFormationStrategy> strategies = new LinkedHashMap<>();
+    private final TreeMap<Integer, String> sizeRules = new TreeMap<>();
+    private String defaultName;
+
+    /**
+     * Creates a registry holding the standard strategies
+     * @return Registry with exact, eight-phase, snake-draft, parallel and multi-start strategies
+     */
+    public static StrategyRegistry standard() {
+        StrategyRegistry registry = new StrategyRegistry();
+        registry.register(new EightPhaseStrategy(), LARGE_COHORT);
+        registry.register(new EightPhaseStrategy(Runtime.getRuntime().availableProcessors()));
+        registry.register(new MultiStartStrategy(DEFAULT_MULTI_STARTS));
+        registry.register(new ExactSolverStrategy(DEFAULT_EXACT_TIME_LIMIT_MILLIS), ExactTeamSolver.MAX_PARTICIPANTS);
+        registry.register(new SnakeDraftStrategy());
+        registry.setDefault(SnakeDraftStrategy.NAME);
+        return registry;
+    }
+
+    /**
+     * Registers a strategy for lookup by name, replacing one with the same name
+     * @param strategy The strategy
+     */
+    public synchronized void register(TeamFormationStrategy strategy) {
+        strategies.put(strategy.getName(), strategy);
+        if (defaultName == null) {
+            defaultName = strategy.getName();
+        }
+    }
+
+    /**
+     * Registers a strategy and selects it for cohorts up to a size
+     * @param strategy The strategy
+     * @param maxCohortSize Largest cohort the strategy is chosen for
+     */
+    public synchronized void register(TeamFormationStrategy strategy, int maxCohortSize) {
+        register(strategy);
+        sizeRules.values().remove(strategy.getName());
+        if (maxCohortSize > 0) {
+            sizeRules.put(maxCohortSize, strategy.getName());
+        }
+    }
+
+    /**
+     * Sets the strategy used when no size rule matches
+     * @param name Registered strategy name
+     */
+    public synchronized void setDefault(String name) {
+        get(name);
+        defaultName = name;
+    }
+
+    /**
+     * Looks up a strategy by name
+     * @param name Strategy name
+     * @return The strategy
+     * @throws IllegalArgumentException if no strategy has that name
+     */
+    public synchronized TeamFormationStrategy get(String name) {
+        TeamFormationStrategy strategy = strategies.get(name);
+        if (strategy == null) {
+            throw new IllegalArgumentException("Unknown formation strategy: " + name +
+                    " (available: " + strategies.keySet() + ")");
+        }
+        return strategy;
+    }
+
+    /**
+     * Chooses the strategy for a cohort size
+     * @param cohortSize Number of participants
+     * @return Strategy with the tightest size rule covering the cohort, or the default
+     */
+    public synchronized TeamFormationStrategy select(int cohortSize) {
+        Map.Entry<Integer, String> rule = sizeRules.ceilingEntry(cohortSize);
+        return get(rule != null ? rule.getValue() : defaultName);
+    }
+
+    /**
+     * Names of all registered strategies, in registration order
+     * @return Strategy names
+     */
+    public synchronized List<String> getNames() {
+        return new ArrayList<>(strategies.keySet());
+    }
+}
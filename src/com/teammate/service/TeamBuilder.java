@@ -4,7 +4,6 @@ import com.teammate.model.*;
 import com.teammate.util.Logger;
 import java.util.*;
 import java.util.concurrent.*;
-import java.util.stream.Collectors;
 
 /**
  * TeamBuilder - Intelligent Team Formation Algorithm
@@ -22,107 +21,589 @@ import java.util.stream.Collectors;
  * Phase 1: Shuffle participants for randomization
  * Phase 2: Distribute Leaders (exactly 1 per team)
  * Phase 3: Distribute Thinkers (1-2 per team)
- * Phase 4: Distribute by role diversity (concurrent)
- * Phase 5: Distribute Balanced types (concurrent)
- * Phase 6: Distribute remaining (concurrent)
- * Phase 7: Balance team skills
+ * Phase 4: Distribute by role diversity
+ * Phase 5: Distribute Balanced types
+ * Phase 6: Distribute remaining
+ * Phase 7: Balance team skills (best swaps, most deviating teams first)
  * Phase 8: Final role diversity adjustments
  *
+ * Phases 7-8 run as a single anytime local search (TeamOptimizer) by default;
+ * RefinementMode.GREEDY selects the swap heuristics instead, and
+ * RefinementMode.MIN_COST_FLOW re-deals skills through transportation problems
+ * (SkillFlowBalancer) and leaves the swaps only the last few fractions.
+ *
+ * DATA LAYOUT:
+ * The input is converted once into FormationColumns (primitive skill, role,
+ * personality, game and team columns indexed by input position). Every phase,
+ * the selection index and the optimizer work on those columns; Team objects
+ * are only built when the teams are returned.
+ *
+ * REPRODUCIBILITY:
+ * A builder created with a seed draws every random choice from it and runs the
+ * local search on an iteration budget only, so the same input and seed always
+ * give the same teams. An attached FormationJournal records every membership
+ * change for exact replay.
+ *
+ * DEADLINES:
+ * With a FormationDeadline attached, every placement phase and refinement step
+ * checks it. Once it expires the remaining participants are placed by score
+ * alone and refinement is skipped or cut short, so the teams returned are
+ * complete but may break the personality, game and role rules (flagged
+ * SUBOPTIMAL). Cancellation or interruption stops placement at once and
+ * returns what is placed (PARTIAL).
+ *
+ * METRICS:
+ * Every run records a FormationMetrics (wall time and allocation per phase,
+ * placement score evaluations, refinement swaps and the objective before and
+ * after Phases 7-8), available from getMetrics() afterwards. Phases are also
+ * emitted as JFR events (TeamMateEvents.FormationPhase).
+ *
+ * PARALLEL MODE (formTeamsParallel):
+ * Participants and a proportional slice of teams are split into independent
+ * shards that run Phases 2-6 on a work-stealing pool, followed by a cross-shard
+ * repair pass for leftovers and global Phases 7-8.
+ *
  * @author Krisanthi Segar 2425596
  * @version 2.0
  * @since 2025
  */
 public class TeamBuilder {
 
-    private List<Participant> participants;
-    private List<Team> teams;
-    private int teamSize;
+    private final FormationColumns columns;
+    private final int teamSize;
+
+    // Participant indices in placement order: shuffled, then by skill descending
+    private int[] order;
+
+    static final int MAX_SAME_GAME = 3;
+    static final int MIN_ROLE_DIVERSITY = 3;
+    static final int MAX_LEADERS_PER_TEAM = 1;
+    static final int MIN_THINKERS_PER_TEAM = 1;
+    static final int MAX_THINKERS_PER_TEAM = 2;
+    private static final int MIN_TEAMS_PER_SHARD = 8;
+    private static final int SHARDS_PER_THREAD = 4;
+    private static final long MIN_OPTIMIZER_ITERATIONS = 20_000;
+    private static final long OPTIMIZER_ITERATIONS_PER_PARTICIPANT = 50;
+    // Default local-search time cap: 20 us per participant, between 10 ms and 1 s
+    private static final long OPTIMIZER_MICROS_PER_PARTICIPANT = 20;
+    private static final long MIN_OPTIMIZER_MILLIS = 10;
+    private static final long MAX_OPTIMIZER_MILLIS = 1000;
+    private static final int MAX_COUNTING_SORT_RANGE = 1 << 16;
+    private static final int MAX_BALANCE_SWAPS_PER_TEAM = 16;
+
+    private static final int LEADER = PersonalityType.LEADER.ordinal();
+    private static final int THINKER = PersonalityType.THINKER.ordinal();
+    private static final int BALANCED = PersonalityType.BALANCED.ordinal();
 
-    private static final int MAX_SAME_GAME = 3;
-    private static final int MIN_ROLE_DIVERSITY = 3;
-    private static final int MAX_LEADERS_PER_TEAM = 1;
-    private static final int MIN_THINKERS_PER_TEAM = 1;
-    private static final int MAX_THINKERS_PER_TEAM = 2;
+    /**
+     * How Phases 7-8 refine the distributed teams
+     */
+    public enum RefinementMode {
+        /** Best-swap skill balancing followed by role-diversity swaps */
+        GREEDY,
+        /** Min-cost-flow skill reassignment, best-swap polish and role-diversity swaps */
+        MIN_COST_FLOW,
+        /** Simulated annealing over one combined objective within a budget */
+        LOCAL_SEARCH
+    }
+
+    private RefinementMode refinementMode = RefinementMode.LOCAL_SEARCH;
+    private long optimizerIterations = -1;
+    private long optimizerMillis = -1;
+    private FormationJournal journal;
+    private FormationDeadline deadline = FormationDeadline.none();
+    private FormationMetrics metrics;
 
-    private final Random random = new Random();
+    private final Random random;
+
+    // Open-team index used by the score-based phases (4-6)
+    private TeamSelectionIndex selectionIndex;
+    private final PlacementScorer placementScorer;
 
     public TeamBuilder(List<Participant> participants, int teamSize) {
-        this.participants = new ArrayList<>(participants);
+        this(participants, teamSize, 0, new Random());
+    }
+
+    /**
+     * Creates a builder whose random choices come from the given seed
+     * @param participants Participants to place
+     * @param teamSize Team size
+     * @param seed Seed for shuffles, tie-breaks and score jitter
+     */
+    public TeamBuilder(List<Participant> participants, int teamSize, long seed) {
+        this(participants, teamSize, 0, new Random(seed));
+        // A wall-clock budget would make the result depend on machine speed
+        this.optimizerMillis = 0;
+    }
+
+    /**
+     * Creates a builder over columns holding the participants and a number of
+     * empty teams (shards get their teams here, other builders in Phase 1)
+     * @param participants Participants to place
+     * @param teamSize Team size
+     * @param teamCount Number of teams created up front
+     * @param random Random source for this builder
+     */
+    private TeamBuilder(List<Participant> participants, int teamSize, int teamCount, Random random) {
         this.teamSize = teamSize;
-        this.teams = new ArrayList<>();
+        this.random = random;
+        this.placementScorer = new PlacementScorer(random);
+
+        int count = participants.size();
+        this.columns = new FormationColumns(teamSize, count, Math.max(teamCount, count / Math.max(1, teamSize)));
+        for (Participant p : participants) {
+            columns.addParticipant(p);
+        }
+        for (int t = 0; t < teamCount; t++) {
+            columns.addTeam();
+        }
+        this.order = new int[count];
+        for (int i = 0; i < count; i++) {
+            order[i] = i;
+        }
+        this.metrics = newMetrics();
+    }
+
+    private FormationMetrics newMetrics() {
+        int participantCount = columns.getParticipantCount();
+        return new FormationMetrics(participantCount, Math.max(columns.getTeamCount(), participantCount / Math.max(1, teamSize)));
     }
 
     /**
-     * Forms balanced teams using multi-phase concurrent algorithm
+     * Forms balanced teams using multi-phase algorithm
      * @return List of formed teams
      * @throws InterruptedException if thread execution is interrupted
      * @throws ExecutionException if concurrent execution fails
      */
     public List<Team> formTeams() throws InterruptedException, ExecutionException {
+        metrics = newMetrics();
+        metrics.startPhase("1 Shuffle and sort");
+        prepareTeams();
+
+        distributeAll();
+
+        // Phase 7-8: Optimization
+        refineTeams();
+
+        Logger.logInfo("Team formation complete: " + metrics);
+        return columns.toTeams();
+    }
+
+    /**
+     * Forms teams in parallel by sharding participants and teams
+     *
+     * Each shard receives a contiguous slice of teams and a stratified share of
+     * participants (same proportion of each personality type, spread across the
+     * skill range), then runs Phases 2-6 independently on a ForkJoinPool. A
+     * repair pass places whatever did not fit into its shard, and Phases 7-8 run
+     * over all teams.
+     *
+     * @param parallelism Number of worker threads
+     * @return List of formed teams
+     * @throws InterruptedException if thread execution is interrupted
+     * @throws ExecutionException if a shard fails
+     */
+    public List<Team> formTeamsParallel(int parallelism) throws InterruptedException, ExecutionException {
+        int numTeams = columns.getParticipantCount() / teamSize;
+        int shardCount = Math.min(parallelism * SHARDS_PER_THREAD, numTeams / MIN_TEAMS_PER_SHARD);
+        if (parallelism <= 1 || shardCount <= 1) {
+            return formTeams();
+        }
+
+        metrics = newMetrics();
+        metrics.startPhase("1 Shuffle and sort");
+        prepareTeams();
+
+        // Split teams into contiguous slices
+        int[] teamStart = new int[shardCount + 1];
+        for (int k = 0; k <= shardCount; k++) {
+            teamStart[k] = (int) ((long) numTeams * k / shardCount);
+        }
+
+        int[][] shardParticipants = splitParticipants(teamStart);
+        Logger.logInfo("Forming teams in " + shardCount + " shards on " + parallelism + " threads");
+
+        List<TeamBuilder> shards = new ArrayList<>();
+        for (int k = 0; k < shardCount; k++) {
+            List<Participant> members = new ArrayList<>(shardParticipants[k].length);
+            for (int p : shardParticipants[k]) {
+                members.add(columns.getParticipant(p));
+            }
+            TeamBuilder shard = new TeamBuilder(members, teamSize, teamStart[k + 1] - teamStart[k],
+                    new Random(random.nextLong()));
+            if (journal != null) {
+                shard.setJournal(new FormationJournal());
+            }
+            shard.deadline = deadline;
+            shards.add(shard);
+        }
+
+        metrics.startPhase("2-6 Shards (" + shardCount + ")");
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        String[] shardLogs = new String[shardCount];
+        try {
+            List<Future<Boolean>> futures = new ArrayList<>();
+            for (int k = 0; k < shardCount; k++) {
+                TeamBuilder shard = shards.get(k);
+                int slot = k;
+                futures.add(pool.submit(() -> {
+                    // Shard lines are buffered and written in shard order below
+                    Logger.startBuffer();
+                    try {
+                        return shard.distributeAll();
+                    } finally {
+                        shardLogs[slot] = Logger.takeBuffer();
+                    }
+                }));
+            }
+            for (int k = 0; k < shardCount; k++) {
+                futures.get(k).get();
+                Logger.writeBuffered(shardLogs[k]);
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        // Merge shard teams (and journals, in shard order) back into the global columns
+        metrics.startPhase("6 Cross-shard repair");
+        for (TeamBuilder shard : shards) {
+            metrics.addScoreEvaluations(shard.metrics.getScoreEvaluations());
+        }
+        columns.setJournal(null);
+        for (int k = 0; k < shardCount; k++) {
+            FormationColumns shardColumns = shards.get(k).columns;
+            int[] ordinalMap = shardParticipants[k];
+            for (int t = 0; t < shardColumns.getTeamCount(); t++) {
+                for (int m = 0; m < shardColumns.size(t); m++) {
+                    columns.add(ordinalMap[shardColumns.member(t, m)], teamStart[k] + t);
+                }
+            }
+            if (journal != null) {
+                journal.append(shards.get(k).journal, ordinalMap, teamStart[k]);
+            }
+        }
+        columns.setJournal(journal);
+
+        // Cross-shard repair pass for leftovers
+        selectionIndex = new TeamSelectionIndex(columns, placementScorer, PlacementScorer.SCORE_JITTER);
+        distributeRemaining();
+        placeAfterDeadline();
+        metrics.addScoreEvaluations(selectionIndex.getScoreEvaluations());
+        selectionIndex = null;
+
+        // Phase 7-8: Optimization
+        refineTeams();
+
+        Logger.logInfo("Parallel team formation complete: " + metrics);
+        return columns.toTeams();
+    }
+
+    /**
+     * Selects how Phases 7-8 refine the teams
+     * @param refinementMode The refinement mode
+     */
+    public void setRefinementMode(RefinementMode refinementMode) {
+        this.refinementMode = refinementMode;
+    }
+
+    /**
+     * Sets the local-search budget used by RefinementMode.LOCAL_SEARCH
+     * @param iterations Maximum candidate swaps (negative for a size-based default)
+     * @param millis Maximum run time in milliseconds (0 for no limit, negative for a size-based default)
+     */
+    public void setOptimizationBudget(long iterations, long millis) {
+        this.optimizerIterations = iterations;
+        this.optimizerMillis = millis;
+    }
+
+    /**
+     * Stops the next run early once a deadline expires or is cancelled
+     * @param deadline Time limit and cancellation; records how complete the teams are
+     */
+    public void setDeadline(FormationDeadline deadline) {
+        this.deadline = deadline;
+    }
+
+    /**
+     * Measurements of the last run
+     * @return Metrics of the last formTeams or formTeamsParallel call
+     */
+    public FormationMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Records every membership change of the next run into a journal
+     * @param journal The journal, or null to stop recording
+     */
+    public void setJournal(FormationJournal journal) {
+        this.journal = journal;
+        columns.setJournal(journal);
+    }
+
+    /**
+     * Phases 7-8: Refines team balance and records the objective around it
+     */
+    private void refineTeams() {
+        double before = TeamOptimizer.evaluate(columns);
+        refineTeams(before);
+        metrics.endPhase();
+        metrics.setObjectives(before, TeamOptimizer.evaluate(columns));
+    }
+
+    /**
+     * Phases 7-8: Refines team balance according to the refinement mode
+     * @param before Objective of the distributed teams
+     */
+    private void refineTeams(double before) {
+        if (stoppedBy("refinement")) {
+            return;
+        }
+        if (refinementMode == RefinementMode.GREEDY) {
+            metrics.startPhase("7 Skill balancing");
+            balanceTeamSkills();
+            if (stoppedBy("role-diversity adjustments")) return;
+            metrics.startPhase("8 Role adjustments");
+            performFinalAdjustments();
+            return;
+        }
+        if (refinementMode == RefinementMode.MIN_COST_FLOW) {
+            metrics.startPhase("7 Min-cost flow");
+            int moved = new SkillFlowBalancer(columns).balance();
+            Logger.logInfo("Min-cost-flow balancing moved " + moved + " participants");
+            if (stoppedBy("skill-balancing swaps")) return;
+            metrics.startPhase("7 Skill balancing");
+            balanceTeamSkills();
+            if (stoppedBy("role-diversity adjustments")) return;
+            metrics.startPhase("8 Role adjustments");
+            performFinalAdjustments();
+            return;
+        }
+
+        metrics.startPhase("7-8 Local search");
+        long iterations = optimizerIterations >= 0 ? optimizerIterations
+                : Math.max(MIN_OPTIMIZER_ITERATIONS, OPTIMIZER_ITERATIONS_PER_PARTICIPANT * columns.getParticipantCount());
+        long millis = optimizerMillis >= 0 ? optimizerMillis
+                : Math.max(MIN_OPTIMIZER_MILLIS, Math.min(MAX_OPTIMIZER_MILLIS,
+                        OPTIMIZER_MICROS_PER_PARTICIPANT * columns.getParticipantCount() / 1000));
+        TeamOptimizer optimizer = new TeamOptimizer(iterations, millis, random);
+        optimizer.setDeadline(deadline);
+        double after = optimizer.optimize(columns);
+        metrics.addSwaps(optimizer.getSwapsAttempted(), optimizer.getSwapsAccepted());
+        Logger.logInfo("Local search objective: " + String.format("%.3f -> %.3f", before, after));
+        stoppedBy("the rest of the local search");
+    }
+
+    /**
+     * Checks the deadline before a refinement step
+     * @param step What is skipped if the deadline has expired
+     * @return true if the deadline has expired and the teams are flagged SUBOPTIMAL
+     */
+    private boolean stoppedBy(String step) {
+        if (!deadline.isExpired()) {
+            return false;
+        }
+        Logger.logWarning("Formation deadline reached, skipping " + step);
+        deadline.degrade(FormationResult.Completion.SUBOPTIMAL);
+        return true;
+    }
+
+    /**
+     * After an expired deadline cut Phases 2-6 short, places everyone left in
+     * the best-scoring open team through the selection index, without further
+     * deadline checks (SUBOPTIMAL); after a cancellation leaves them out (PARTIAL)
+     *
+     * The teams are complete, but skipped Phases 2-3 and 7-8 mean they may break
+     * the personality, game and role rules, which the score only favours.
+     */
+    private void placeAfterDeadline() {
+        if (!deadline.isExpired()) {
+            return;
+        }
+        metrics.startPhase("Deadline fill");
+        int unplaced = 0;
+        boolean cancelled = deadline.isCancelled();
+        for (int p : order) {
+            if (columns.isAssigned(p)) continue;
+            int bestTeam = cancelled ? -1 : findBestTeamForParticipant(p);
+            if (bestTeam < 0 || !assign(p, bestTeam)) {
+                unplaced++;
+            }
+        }
+        if (cancelled && unplaced > 0) {
+            Logger.logWarning("Formation cancelled with " + unplaced + " participants unplaced");
+            deadline.degrade(FormationResult.Completion.PARTIAL);
+        } else {
+            Logger.logWarning("Formation deadline reached during placement");
+            deadline.degrade(FormationResult.Completion.SUBOPTIMAL);
+        }
+    }
+
+    /**
+     * Phase 1: Shuffles and sorts participants and creates the empty teams
+     */
+    private void prepareTeams() {
         // Phase 1: Shuffle for randomization
-        Collections.shuffle(participants, random);
+        for (int i = order.length; i > 1; i--) {
+            int j = random.nextInt(i);
+            int tmp = order[i - 1];
+            order[i - 1] = order[j];
+            order[j] = tmp;
+        }
         Logger.logInfo("Shuffled participants for fair distribution");
 
-        participants.sort((p1, p2) -> Integer.compare(p2.getSkillLevel(), p1.getSkillLevel()));
+        sortBySkillDescending();
 
         // Initialize teams
-        int numTeams = participants.size() / teamSize;
+        int numTeams = columns.getParticipantCount() / teamSize;
         for (int i = 0; i < numTeams; i++) {
-            teams.add(new Team("TEAM_" + (i + 1), teamSize));
+            columns.addTeam();
+        }
+        if (journal != null) {
+            journal.begin(columns.getParticipantCount(), teamSize, numTeams);
         }
         Logger.logInfo("Created " + numTeams + " teams");
+    }
+
+    /**
+     * Stable sort of the placement order by skill, highest first (counting sort
+     * over the skill range, which is small in practice)
+     */
+    private void sortBySkillDescending() {
+        if (order.length < 2) return;
+
+        int min = Integer.MAX_VALUE;
+        int max = Integer.MIN_VALUE;
+        for (int p : order) {
+            min = Math.min(min, columns.skill(p));
+            max = Math.max(max, columns.skill(p));
+        }
+
+        if ((long) max - min >= MAX_COUNTING_SORT_RANGE) {
+            Integer[] boxed = new Integer[order.length];
+            for (int i = 0; i < order.length; i++) boxed[i] = order[i];
+            Arrays.sort(boxed, (p1, p2) -> Integer.compare(columns.skill(p2), columns.skill(p1)));
+            for (int i = 0; i < order.length; i++) order[i] = boxed[i];
+            return;
+        }
 
+        int[] start = new int[max - min + 2];
+        for (int p : order) {
+            start[max - columns.skill(p) + 1]++;
+        }
+        for (int i = 1; i < start.length; i++) {
+            start[i] += start[i - 1];
+        }
+        int[] sorted = new int[order.length];
+        for (int p : order) {
+            sorted[start[max - columns.skill(p)]++] = p;
+        }
+        order = sorted;
+    }
+
+    /**
+     * Phases 2-6: Places participants into this builder's teams
+     * @return true when complete
+     */
+    private boolean distributeAll() {
         // Phase 2-3: Distribute personality types strategically
+        metrics.startPhase("2 Leaders");
         distributeLeaders();
+        metrics.startPhase("3 Thinkers");
         distributeThinkers();
 
-        // Phase 4-6: Concurrent distribution
-        ExecutorService executor = Executors.newFixedThreadPool(3);
-        List<Future<Boolean>> futures = new ArrayList<>();
-
-        futures.add(executor.submit(() -> distributeByRoleDiversity()));
-        futures.add(executor.submit(() -> distributeBalancedTypes()));
-        futures.add(executor.submit(() -> distributeRemaining()));
+        // Phase 4-6: Score-based distribution
+        metrics.startPhase("4 Role diversity");
+        selectionIndex = new TeamSelectionIndex(columns, placementScorer, PlacementScorer.SCORE_JITTER);
+        distributeByRoleDiversity();
+        metrics.startPhase("5 Balanced");
+        distributeBalancedTypes();
+        metrics.startPhase("6 Remaining");
+        distributeRemaining();
+        placeAfterDeadline();
+        metrics.addScoreEvaluations(selectionIndex.getScoreEvaluations());
+        selectionIndex = null;
+        return true;
+    }
 
-        for (Future<Boolean> future : futures) {
-            future.get();
+    /**
+     * Deals participants to shards in proportion to each shard's team count
+     *
+     * Personality types are dealt separately (Leaders first) and in skill order,
+     * so every shard gets a comparable personality and skill profile. Participants
+     * that do not fit any shard's capacity are left for the repair pass. Shards
+     * wait in a heap ordered by participants dealt per team, so each participant
+     * costs O(log shards).
+     *
+     * @param teamStart Team slice boundaries per shard
+     * @return Participant indices per shard, in dealing order
+     */
+    private int[][] splitParticipants(int[] teamStart) {
+        int shardCount = teamStart.length - 1;
+        int[][] shards = new int[shardCount][];
+        int[] filled = new int[shardCount];
+        for (int k = 0; k < shardCount; k++) {
+            shards[k] = new int[(teamStart[k + 1] - teamStart[k]) * teamSize];
         }
 
-        executor.shutdown();
-        executor.awaitTermination(10, TimeUnit.SECONDS);
+        int[] dealOrder = {LEADER, THINKER, BALANCED};
+        for (int type : dealOrder) {
+            int[] dealt = new int[shardCount];
+            // Lowest dealt-per-team ratio first (dealt[a] / teams(a) < dealt[b] / teams(b)), then lowest index
+            PriorityQueue<Integer> next = new PriorityQueue<>(shardCount, (a, b) -> {
+                int byRatio = Long.compare((long) dealt[a] * (teamStart[b + 1] - teamStart[b]),
+                        (long) dealt[b] * (teamStart[a + 1] - teamStart[a]));
+                return byRatio != 0 ? byRatio : Integer.compare(a, b);
+            });
+            for (int k = 0; k < shardCount; k++) {
+                if (filled[k] < shards[k].length) next.add(k);
+            }
 
-        // Phase 7-8: Optimization
-        balanceTeamSkills();
-        performFinalAdjustments();
+            for (int p : order) {
+                if (next.isEmpty()) break;
+                if (columns.personality(p) != type) continue;
 
-        Logger.logInfo("Team formation complete");
-        return teams;
+                int target = next.poll();
+                shards[target][filled[target]++] = p;
+                dealt[target]++;
+                if (filled[target] < shards[target].length) {
+                    next.add(target);
+                }
+            }
+        }
+
+        for (int k = 0; k < shardCount; k++) {
+            shards[k] = Arrays.copyOf(shards[k], filled[k]);
+        }
+        return shards;
     }
 
     /**
      * Phase 2: Distributes Leaders (1 per team)
      * @return true when complete
      */
-    private synchronized boolean distributeLeaders() {
-        List<Participant> leaders = participants.stream()
-                .filter(p -> p.getPersonalityType() == PersonalityType.LEADER)
-                .sorted((p1, p2) -> Integer.compare(p2.getSkillLevel(), p1.getSkillLevel()))
-                .collect(Collectors.toList());
+    private boolean distributeLeaders() {
+        int teamCount = columns.getTeamCount();
+        int leaders = 0;
+        for (int p : order) {
+            if (columns.personality(p) == LEADER) leaders++;
+        }
 
-        Logger.logInfo("Distributing " + leaders.size() + " leaders across " + teams.size() + " teams");
+        Logger.logInfo("Distributing " + leaders + " leaders across " + teamCount + " teams");
 
-        int startTeam = random.nextInt(Math.max(1, teams.size()));
+        int startTeam = random.nextInt(Math.max(1, teamCount));
         int teamIndex = 0;
 
-        for (Participant leader : leaders) {
-            if (isParticipantAssigned(leader)) continue;
+        for (int leader : order) {
+            if (deadline.isExpired()) break;
+            if (columns.personality(leader) != LEADER || columns.isAssigned(leader)) continue;
 
-            for (int i = 0; i < teams.size(); i++) {
-                int currentIndex = (startTeam + teamIndex + i) % teams.size();
-                Team team = teams.get(currentIndex);
+            for (int i = 0; i < teamCount; i++) {
+                int currentIndex = (startTeam + teamIndex + i) % teamCount;
 
-                if (!team.isFull() && team.getPersonalityCount(PersonalityType.LEADER) < MAX_LEADERS_PER_TEAM) {
-                    team.addMember(leader);
+                if (!columns.isFull(currentIndex)
+                        && columns.personalityCount(currentIndex, LEADER) < MAX_LEADERS_PER_TEAM) {
+                    assign(leader, currentIndex);
                     teamIndex++;
                     break;
                 }
@@ -137,46 +618,48 @@ public class TeamBuilder {
      * Phase 3: Distributes Thinkers (1-2 per team)
      * @return true when complete
      */
-    private synchronized boolean distributeThinkers() {
-        List<Participant> thinkers = participants.stream()
-                .filter(p -> p.getPersonalityType() == PersonalityType.THINKER)
-                .sorted((p1, p2) -> Integer.compare(p2.getSkillLevel(), p1.getSkillLevel()))
-                .collect(Collectors.toList());
+    private boolean distributeThinkers() {
+        int teamCount = columns.getTeamCount();
+        int thinkers = 0;
+        for (int p : order) {
+            if (columns.personality(p) == THINKER) thinkers++;
+        }
 
-        Logger.logInfo("Distributing " + thinkers.size() + " thinkers across " + teams.size() + " teams");
+        Logger.logInfo("Distributing " + thinkers + " thinkers across " + teamCount + " teams");
 
-        int teamIndex = random.nextInt(Math.max(1, teams.size()));
+        int teamIndex = random.nextInt(Math.max(1, teamCount));
 
-        for (Participant thinker : thinkers) {
-            if (isParticipantAssigned(thinker)) continue;
+        for (int thinker : order) {
+            if (deadline.isExpired()) break;
+            if (columns.personality(thinker) != THINKER || columns.isAssigned(thinker)) continue;
 
-            Team bestTeam = null;
-            for (int i = 0; i < teams.size(); i++) {
-                int currentIndex = (teamIndex + i) % teams.size();
-                Team team = teams.get(currentIndex);
+            int bestTeam = -1;
+            for (int i = 0; i < teamCount; i++) {
+                int currentIndex = (teamIndex + i) % teamCount;
 
-                if (!team.isFull() && team.getPersonalityCount(PersonalityType.THINKER) < MIN_THINKERS_PER_TEAM) {
-                    bestTeam = team;
-                    teamIndex = (currentIndex + 1) % teams.size();
+                if (!columns.isFull(currentIndex)
+                        && columns.personalityCount(currentIndex, THINKER) < MIN_THINKERS_PER_TEAM) {
+                    bestTeam = currentIndex;
+                    teamIndex = (currentIndex + 1) % teamCount;
                     break;
                 }
             }
 
-            if (bestTeam == null) {
-                for (int i = 0; i < teams.size(); i++) {
-                    int currentIndex = (teamIndex + i) % teams.size();
-                    Team team = teams.get(currentIndex);
+            if (bestTeam < 0) {
+                for (int i = 0; i < teamCount; i++) {
+                    int currentIndex = (teamIndex + i) % teamCount;
 
-                    if (!team.isFull() && team.getPersonalityCount(PersonalityType.THINKER) < MAX_THINKERS_PER_TEAM) {
-                        bestTeam = team;
-                        teamIndex = (currentIndex + 1) % teams.size();
+                    if (!columns.isFull(currentIndex)
+                            && columns.personalityCount(currentIndex, THINKER) < MAX_THINKERS_PER_TEAM) {
+                        bestTeam = currentIndex;
+                        teamIndex = (currentIndex + 1) % teamCount;
                         break;
                     }
                 }
             }
 
-            if (bestTeam != null) {
-                bestTeam.addMember(thinker);
+            if (bestTeam >= 0) {
+                assign(thinker, bestTeam);
             }
         }
 
@@ -185,20 +668,23 @@ public class TeamBuilder {
     }
 
     /**
-     * Phase 4: Distributes Balanced types
+     * Phase 5: Distributes Balanced types
      * @return true when complete
      */
-    private synchronized boolean distributeBalancedTypes() {
-        List<Participant> balancedParticipants = participants.stream()
-                .filter(p -> p.getPersonalityType() == PersonalityType.BALANCED && !isParticipantAssigned(p))
-                .collect(Collectors.toList());
+    private boolean distributeBalancedTypes() {
+        int balanced = 0;
+        for (int p : order) {
+            if (columns.personality(p) == BALANCED && !columns.isAssigned(p)) balanced++;
+        }
 
-        Logger.logInfo("Distributing " + balancedParticipants.size() + " balanced participants");
+        Logger.logInfo("Distributing " + balanced + " balanced participants");
 
-        for (Participant p : balancedParticipants) {
-            Team bestTeam = findBestTeamForParticipant(p);
-            if (bestTeam != null && !bestTeam.isFull()) {
-                bestTeam.addMember(p);
+        for (int p : order) {
+            if (deadline.isExpired()) break;
+            if (columns.personality(p) != BALANCED || columns.isAssigned(p)) continue;
+            int bestTeam = findBestTeamForParticipant(p);
+            if (bestTeam >= 0) {
+                assign(p, bestTeam);
             }
         }
 
@@ -206,27 +692,18 @@ public class TeamBuilder {
     }
 
     /**
-     * Phase 5: Distributes by role diversity
+     * Phase 4: Distributes by role diversity
      * @return true when complete
      */
-    private synchronized boolean distributeByRoleDiversity() {
-        Map<Role, List<Participant>> roleMap = new HashMap<>();
-
-        for (Role role : Role.values()) {
-            roleMap.put(role, participants.stream()
-                    .filter(p -> p.getPreferredRole() == role && !isParticipantAssigned(p))
-                    .collect(Collectors.toList()));
-        }
-
+    private boolean distributeByRoleDiversity() {
         for (Role role : Role.values()) {
-            List<Participant> roleParticipants = roleMap.get(role);
-
-            for (Participant p : roleParticipants) {
-                if (isParticipantAssigned(p)) continue;
+            for (int p : order) {
+                if (deadline.isExpired()) break;
+                if (columns.role(p) != role.ordinal() || columns.isAssigned(p)) continue;
 
-                Team bestTeam = findBestTeamForParticipant(p);
-                if (bestTeam != null && !bestTeam.isFull()) {
-                    bestTeam.addMember(p);
+                int bestTeam = findBestTeamForParticipant(p);
+                if (bestTeam >= 0) {
+                    assign(p, bestTeam);
                 }
             }
         }
@@ -237,19 +714,22 @@ public class TeamBuilder {
      * Phase 6: Distributes remaining unassigned participants
      * @return true when complete
      */
-    private synchronized boolean distributeRemaining() {
-        List<Participant> unassigned = participants.stream()
-                .filter(p -> !isParticipantAssigned(p))
-                .collect(Collectors.toList());
+    private boolean distributeRemaining() {
+        int unassigned = 0;
+        for (int p : order) {
+            if (!columns.isAssigned(p)) unassigned++;
+        }
 
-        if (!unassigned.isEmpty()) {
-            Logger.logInfo("Distributing " + unassigned.size() + " remaining participants");
+        if (unassigned > 0) {
+            Logger.logInfo("Distributing " + unassigned + " remaining participants");
         }
 
-        for (Participant p : unassigned) {
-            Team bestTeam = findBestTeamForParticipant(p);
-            if (bestTeam != null && !bestTeam.isFull()) {
-                bestTeam.addMember(p);
+        for (int p : order) {
+            if (deadline.isExpired()) break;
+            if (columns.isAssigned(p)) continue;
+            int bestTeam = findBestTeamForParticipant(p);
+            if (bestTeam >= 0) {
+                assign(p, bestTeam);
             }
         }
         return true;
@@ -257,189 +737,45 @@ public class TeamBuilder {
 
     /**
      * Finds best team for participant using scoring algorithm
-     * @param p The participant
-     * @return Best team or null
-     */
-    private Team findBestTeamForParticipant(Participant p) {
-        List<Team> availableTeams = teams.stream()
-                .filter(t -> !t.isFull())
-                .collect(Collectors.toList());
-
-        if (availableTeams.isEmpty()) {
-            return null;
-        }
-
-        double globalAvg = teams.stream()
-                .filter(t -> t.getCurrentSize() > 0)
-                .mapToDouble(Team::getAverageSkill)
-                .average()
-                .orElse(5.0);
-
-        Team bestTeam = null;
-        int bestScore = Integer.MIN_VALUE;
-
-        Collections.shuffle(availableTeams, random);
-
-        for (Team team : availableTeams) {
-            int score = calculateTeamScore(team, p, globalAvg);
-
-            if (score > bestScore || (score == bestScore && random.nextBoolean())) {
-                bestScore = score;
-                bestTeam = team;
-            }
-        }
-
-        return bestTeam;
-    }
-
-    /**
-     * Calculates team score for participant placement
-     * @param team The team
-     * @param p The participant
-     * @param globalAvg Global average skill
-     * @return Score (higher is better)
+     * @param p Participant index
+     * @return Index of the best team, or -1 if every team is full
      */
-    private int calculateTeamScore(Team team, Participant p, double globalAvg) {
-        int score = 100;
-
-        // Game variety
-        if (team.getGameCount(p.getPreferredGame()) >= MAX_SAME_GAME) {
-            score -= 40;
-        }
-
-        // Role diversity
-        if (team.getRoleCount(p.getPreferredRole()) == 0) {
-            score += 25;
-        }
-
-        // Personality mix
-        PersonalityType pType = p.getPersonalityType();
-        int currentCount = team.getPersonalityCount(pType);
-        if (currentCount < team.getCurrentSize() / 3) {
-            score += 15;
-        }
-
-        // Skill balance
-        double teamAvg = team.getAverageSkill();
-        if (teamAvg > 0) {
-            double newAvg = (teamAvg * team.getCurrentSize() + p.getSkillLevel()) / (team.getCurrentSize() + 1);
-
-            double currentDiff = Math.abs(teamAvg - globalAvg);
-            double newDiff = Math.abs(newAvg - globalAvg);
-
-            if (newDiff > currentDiff) {
-                score -= (int)((newDiff - currentDiff) * 10);
-            } else {
-                score += (int)((currentDiff - newDiff) * 5);
-            }
-        }
-
-        // Randomization
-        score += random.nextInt(7) - 3;
-
-        return score;
+    private int findBestTeamForParticipant(int p) {
+        return selectionIndex.findBest(p, random);
     }
 
     /**
-     * Phase 7: Balances team skills through swaps
+     * Phase 7: Balances team skills through repeated best swaps (SkillSwapIndex)
      */
     private void balanceTeamSkills() {
-        double globalAvg = teams.stream()
-                .mapToDouble(Team::getAverageSkill)
-                .average()
-                .orElse(0.0);
-
-        Logger.logInfo("Global average skill: " + String.format("%.2f", globalAvg));
-
-        List<Team> highSkillTeams = teams.stream()
-                .filter(t -> t.getAverageSkill() > globalAvg + 1.0)
-                .collect(Collectors.toList());
-
-        List<Team> lowSkillTeams = teams.stream()
-                .filter(t -> t.getAverageSkill() < globalAvg - 1.0)
-                .collect(Collectors.toList());
-
-        for (Team highTeam : highSkillTeams) {
-            for (Team lowTeam : lowSkillTeams) {
-                if (swapMembersForBalance(highTeam, lowTeam, globalAvg)) {
-                    Logger.logInfo("Swapped members between " + highTeam.getTeamId() +
-                            " and " + lowTeam.getTeamId() + " for skill balance");
-                }
-            }
+        int teamCount = columns.getTeamCount();
+        double averageSum = 0;
+        for (int t = 0; t < teamCount; t++) {
+            averageSum += columns.average(t);
         }
-    }
+        double globalAvg = teamCount == 0 ? 0.0 : averageSum / teamCount;
 
-    /**
-     * Attempts to swap members for better balance
-     * @param team1 First team
-     * @param team2 Second team
-     * @param globalAvg Global average
-     * @return true if swap made
-     */
-    private boolean swapMembersForBalance(Team team1, Team team2, double globalAvg) {
-        List<Participant> team1Members = team1.getMembers();
-        List<Participant> team2Members = team2.getMembers();
-
-        for (Participant p1 : team1Members) {
-            for (Participant p2 : team2Members) {
-                if (p1.getPersonalityType() == PersonalityType.LEADER ||
-                        p2.getPersonalityType() == PersonalityType.LEADER) {
-                    continue;
-                }
-
-                if (wouldSwapImproveBalance(team1, team2, p1, p2, globalAvg)) {
-                    team1.removeMember(p1);
-                    team2.removeMember(p2);
-                    team1.addMember(p2);
-                    team2.addMember(p1);
-                    return true;
-                }
-            }
-        }
-        return false;
-    }
-
-    /**
-     * Checks if swap would improve balance
-     * @param team1 First team
-     * @param team2 Second team
-     * @param p1 Participant from team1
-     * @param p2 Participant from team2
-     * @param globalAvg Global average
-     * @return true if swap improves balance
-     */
-    private boolean wouldSwapImproveBalance(Team team1, Team team2, Participant p1, Participant p2, double globalAvg) {
-        double currentDev1 = Math.abs(team1.getAverageSkill() - globalAvg);
-        double currentDev2 = Math.abs(team2.getAverageSkill() - globalAvg);
-        double currentTotalDev = currentDev1 + currentDev2;
-
-        double team1NewAvg = (team1.getAverageSkill() * team1.getCurrentSize() -
-                p1.getSkillLevel() + p2.getSkillLevel()) / team1.getCurrentSize();
-        double team2NewAvg = (team2.getAverageSkill() * team2.getCurrentSize() -
-                p2.getSkillLevel() + p1.getSkillLevel()) / team2.getCurrentSize();
-
-        double newDev1 = Math.abs(team1NewAvg - globalAvg);
-        double newDev2 = Math.abs(team2NewAvg - globalAvg);
-        double newTotalDev = newDev1 + newDev2;
+        Logger.logInfo("Global average skill: " + String.format("%.2f", globalAvg));
 
-        return newTotalDev < currentTotalDev;
+        SkillSwapIndex swapIndex = new SkillSwapIndex(columns);
+        int swaps = swapIndex.balance(globalAvg, MAX_BALANCE_SWAPS_PER_TEAM * Math.max(1, teamCount));
+        metrics.addSwaps(swapIndex.getSwapSearches(), swaps);
+        Logger.logInfo("Made " + swaps + " skill-balancing swaps");
     }
 
     /**
      * Phase 8: Final role diversity adjustments
      */
     private void performFinalAdjustments() {
-        for (Team team : teams) {
-            Set<Role> roles = new HashSet<>();
-            for (Participant p : team.getMembers()) {
-                roles.add(p.getPreferredRole());
-            }
-
-            if (roles.size() < MIN_ROLE_DIVERSITY && teams.size() > 1) {
-                for (Team otherTeam : teams) {
-                    if (otherTeam == team) continue;
-                    if (swapForRoleDiversity(team, otherTeam)) {
-                        Logger.logInfo("Improved role diversity for " + team.getTeamId());
+        int teamCount = columns.getTeamCount();
+        for (int teamIndex = 0; teamIndex < teamCount; teamIndex++) {
+            if (columns.distinctRoles(teamIndex) < MIN_ROLE_DIVERSITY && teamCount > 1) {
+                for (int otherIndex = 0; otherIndex < teamCount; otherIndex++) {
+                    if (otherIndex == teamIndex) continue;
+                    boolean swapped = swapForRoleDiversity(teamIndex, otherIndex);
+                    metrics.addSwaps(1, swapped ? 1 : 0);
+                    if (swapped) {
+                        Logger.logInfo("Improved role diversity for " + FormationColumns.teamId(teamIndex));
                         break;
                     }
                 }
@@ -449,24 +785,19 @@ public class TeamBuilder {
 
     /**
      * Swaps members to improve role diversity
-     * @param team1 Team needing diversity
-     * @param team2 Team to swap with
+     * @param teamIndex1 Index of the team needing diversity
+     * @param teamIndex2 Index of the team to swap with
      * @return true if swap made
      */
-    private boolean swapForRoleDiversity(Team team1, Team team2) {
-        Set<Role> team1Roles = team1.getMembers().stream()
-                .map(Participant::getPreferredRole)
-                .collect(Collectors.toSet());
-
-        for (Participant p2 : team2.getMembers()) {
-            if (!team1Roles.contains(p2.getPreferredRole())) {
-                for (Participant p1 : team1.getMembers()) {
-                    if (p1.getPersonalityType() != PersonalityType.LEADER &&
-                            p2.getPersonalityType() != PersonalityType.LEADER) {
-                        team1.removeMember(p1);
-                        team2.removeMember(p2);
-                        team1.addMember(p2);
-                        team2.addMember(p1);
+    private boolean swapForRoleDiversity(int teamIndex1, int teamIndex2) {
+        for (int j = 0; j < columns.size(teamIndex2); j++) {
+            int p2 = columns.member(teamIndex2, j);
+            int role = columns.role(p2);
+            if (role >= 0 && columns.roleCount(teamIndex1, role) == 0) {
+                for (int i = 0; i < columns.size(teamIndex1); i++) {
+                    int p1 = columns.member(teamIndex1, i);
+                    if (columns.personality(p1) != LEADER && columns.personality(p2) != LEADER) {
+                        columns.swap(p1, p2);
                         return true;
                     }
                 }
@@ -476,16 +807,18 @@ public class TeamBuilder {
     }
 
     /**
-     * Checks if participant is already assigned
-     * @param p The participant
-     * @return true if assigned
+     * Places a participant into a team and keeps the selection index in step
+     * @param p Participant index
+     * @param teamIndex Index of the target team
+     * @return true if the team accepted the participant
      */
-    private boolean isParticipantAssigned(Participant p) {
-        for (Team team : teams) {
-            if (team.getMembers().contains(p)) {
-                return true;
-            }
+    private boolean assign(int p, int teamIndex) {
+        if (!columns.add(p, teamIndex)) {
+            return false;
         }
-        return false;
+        if (selectionIndex != null) {
+            selectionIndex.update(teamIndex);
+        }
+        return true;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,102 @@
+package com.teammate.service;
+
+import com.teammate.model.*;
+import java.util.*;
+
+/**
+ * TeamFormationStrategy - Pluggable team formation algorithm
+ *
+ * Implementations only need to form teams; form() wraps every strategy with the
+ * same timing and quality measurement so strategies can be compared directly,
+ * and attaches a FormationMetrics to every result. By default the whole run is
+ * one phase named after the strategy; strategies with distinct stages override
+ * the FormationMetrics overload of formTeams() to record them.
+ * Strategies that can stop early override the FormationDeadline overload of
+ * formTeams(); the others run to completion.
+ * Strategies are looked up through a StrategyRegistry.
+ *
+ * @author Krisanthi Segar 2425596
+ * @version 1.0
+ * @since 2025
+ */
+public interface TeamFormationStrategy {
+
+    /**
+     * Unique name used for registry lookups
+     * @return Strategy name
+     */
+    String getName();
+
+    /**
+     * Forms teams from the participants
+     * @param participants Participants to place
+     * @param teamSize Desired team size
+     * @return Formed teams
+     * @throws Exception if formation fails or is interrupted
+     */
+    List<Team> formTeams(List<Participant> participants, int teamSize) throws Exception;
+
+    /**
+     * Forms teams, stopping early with the best assignment so far once the
+     * deadline expires
+     * @param participants Participants to place
+     * @param teamSize Desired team size
+     * @param deadline Time limit and cancellation; records how complete the teams are
+     * @return Formed teams
+     * @throws Exception if formation fails
+     */
+    default List<Team> formTeams(List<Participant> participants, int teamSize, FormationDeadline deadline)
+            throws Exception {
+        return formTeams(participants, teamSize);
+    }
+
+    /**
+     * Forms teams, recording phases and counters into metrics
+     * @param participants Participants to place
+     * @param teamSize Desired team size
+     * @param deadline Time limit and cancellation; records how complete the teams are
+     * @param metrics Metrics of this run
+     * @return Formed teams
+     * @throws Exception if formation fails
+     */
+    default List<Team> formTeams(List<Participant> participants, int teamSize, FormationDeadline deadline,
+                                 FormationMetrics metrics) throws Exception {
+        metrics.startPhase(getName());
+        return formTeams(participants, teamSize, deadline);
+    }
+
+    /**
+     * Forms teams and measures the run
+     * @param participants Participants to place
+     * @param teamSize Desired team size
+     * @return Teams with timing and quality metrics
+     * @throws Exception if formation fails or is interrupted
+     */
+    default FormationResult form(List<Participant> participants, int teamSize) throws Exception {
+        return form(participants, teamSize, FormationDeadline.none());
+    }
+
+    /**
+     * Forms teams within a deadline and measures the run
+     * @param participants Participants to place
+     * @param teamSize Desired team size
+     * @param deadline Time limit and cancellation
+     * @return Teams with timing and quality metrics, flagged if the run stopped early
+     * @throws Exception if formation fails
+     */
+    default FormationResult form(List<Participant> participants, int teamSize, FormationDeadline deadline)
+            throws Exception {
+        FormationMetrics metrics = new FormationMetrics(participants.size(),
+                teamSize > 0 ? participants.size() / teamSize : 0);
+        long start = System.nanoTime();
+        List<Team> teams = formTeams(participants, teamSize, deadline, metrics);
+        metrics.endPhase();
+        long elapsed = System.nanoTime() - start;
+        FormationResult result = new FormationResult(getName(), teams, participants.size(), teamSize, elapsed,
+                deadline.getCompletion(), metrics);
+        if (Double.isNaN(metrics.getObjectiveAfter())) {
+            metrics.setObjectives(metrics.getObjectiveBefore(), result.getObjective());
+        }
+        return result;
+    }
+}
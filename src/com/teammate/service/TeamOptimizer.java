@@ -0,0 +1,543 @@
+package com.teammate.service;
+
+import com.teammate.model.*;
+import java.util.*;
+
+/**
+ * TeamOptimizer - Anytime local-search refinement of formed teams
+ *
+ * Runs simulated annealing over member swaps between teams (Leaders only move
+ * when enabled with setMoveLeaders) against a single objective:
+ *
+ *   HARD_WEIGHT * (game-cap excess + role-diversity shortfall + personality-quota violations)
+ *   + variance of team average skill
+ *
+ * HARD_WEIGHT exceeds the largest possible skill variance, so the best solution
+ * never trades a hard-rule violation for skill balance. Each candidate swap is
+ * evaluated in O(team size) from per-team counters; the search stops when the
+ * iteration or time budget runs out and the best solution seen is written back.
+ *
+ * The search works on FormationColumns; the List&lt;Team&gt; overloads convert the
+ * teams once and move the changed members of the Team objects at the end.
+ *
+ * @author Krisanthi Segar 2425596
+ * @version 1.0
+ * @since 2025
+ */
+public class TeamOptimizer {
+
+    public static final double HARD_WEIGHT = 25.0;
+
+    private static final double START_TEMPERATURE = 1.0;
+    private static final double END_TEMPERATURE = 0.001;
+    private static final int TIME_CHECK_INTERVAL = 1024;
+    private static final int MAX_PICK_ATTEMPTS = 8;
+
+    private static final int ROLE_COUNT = Role.values().length;
+    private static final int TYPE_COUNT = PersonalityType.values().length;
+    private static final int LEADER = PersonalityType.LEADER.ordinal();
+    private static final int THINKER = PersonalityType.THINKER.ordinal();
+
+    private final long maxIterations;
+    private final long timeBudgetMillis;
+    private final Random random;
+    private boolean moveLeaders;
+    private FormationDeadline stopAt = FormationDeadline.none();
+
+    // Participant columns, indexed like the FormationColumns being optimized
+    private int participantCount;
+    private int[] skill;
+    private int[] role;
+    private int[] type;
+    private int[] game;
+
+    // Team state
+    private int teamCount;
+    private int capacity;
+    private int[] slots;          // teamCount * capacity participant indices
+    private int[] size;
+    private int[] skillSum;
+    private int[] roleCounts;     // teamCount * ROLE_COUNT
+    private int[] distinctRoles;
+    private int[] typeCounts;     // teamCount * TYPE_COUNT
+    private int[] gameIds;        // teamCount * capacity distinct games per team
+    private int[] gameCounts;
+    private int[] gameLength;
+
+    private int nonEmptyTeams;
+    private double averageSum;
+    private double averageSquareSum;
+    private int hardViolations;
+
+    // Candidate swaps evaluated and accepted by the last optimize call
+    private long swapsAttempted;
+    private long swapsAccepted;
+
+    // Moves since the best state, as (teamA, slotA, teamB, slotB)
+    private int[] undoLog = new int[64];
+    private int undoLength;
+
+    /**
+     * Creates an optimizer with an iteration and a wall-clock budget
+     * @param maxIterations Maximum candidate swaps to evaluate
+     * @param timeBudgetMillis Maximum run time in milliseconds (0 for no limit)
+     * @param random Random source
+     */
+    public TeamOptimizer(long maxIterations, long timeBudgetMillis, Random random) {
+        this.maxIterations = maxIterations;
+        this.timeBudgetMillis = timeBudgetMillis;
+        this.random = random;
+    }
+
+    /**
+     * Allows Leaders to be swapped too, so the search can repair Leader quotas
+     * @param moveLeaders true to include Leaders in candidate swaps
+     */
+    public void setMoveLeaders(boolean moveLeaders) {
+        this.moveLeaders = moveLeaders;
+    }
+
+    /**
+     * Stops the search early, keeping the best state, once a deadline expires
+     * @param deadline Formation deadline
+     */
+    public void setDeadline(FormationDeadline deadline) {
+        this.stopAt = deadline;
+    }
+
+    /**
+     * Candidate swaps evaluated by the last optimize call
+     * @return Swaps attempted
+     */
+    public long getSwapsAttempted() {
+        return swapsAttempted;
+    }
+
+    /**
+     * Swaps the last optimize call accepted, including ones later rolled back
+     * @return Swaps accepted
+     */
+    public long getSwapsAccepted() {
+        return swapsAccepted;
+    }
+
+    /**
+     * Evaluates the objective for a set of teams without changing them
+     * @param teams The teams
+     * @return Objective value (lower is better)
+     */
+    public static double evaluate(List<Team> teams) {
+        return evaluate(FormationColumns.fromTeams(teams));
+    }
+
+    /**
+     * Evaluates the objective for teams held in columns without changing them
+     * @param columns The teams
+     * @return Objective value (lower is better)
+     */
+    public static double evaluate(FormationColumns columns) {
+        TeamOptimizer optimizer = new TeamOptimizer(0, 0, new Random(0));
+        optimizer.load(columns);
+        return optimizer.objective();
+    }
+
+    /**
+     * Improves the teams in place, keeping the best solution found within budget
+     * @param teams The teams to refine
+     * @return Objective value of the returned solution
+     */
+    public double optimize(List<Team> teams) {
+        FormationColumns columns = FormationColumns.fromTeams(teams);
+        double objective = optimize(columns);
+        writeBack(columns, teams);
+        return objective;
+    }
+
+    /**
+     * Improves teams held in columns, keeping the best solution found within budget
+     *
+     * Members whose team changed are removed in team and member order, then added
+     * to their new teams; an attached journal records those removes and adds.
+     *
+     * @param columns The teams to refine
+     * @return Objective value of the returned solution
+     */
+    public double optimize(FormationColumns columns) {
+        load(columns);
+        swapsAttempted = 0;
+        swapsAccepted = 0;
+        if (teamCount < 2) {
+            return objective();
+        }
+
+        double current = objective();
+        double best = current;
+        long deadline = timeBudgetMillis > 0 ? System.currentTimeMillis() + timeBudgetMillis : Long.MAX_VALUE;
+        int logLimit = Math.max(10_000, 4 * participantCount);
+        double temperature = START_TEMPERATURE;
+        double cooling = Math.pow(END_TEMPERATURE / START_TEMPERATURE, 1.0 / Math.max(1, maxIterations));
+
+        for (long iteration = 0; iteration < maxIterations; iteration++) {
+            if (iteration % TIME_CHECK_INTERVAL == 0 && (System.currentTimeMillis() >= deadline || stopAt.isExpired())) {
+                break;
+            }
+            temperature *= cooling;
+
+            int teamA = random.nextInt(teamCount);
+            int teamB = random.nextInt(teamCount - 1);
+            if (teamB >= teamA) teamB++;
+            int slotA = pickMovable(teamA);
+            int slotB = pickMovable(teamB);
+            if (slotA < 0 || slotB < 0) continue;
+
+            double delta = swapDelta(teamA, slotA, teamB, slotB);
+            swapsAttempted++;
+            if (delta <= 0 || random.nextDouble() < Math.exp(-delta / temperature)) {
+                applySwap(teamA, slotA, teamB, slotB);
+                swapsAccepted++;
+                current += delta;
+                logMove(teamA, slotA, teamB, slotB);
+
+                if (current < best - 1e-9) {
+                    best = current;
+                    undoLength = 0;
+                } else if (undoLength >= logLimit) {
+                    // Wandered too far without improving: restart from the best state
+                    rollbackToBest();
+                    current = best;
+                }
+            }
+        }
+
+        rollbackToBest();
+        writeBack(columns);
+        return objective();
+    }
+
+    /**
+     * Copies the columns into search state with per-team counters
+     */
+    private void load(FormationColumns columns) {
+        teamCount = columns.getTeamCount();
+        participantCount = columns.getParticipantCount();
+        capacity = columns.getTeamSize();
+        for (int t = 0; t < teamCount; t++) {
+            capacity = Math.max(capacity, columns.size(t));
+        }
+
+        skill = new int[participantCount];
+        role = new int[participantCount];
+        type = new int[participantCount];
+        game = new int[participantCount];
+        for (int p = 0; p < participantCount; p++) {
+            skill[p] = columns.skill(p);
+            role[p] = columns.role(p);
+            type[p] = columns.personality(p);
+            game[p] = columns.game(p);
+        }
+
+        slots = new int[teamCount * capacity];
+        size = new int[teamCount];
+        skillSum = new int[teamCount];
+        roleCounts = new int[teamCount * ROLE_COUNT];
+        distinctRoles = new int[teamCount];
+        typeCounts = new int[teamCount * TYPE_COUNT];
+        gameIds = new int[teamCount * capacity];
+        gameCounts = new int[teamCount * capacity];
+        gameLength = new int[teamCount];
+
+        for (int t = 0; t < teamCount; t++) {
+            for (int k = 0; k < columns.size(t); k++) {
+                int p = columns.member(t, k);
+                slots[t * capacity + size[t]] = p;
+                size[t]++;
+                addToTeam(t, p);
+            }
+        }
+
+        nonEmptyTeams = 0;
+        averageSum = 0;
+        averageSquareSum = 0;
+        hardViolations = 0;
+        for (int t = 0; t < teamCount; t++) {
+            if (size[t] > 0) {
+                double avg = (double) skillSum[t] / size[t];
+                nonEmptyTeams++;
+                averageSum += avg;
+                averageSquareSum += avg * avg;
+            }
+            hardViolations += gameExcess(t) + roleShortfall(t) + personalityViolation(t);
+        }
+        undoLength = 0;
+    }
+
+    private void addToTeam(int t, int p) {
+        skillSum[t] += skill[p];
+        if (role[p] >= 0 && roleCounts[t * ROLE_COUNT + role[p]]++ == 0) {
+            distinctRoles[t]++;
+        }
+        if (type[p] >= 0) {
+            typeCounts[t * TYPE_COUNT + type[p]]++;
+        }
+        adjustGame(t, game[p], 1);
+    }
+
+    private void removeFromTeam(int t, int p) {
+        skillSum[t] -= skill[p];
+        if (role[p] >= 0 && --roleCounts[t * ROLE_COUNT + role[p]] == 0) {
+            distinctRoles[t]--;
+        }
+        if (type[p] >= 0) {
+            typeCounts[t * TYPE_COUNT + type[p]]--;
+        }
+        adjustGame(t, game[p], -1);
+    }
+
+    private void adjustGame(int t, int gameId, int delta) {
+        int base = t * capacity;
+        int length = gameLength[t];
+        for (int i = 0; i < length; i++) {
+            if (gameIds[base + i] == gameId) {
+                gameCounts[base + i] += delta;
+                if (gameCounts[base + i] == 0) {
+                    gameIds[base + i] = gameIds[base + length - 1];
+                    gameCounts[base + i] = gameCounts[base + length - 1];
+                    gameLength[t]--;
+                }
+                return;
+            }
+        }
+        gameIds[base + length] = gameId;
+        gameCounts[base + length] = delta;
+        gameLength[t]++;
+    }
+
+    private int gameCount(int t, int gameId) {
+        int base = t * capacity;
+        for (int i = 0; i < gameLength[t]; i++) {
+            if (gameIds[base + i] == gameId) return gameCounts[base + i];
+        }
+        return 0;
+    }
+
+    private int gameExcess(int t) {
+        int excess = 0;
+        int base = t * capacity;
+        for (int i = 0; i < gameLength[t]; i++) {
+            excess += Math.max(0, gameCounts[base + i] - TeamBuilder.MAX_SAME_GAME);
+        }
+        return excess;
+    }
+
+    private int roleShortfall(int t) {
+        return Math.max(0, Math.min(TeamBuilder.MIN_ROLE_DIVERSITY, size[t]) - distinctRoles[t]);
+    }
+
+    private int personalityViolation(int t) {
+        if (size[t] == 0) return 0;
+        return thinkerViolation(typeCounts[t * TYPE_COUNT + THINKER], size[t])
+                + leaderViolation(typeCounts[t * TYPE_COUNT + LEADER], size[t]);
+    }
+
+    private static int leaderViolation(int leaders, int teamSize) {
+        if (teamSize == 0) return 0;
+        return Math.abs(leaders - TeamBuilder.MAX_LEADERS_PER_TEAM);
+    }
+
+    private static int thinkerViolation(int thinkers, int teamSize) {
+        if (teamSize < 2) return 0;
+        if (thinkers < TeamBuilder.MIN_THINKERS_PER_TEAM) return TeamBuilder.MIN_THINKERS_PER_TEAM - thinkers;
+        return Math.max(0, thinkers - TeamBuilder.MAX_THINKERS_PER_TEAM);
+    }
+
+    private double objective() {
+        return HARD_WEIGHT * hardViolations + variance(averageSum, averageSquareSum);
+    }
+
+    private double variance(double sum, double squareSum) {
+        if (nonEmptyTeams == 0) return 0.0;
+        double mean = sum / nonEmptyTeams;
+        return Math.max(0.0, squareSum / nonEmptyTeams - mean * mean);
+    }
+
+    /**
+     * Picks a random non-Leader slot in a team
+     * @return Slot index, or -1 if none found
+     */
+    private int pickMovable(int t) {
+        if (size[t] == 0) return -1;
+        for (int attempt = 0; attempt < MAX_PICK_ATTEMPTS; attempt++) {
+            int slot = random.nextInt(size[t]);
+            if (moveLeaders || type[slots[t * capacity + slot]] != LEADER) return slot;
+        }
+        return -1;
+    }
+
+    /**
+     * Objective change if the two slotted participants swapped teams
+     */
+    private double swapDelta(int a, int slotA, int b, int slotB) {
+        int p = slots[a * capacity + slotA];
+        int q = slots[b * capacity + slotB];
+
+        // Skill variance
+        double oldAvgA = (double) skillSum[a] / size[a];
+        double oldAvgB = (double) skillSum[b] / size[b];
+        double newAvgA = (double) (skillSum[a] - skill[p] + skill[q]) / size[a];
+        double newAvgB = (double) (skillSum[b] - skill[q] + skill[p]) / size[b];
+        double sum = averageSum - oldAvgA - oldAvgB + newAvgA + newAvgB;
+        double squareSum = averageSquareSum - oldAvgA * oldAvgA - oldAvgB * oldAvgB
+                + newAvgA * newAvgA + newAvgB * newAvgB;
+        double delta = variance(sum, squareSum) - variance(averageSum, averageSquareSum);
+
+        int hard = 0;
+
+        // Role diversity
+        if (role[p] != role[q]) {
+            hard += roleShortfallAfter(a, role[p], role[q]) - roleShortfall(a);
+            hard += roleShortfallAfter(b, role[q], role[p]) - roleShortfall(b);
+        }
+
+        // Game cap
+        if (game[p] != game[q]) {
+            hard += gameExcessChange(a, game[p], game[q]);
+            hard += gameExcessChange(b, game[q], game[p]);
+        }
+
+        // Personality quotas
+        if (type[p] != type[q]) {
+            int thinkerShift = (type[q] == THINKER ? 1 : 0) - (type[p] == THINKER ? 1 : 0);
+            if (thinkerShift != 0) {
+                int thinkersA = typeCounts[a * TYPE_COUNT + THINKER];
+                int thinkersB = typeCounts[b * TYPE_COUNT + THINKER];
+                hard += thinkerViolation(thinkersA + thinkerShift, size[a]) - thinkerViolation(thinkersA, size[a]);
+                hard += thinkerViolation(thinkersB - thinkerShift, size[b]) - thinkerViolation(thinkersB, size[b]);
+            }
+            int leaderShift = (type[q] == LEADER ? 1 : 0) - (type[p] == LEADER ? 1 : 0);
+            if (leaderShift != 0) {
+                int leadersA = typeCounts[a * TYPE_COUNT + LEADER];
+                int leadersB = typeCounts[b * TYPE_COUNT + LEADER];
+                hard += leaderViolation(leadersA + leaderShift, size[a]) - leaderViolation(leadersA, size[a]);
+                hard += leaderViolation(leadersB - leaderShift, size[b]) - leaderViolation(leadersB, size[b]);
+            }
+        }
+
+        return delta + HARD_WEIGHT * hard;
+    }
+
+    private int roleShortfallAfter(int t, int leaving, int joining) {
+        int distinct = distinctRoles[t];
+        if (leaving >= 0 && roleCounts[t * ROLE_COUNT + leaving] == 1) distinct--;
+        if (joining >= 0 && roleCounts[t * ROLE_COUNT + joining] == 0) distinct++;
+        return Math.max(0, Math.min(TeamBuilder.MIN_ROLE_DIVERSITY, size[t]) - distinct);
+    }
+
+    private int gameExcessChange(int t, int leaving, int joining) {
+        int change = 0;
+        if (gameCount(t, leaving) > TeamBuilder.MAX_SAME_GAME) change--;
+        if (gameCount(t, joining) >= TeamBuilder.MAX_SAME_GAME) change++;
+        return change;
+    }
+
+    private void applySwap(int a, int slotA, int b, int slotB) {
+        int p = slots[a * capacity + slotA];
+        int q = slots[b * capacity + slotB];
+
+        averageSum -= (double) skillSum[a] / size[a] + (double) skillSum[b] / size[b];
+        averageSquareSum -= sq((double) skillSum[a] / size[a]) + sq((double) skillSum[b] / size[b]);
+        hardViolations -= gameExcess(a) + roleShortfall(a) + personalityViolation(a)
+                + gameExcess(b) + roleShortfall(b) + personalityViolation(b);
+
+        removeFromTeam(a, p);
+        removeFromTeam(b, q);
+        addToTeam(a, q);
+        addToTeam(b, p);
+        slots[a * capacity + slotA] = q;
+        slots[b * capacity + slotB] = p;
+
+        averageSum += (double) skillSum[a] / size[a] + (double) skillSum[b] / size[b];
+        averageSquareSum += sq((double) skillSum[a] / size[a]) + sq((double) skillSum[b] / size[b]);
+        hardViolations += gameExcess(a) + roleShortfall(a) + personalityViolation(a)
+                + gameExcess(b) + roleShortfall(b) + personalityViolation(b);
+    }
+
+    private static double sq(double x) {
+        return x * x;
+    }
+
+    private void logMove(int a, int slotA, int b, int slotB) {
+        if (undoLength + 4 > undoLog.length) {
+            undoLog = Arrays.copyOf(undoLog, undoLog.length * 2);
+        }
+        undoLog[undoLength++] = a;
+        undoLog[undoLength++] = slotA;
+        undoLog[undoLength++] = b;
+        undoLog[undoLength++] = slotB;
+    }
+
+    private void rollbackToBest() {
+        while (undoLength > 0) {
+            int slotB = undoLog[--undoLength];
+            int b = undoLog[--undoLength];
+            int slotA = undoLog[--undoLength];
+            int a = undoLog[--undoLength];
+            applySwap(a, slotA, b, slotB);
+        }
+    }
+
+    /**
+     * Moves every participant whose team changed into its new team
+     */
+    private void writeBack(FormationColumns columns) {
+        int[] target = new int[participantCount];
+        for (int t = 0; t < teamCount; t++) {
+            for (int k = 0; k < size[t]; k++) {
+                target[slots[t * capacity + k]] = t;
+            }
+        }
+
+        int[] moved = new int[participantCount];
+        int movedCount = 0;
+        for (int t = 0; t < teamCount; t++) {
+            for (int k = 0; k < columns.size(t); ) {
+                int p = columns.member(t, k);
+                if (target[p] != t) {
+                    columns.remove(p);
+                    moved[movedCount++] = p;
+                } else {
+                    k++;
+                }
+            }
+        }
+        for (int i = 0; i < movedCount; i++) {
+            columns.add(moved[i], target[moved[i]]);
+        }
+    }
+
+    /**
+     * Applies the columns' final membership to the Team objects they came from
+     * (fromTeams numbers participants in team and member order)
+     */
+    private static void writeBack(FormationColumns columns, List<Team> teams) {
+        List<Participant> moved = new ArrayList<>();
+        List<Integer> targets = new ArrayList<>();
+        int index = 0;
+        for (int t = 0; t < teams.size(); t++) {
+            Team team = teams.get(t);
+            for (int k = 0; k < team.getCurrentSize(); ) {
+                int target = columns.teamOf(index++);
+                if (target != t) {
+                    Participant p = team.getMember(k);
+                    team.removeMember(p);
+                    moved.add(p);
+                    targets.add(target);
+                } else {
+                    k++;
+                }
+            }
+        }
+        for (int i = 0; i < moved.size(); i++) {
+            teams.get(targets.get(i)).addMember(moved.get(i));
+        }
+    }
+}
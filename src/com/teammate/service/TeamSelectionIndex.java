@@ -0,0 +1,443 @@
+package com.teammate.service;
+
+import com.teammate.model.*;
+import java.util.*;
+
+/**
+ * TeamSelectionIndex - Indexed open teams for fast placement
+ *
+ * Open (non-full) teams are grouped into classes by current size, which roles
+ * are present and which personality types are still under their one-third
+ * quota. Within a class the placement score depends only on the team's skill
+ * sum, so each class keeps its teams in a TreeMap of buckets keyed by skill
+ * sum; teams in one bucket share the same deterministic score.
+ *
+ * The skill term only rewards moving a team's average towards the global
+ * average, so within a class the score never peaks between two skill sums:
+ * the best remaining bucket is always the lowest or the highest one. A query
+ * scores the two ends of every class and then walks inwards from whichever
+ * end scores higher, so it costs O(C) for C active classes plus O(log T) per
+ * bucket it visits, and C is bounded by the team size, not the team count.
+ * Keying by skill sum rather than by distance from the global average keeps
+ * the buckets valid as that average moves.
+ *
+ * Also keeps the global average skill (mean of non-empty team averages) up to
+ * date, so callers never need to recompute it over all teams.
+ *
+ * Teams and participants are read from FormationColumns and addressed by index.
+ *
+ * @author Krisanthi Segar 2425596
+ * @version 1.0
+ * @since 2025
+ */
+public class TeamSelectionIndex {
+
+    /**
+     * Scoring callbacks used by the index
+     */
+    public interface Scorer {
+        /**
+         * Score shared by every team in the same bucket (no per-team penalties, no jitter)
+         *
+         * Among teams of the same size, role set and quota mask it may only
+         * depend on the skill sum, and a skill sum between two others must
+         * never score higher than both of them.
+         *
+         * @param columns Team and participant columns
+         * @param team Representative team of the bucket
+         * @param p The participant being placed
+         * @param globalAvg Current global average skill
+         * @return Bucket score
+         */
+        int bucketScore(FormationColumns columns, int team, int p, double globalAvg);
+
+        /**
+         * Full score of one team, at most bucketScore + maxJitter
+         * @param columns Team and participant columns
+         * @param team The team
+         * @param p The participant being placed
+         * @param bucketScore Score of the team's bucket
+         * @return Team score
+         */
+        int teamScore(FormationColumns columns, int team, int p, int bucketScore);
+    }
+
+    private static final double DEFAULT_GLOBAL_AVG = 5.0;
+    // Teams drawn at random from a level before scoring the rest in order
+    private static final int RANDOM_PICKS = 32;
+    private static final int ROLE_COUNT = Role.values().length;
+    private static final int TYPE_COUNT = PersonalityType.values().length;
+
+    private final FormationColumns columns;
+    private final Scorer scorer;
+    private final int maxJitter;
+
+    private final Map<Integer, TeamClass> classes = new HashMap<>();
+    private final List<TeamClass> active = new ArrayList<>();
+    private Bucket[] bucketOf;
+    private int[] positionInBucket;
+    private double[] teamAverage;
+    private boolean[] nonEmpty;
+
+    private double averageSum;
+    private int nonEmptyTeams;
+    private int openTeams;
+    private long scoreEvaluations;
+
+    // Scratch space reused across queries: buckets of the current level
+    private Bucket[] scratchLevel = new Bucket[16];
+    private int[] scratchTaken = new int[16];
+
+    /**
+     * Builds the index over the current state of all teams
+     * @param columns Team and participant columns
+     * @param scorer Scoring callbacks
+     * @param maxJitter Largest random bonus teamScore may add on top of the bucket score
+     */
+    public TeamSelectionIndex(FormationColumns columns, Scorer scorer, int maxJitter) {
+        int teamCount = columns.getTeamCount();
+        this.columns = columns;
+        this.scorer = scorer;
+        this.maxJitter = maxJitter;
+        this.bucketOf = new Bucket[teamCount];
+        this.positionInBucket = new int[teamCount];
+        this.teamAverage = new double[teamCount];
+        this.nonEmpty = new boolean[teamCount];
+
+        for (int i = 0; i < teamCount; i++) {
+            update(i);
+        }
+    }
+
+    /**
+     * Re-indexes a team after its membership changed, or indexes a newly added team
+     * @param teamIndex Index of the team
+     */
+    public void update(int teamIndex) {
+        if (teamIndex >= bucketOf.length) {
+            int capacity = Math.max(teamIndex + 1, bucketOf.length * 2);
+            bucketOf = Arrays.copyOf(bucketOf, capacity);
+            positionInBucket = Arrays.copyOf(positionInBucket, capacity);
+            teamAverage = Arrays.copyOf(teamAverage, capacity);
+            nonEmpty = Arrays.copyOf(nonEmpty, capacity);
+        }
+
+        if (nonEmpty[teamIndex]) {
+            averageSum -= teamAverage[teamIndex];
+            nonEmptyTeams--;
+        }
+        nonEmpty[teamIndex] = columns.size(teamIndex) > 0;
+        teamAverage[teamIndex] = columns.average(teamIndex);
+        if (nonEmpty[teamIndex]) {
+            averageSum += teamAverage[teamIndex];
+            nonEmptyTeams++;
+        }
+
+        Bucket current = bucketOf[teamIndex];
+        Bucket target = columns.isFull(teamIndex) ? null : bucketFor(teamIndex);
+        if (current == target) {
+            return;
+        }
+        if (current != null) {
+            current.remove(teamIndex);
+            openTeams--;
+            if (current.size == 0) {
+                current.owner.discard(current);
+            }
+        }
+        if (target != null) {
+            target.add(teamIndex);
+            openTeams++;
+        }
+        bucketOf[teamIndex] = target;
+    }
+
+    /**
+     * Gets the mean of the average skill of all non-empty teams
+     * @return Global average skill, or 5.0 when every team is empty
+     */
+    public double getGlobalAverage() {
+        return nonEmptyTeams == 0 ? DEFAULT_GLOBAL_AVG : averageSum / nonEmptyTeams;
+    }
+
+    /**
+     * Number of teams that still have room
+     * @return Open team count
+     */
+    public int getOpenTeamCount() {
+        return openTeams;
+    }
+
+    /**
+     * Number of bucketScore and teamScore calls made by findBest so far
+     * @return Score evaluations
+     */
+    public long getScoreEvaluations() {
+        return scoreEvaluations;
+    }
+
+    /**
+     * Finds the highest-scoring open team for a participant
+     *
+     * Buckets are visited in levels of equal bucket score, best first: each
+     * level is the head of every class whose best remaining end has the
+     * highest score, and taking a bucket moves that end of its class inwards.
+     * A level is skipped once its best possible score (bucket score +
+     * maxJitter) is below the best team found, so a query usually scores two
+     * buckets per class and a few teams.
+     *
+     * Ties are broken uniformly over all open teams with the best score, as if
+     * every team had been scored in shuffled order. Teams in a level are drawn
+     * in uniformly random order, and the search stops at the first team that
+     * reaches the level's best possible score, which is a uniform pick among
+     * all teams that would have reached it. After RANDOM_PICKS draws without
+     * one, or when an earlier level already reached that score, the rest of the
+     * level is scored in bucket order and ties are kept by reservoir sampling.
+     * Worst case every open team is scored once.
+     *
+     * @param p Participant index
+     * @param random Source of randomness for tie-breaking
+     * @return Index of the best team, or -1 if every team is full
+     */
+    public int findBest(int p, Random random) {
+        int classCount = active.size();
+        if (classCount == 0) {
+            return -1;
+        }
+
+        double globalAvg = getGlobalAverage();
+        for (int i = 0; i < classCount; i++) {
+            active.get(i).startQuery(p, globalAvg);
+        }
+
+        int bestTeam = -1;
+        int bestScore = Integer.MIN_VALUE;
+        int ties = 0;
+
+        while (true) {
+            boolean anyLeft = false;
+            int levelScore = Integer.MIN_VALUE;
+            for (int i = 0; i < classCount; i++) {
+                TeamClass teamClass = active.get(i);
+                if (teamClass.low != null) {
+                    levelScore = anyLeft ? Math.max(levelScore, teamClass.headScore()) : teamClass.headScore();
+                    anyLeft = true;
+                }
+            }
+            int ceiling = levelScore + maxJitter;
+            if (!anyLeft || (bestTeam >= 0 && ceiling < bestScore)) {
+                break;
+            }
+
+            int levelSize = 0;
+            int remaining = 0;
+            for (int i = 0; i < classCount; i++) {
+                TeamClass teamClass = active.get(i);
+                while (teamClass.low != null && teamClass.headScore() == levelScore) {
+                    if (levelSize == scratchLevel.length) {
+                        scratchLevel = Arrays.copyOf(scratchLevel, levelSize * 2);
+                        scratchTaken = Arrays.copyOf(scratchTaken, levelSize * 2);
+                    }
+                    Bucket bucket = teamClass.takeHead(p, globalAvg);
+                    scratchLevel[levelSize] = bucket;
+                    scratchTaken[levelSize++] = 0;
+                    remaining += bucket.size;
+                }
+            }
+
+            boolean stopAtCeiling = bestTeam < 0 || ceiling > bestScore;
+            int cursor = 0;
+            for (int picks = 0; remaining > 0; picks++, remaining--) {
+                boolean randomOrder = stopAtCeiling && picks < RANDOM_PICKS;
+                int j;
+                if (randomOrder) {
+                    // Uniform over the unscored teams of the level
+                    int r = random.nextInt(remaining);
+                    j = 0;
+                    while (r >= scratchLevel[j].size - scratchTaken[j]) {
+                        r -= scratchLevel[j].size - scratchTaken[j];
+                        j++;
+                    }
+                } else {
+                    while (scratchTaken[cursor] == scratchLevel[cursor].size) {
+                        cursor++;
+                    }
+                    j = cursor;
+                }
+
+                Bucket bucket = scratchLevel[j];
+                int position = scratchTaken[j]++;
+                if (randomOrder) {
+                    bucket.swap(position, position + random.nextInt(bucket.size - position));
+                }
+                int teamIndex = bucket.members[position];
+                int score = scorer.teamScore(columns, teamIndex, p, levelScore);
+                scoreEvaluations++;
+
+                if (score > bestScore) {
+                    bestScore = score;
+                    bestTeam = teamIndex;
+                    ties = 1;
+                } else if (score == bestScore && random.nextInt(++ties) == 0) {
+                    bestTeam = teamIndex;
+                }
+                if (randomOrder && score >= ceiling) {
+                    Arrays.fill(scratchLevel, 0, levelSize, null);
+                    return bestTeam;
+                }
+            }
+            Arrays.fill(scratchLevel, 0, levelSize, null);
+        }
+
+        return bestTeam;
+    }
+
+    private Bucket bucketFor(int team) {
+        int size = columns.size(team);
+
+        int roleMask = 0;
+        for (int role = 0; role < ROLE_COUNT; role++) {
+            if (columns.roleCount(team, role) > 0) {
+                roleMask |= 1 << role;
+            }
+        }
+
+        int quotaMask = 0;
+        for (int type = 0; type < TYPE_COUNT; type++) {
+            if (columns.personalityCount(team, type) < size / 3) {
+                quotaMask |= 1 << type;
+            }
+        }
+
+        int key = (size << 16) | (roleMask << 8) | quotaMask;
+        TeamClass teamClass = classes.get(key);
+        if (teamClass == null) {
+            teamClass = new TeamClass(key);
+            classes.put(key, teamClass);
+            teamClass.activeIndex = active.size();
+            active.add(teamClass);
+        }
+        return teamClass.bucket(columns.skillSum(team));
+    }
+
+    /**
+     * Open teams with the same size, role set and quota mask, in buckets by skill sum
+     */
+    private final class TeamClass {
+        private final int key;
+        private final TreeMap<Integer, Bucket> bySkill = new TreeMap<>();
+        private int activeIndex = -1;
+
+        // Query cursor: buckets low..high (by skill sum) are not visited yet
+        private Bucket low;
+        private Bucket high;
+        private int lowScore;
+        private int highScore;
+
+        TeamClass(int key) {
+            this.key = key;
+        }
+
+        Bucket bucket(int skillSum) {
+            Bucket bucket = bySkill.get(skillSum);
+            if (bucket == null) {
+                bucket = new Bucket(this, skillSum);
+                bySkill.put(skillSum, bucket);
+            }
+            return bucket;
+        }
+
+        /**
+         * Drops an empty bucket, and the class itself once it has none left
+         */
+        void discard(Bucket bucket) {
+            bySkill.remove(bucket.skillSum);
+            if (!bySkill.isEmpty()) {
+                return;
+            }
+            TeamClass moved = active.remove(active.size() - 1);
+            if (moved != this) {
+                active.set(activeIndex, moved);
+                moved.activeIndex = activeIndex;
+            }
+            activeIndex = -1;
+            classes.remove(key);
+        }
+
+        void startQuery(int p, double globalAvg) {
+            low = bySkill.firstEntry().getValue();
+            high = bySkill.lastEntry().getValue();
+            lowScore = score(low, p, globalAvg);
+            highScore = low == high ? lowScore : score(high, p, globalAvg);
+        }
+
+        int headScore() {
+            return Math.max(lowScore, highScore);
+        }
+
+        /**
+         * Takes the better end of the unvisited buckets and moves that end inwards
+         */
+        Bucket takeHead(int p, double globalAvg) {
+            Bucket head;
+            if (low == high) {
+                head = low;
+                low = null;
+                high = null;
+            } else if (lowScore >= highScore) {
+                head = low;
+                low = bySkill.get(bySkill.higherKey(low.skillSum));
+                lowScore = low == high ? highScore : score(low, p, globalAvg);
+            } else {
+                head = high;
+                high = bySkill.get(bySkill.lowerKey(high.skillSum));
+                highScore = high == low ? lowScore : score(high, p, globalAvg);
+            }
+            return head;
+        }
+
+        private int score(Bucket bucket, int p, double globalAvg) {
+            scoreEvaluations++;
+            return scorer.bucketScore(columns, bucket.members[0], p, globalAvg);
+        }
+    }
+
+    /**
+     * Set of team indices with O(1) add and remove
+     */
+    private final class Bucket {
+        private final TeamClass owner;
+        private final int skillSum;
+        private int[] members = new int[4];
+        private int size;
+
+        Bucket(TeamClass owner, int skillSum) {
+            this.owner = owner;
+            this.skillSum = skillSum;
+        }
+
+        void add(int teamIndex) {
+            if (size == members.length) {
+                members = Arrays.copyOf(members, size * 2);
+            }
+            positionInBucket[teamIndex] = size;
+            members[size++] = teamIndex;
+        }
+
+        void remove(int teamIndex) {
+            int index = positionInBucket[teamIndex];
+            int last = members[--size];
+            members[index] = last;
+            positionInBucket[last] = index;
+        }
+
+        void swap(int i, int j) {
+            int a = members[i];
+            int b = members[j];
+            members[i] = b;
+            members[j] = a;
+            positionInBucket[b] = i;
+            positionInBucket[a] = j;
+        }
+    }
+}
@@ -11,6 +11,12 @@ import java.util.concurrent.*;
  * Manages team generation and export operations.
  * Manual export only (no auto-export).
  *
+ * Generation runs under a FormationDeadline: when it expires the strategy
+ * returns its teams so far, flagged in the FormationResult, instead of
+ * failing. Those teams may break the matching rules. cancelGeneration() stops
+ * a running generation early. A strategy that still has not returned a grace
+ * period after being cancelled is interrupted and the generation fails.
+ *
  * @author Student Name
  * @version 1.0
  * @since 2025
@@ -20,17 +26,81 @@ public class TeamService {
     private List<Team> teams;
     private Map<String, String> participantToTeam;
     private static final String TEAMS_CSV = "formed_teams.csv";
+    private static final long DEFAULT_GENERATION_DEADLINE_MILLIS = 30_000;
+    // Extra wait for a strategy to wind down after its deadline before it is cancelled
+    private static final long DEADLINE_GRACE_MILLIS = 5_000;
+
+    private final StrategyRegistry strategies;
+    private FormationResult lastResult;
+    private long generationDeadlineMillis = DEFAULT_GENERATION_DEADLINE_MILLIS;
+    private volatile FormationDeadline activeDeadline;
 
     public TeamService() {
+        this(StrategyRegistry.standard());
+    }
+
+    /**
+     * Creates a service that forms teams with strategies from a registry
+     * @param strategies Formation strategies
+     */
+    public TeamService(StrategyRegistry strategies) {
+        this.strategies = strategies;
         this.teams = new ArrayList<>();
         this.participantToTeam = new HashMap<>();
         Logger.logInfo("TeamService initialized");
     }
 
+    /**
+     * Sets the largest cohort solved exactly instead of with TeamBuilder
+     * @param threshold Participant count (0 disables the exact solver)
+     * @param timeLimitMillis Exact search time limit before the best incumbent is used
+     */
+    public void setExactSolver(int threshold, long timeLimitMillis) {
+        strategies.register(new ExactSolverStrategy(timeLimitMillis),
+                Math.min(threshold, ExactTeamSolver.MAX_PARTICIPANTS));
+    }
+
+    /**
+     * Sets how long a generation may run before it returns its best teams so far
+     * @param millis Deadline in milliseconds
+     */
+    public void setGenerationDeadline(long millis) {
+        if (millis <= 0) {
+            throw new IllegalArgumentException("Generation deadline must be positive");
+        }
+        this.generationDeadlineMillis = millis;
+    }
+
+    /**
+     * Asks a running generation to stop; it returns the teams placed so far
+     * @return true if a generation was running
+     */
+    public boolean cancelGeneration() {
+        FormationDeadline deadline = activeDeadline;
+        if (deadline == null) {
+            return false;
+        }
+        deadline.cancel();
+        Logger.logInfo("Team generation cancelled");
+        return true;
+    }
+
+    /**
+     * Gets the registry used to choose formation strategies
+     * @return Strategy registry
+     */
+    public StrategyRegistry getStrategies() {
+        return strategies;
+    }
+
     /**
      * Generates teams using concurrent processing
      * User must manually export teams after generation
      *
+     * The strategy is chosen by cohort size: small cohorts (finals,
+     * invitationals) are solved exactly, larger ones use the multi-phase
+     * TeamBuilder.
+     *
      * @param participants List of participants
      * @param teamSize Desired team size
      * @return List of formed teams
@@ -39,6 +109,27 @@ public class TeamService {
      */
     public List<Team> generateTeams(List<Participant> participants, int teamSize)
             throws InterruptedException, ExecutionException {
+        int cohortSize = participants == null ? 0 : participants.size();
+        return generateTeams(participants, teamSize, strategies.select(cohortSize));
+    }
+
+    /**
+     * Generates teams with a named strategy
+     * @param participants List of participants
+     * @param teamSize Desired team size
+     * @param strategyName Registered strategy name
+     * @return List of formed teams
+     * @throws InterruptedException if thread interrupted
+     * @throws ExecutionException if execution fails
+     */
+    public List<Team> generateTeams(List<Participant> participants, int teamSize, String strategyName)
+            throws InterruptedException, ExecutionException {
+        return generateTeams(participants, teamSize, strategies.get(strategyName));
+    }
+
+    private List<Team> generateTeams(List<Participant> participants, int teamSize,
+                                     TeamFormationStrategy strategy)
+            throws InterruptedException, ExecutionException {
 
         if (participants == null || participants.isEmpty()) {
             throw new IllegalArgumentException("Participant list cannot be empty");
@@ -47,32 +138,69 @@ public class TeamService {
         teams.clear();
         participantToTeam.clear();
 
-        TeamBuilder teamBuilder = new TeamBuilder(participants, teamSize);
-
         ExecutorService executor = Executors.newFixedThreadPool(3);
+        FormationDeadline deadline = FormationDeadline.in(generationDeadlineMillis);
+        activeDeadline = deadline;
 
         try {
-            Future<List<Team>> futureTeams = executor.submit(() -> teamBuilder.formTeams());
-            teams = futureTeams.get(30, TimeUnit.SECONDS);
+            Future<FormationResult> futureResult = executor.submit(() -> strategy.form(participants, teamSize, deadline));
+            try {
+                lastResult = futureResult.get(generationDeadlineMillis + DEADLINE_GRACE_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                // Still running after the grace period: cancel so it returns what it has
+                Logger.logWarning("Team generation overran its deadline, cancelling");
+                deadline.cancel();
+                try {
+                    lastResult = futureResult.get(DEADLINE_GRACE_MILLIS, TimeUnit.MILLISECONDS);
+                } catch (TimeoutException stuck) {
+                    futureResult.cancel(true);
+                    throw new ExecutionException("Team generation did not stop within "
+                            + DEADLINE_GRACE_MILLIS + " ms of being cancelled", stuck);
+                }
+            }
+            teams = new ArrayList<>(lastResult.getTeams());
 
             for (Team team : teams) {
-                for (Participant p : team.getMembers()) {
-                    participantToTeam.put(p.getId(), team.getTeamId());
+                for (int i = 0; i < team.getCurrentSize(); i++) {
+                    participantToTeam.put(team.getMember(i).getId(), team.getTeamId());
                 }
             }
 
-            Logger.logInfo("Generated " + teams.size() + " teams");
+            Logger.logInfo("Generated " + teams.size() + " teams: " + lastResult);
+            if (!lastResult.isComplete()) {
+                Logger.logWarning("Teams are " + lastResult.getCompletion() + ": formation stopped early");
+            }
 
-        } catch (TimeoutException e) {
-            throw new RuntimeException("Team generation timeout", e);
+        } catch (InterruptedException e) {
+            deadline.cancel();
+            throw e;
         } finally {
+            activeDeadline = null;
             executor.shutdown();
-            executor.awaitTermination(5, TimeUnit.SECONDS);
+            if (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
+                executor.shutdownNow();
+            }
         }
 
         return new ArrayList<>(teams);
     }
 
+    /**
+     * Gets timing and quality metrics of the last generation
+     * @return Last formation result, or null if no teams were generated
+     */
+    public FormationResult getLastResult() {
+        return lastResult;
+    }
+
+    /**
+     * Gets per-phase metrics of the last generation
+     * @return Last formation metrics, or null before the first generation
+     */
+    public FormationMetrics getLastMetrics() {
+        return lastResult == null ? null : lastResult.getMetrics();
+    }
+
     /**
      * Gets all formed teams
      * @return List of teams
@@ -96,6 +224,18 @@ public class TeamService {
         return null;
     }
 
+    /**
+     * Rebuilds the aggregates of the team holding a participant edited in place
+     * @param participant The edited participant
+     * @return true if the participant is in a formed team
+     */
+    public boolean refreshTeamOf(Participant participant) {
+        Team team = getTeamByParticipant(participant.getId());
+        if (team == null) return false;
+        team.refreshAggregates();
+        return true;
+    }
+
     /**
      * Exports teams to CSV file
      * @param teamsToExport Teams to export
@@ -121,6 +261,7 @@ public class TeamService {
     public void clearAllTeams() {
         teams.clear();
         participantToTeam.clear();
+        lastResult = null;
 
         try {
             exportToCSV(new ArrayList<>(), TEAMS_CSV);
@@ -12,6 +12,11 @@ import java.util.*;
  *
  * Handles CRUD operations for participants with auto-generated IDs.
  * Uses LinkedHashMap to maintain insertion order.
+ * Loaded, registered and updated participants get their game from one
+ * GameDictionary per service, so each spelling is stored once and teams
+ * compare games by ID.
+ * Register, update and delete are recorded as JFR events
+ * (TeamMateEvents.ParticipantMutation) covering the CSV write they cause.
  *
  * @author Student Name
  * @version 1.1
@@ -22,6 +27,9 @@ public class UserService {
     private Map<String, Participant> participants;
     private String csvFilePath;
     private int nextIdNumber;
+    private OnlineTeamFormation onlineFormation;
+    private TeamService teamService;
+    private final GameDictionary games = new GameDictionary();
 
     /**
      * Constructor - initializes UserService
@@ -52,34 +60,53 @@ public class UserService {
         }
     }
 
+    /**
+     * Enables placing participants into teams as they register
+     * Registrations, CSV loads, updates and deletions are forwarded to the formation.
+     * @param onlineFormation Online formation, or null to disable
+     */
+    public void setOnlineFormation(OnlineTeamFormation onlineFormation) {
+        this.onlineFormation = onlineFormation;
+    }
+
+    /**
+     * Gets the online formation receiving participant changes
+     * @return Online formation, or null if disabled
+     */
+    public OnlineTeamFormation getOnlineFormation() {
+        return onlineFormation;
+    }
+
+    /**
+     * Links the service holding formed teams
+     * Updated participants then refresh the aggregates of their team.
+     * @param teamService Team service, or null to unlink
+     */
+    public void setTeamService(TeamService teamService) {
+        this.teamService = teamService;
+    }
+
     /**
      * Scans CSV file to determine next available participant ID
      * Does NOT load participants into memory - only checks IDs
      */
     private void updateNextIdFromCSV(String filePath) {
-        try {
-            java.io.BufferedReader reader = new java.io.BufferedReader(
-                    new java.io.FileReader(filePath));
-
-            String line;
-            reader.readLine(); // Skip header
+        try (java.io.InputStream in = new java.io.FileInputStream(filePath)) {
+            CsvTokenizer csv = new CsvTokenizer(in);
+            csv.nextRecord(); // Skip header
 
-            while ((line = reader.readLine()) != null) {
-                String[] parts = line.split(",");
-                if (parts.length > 0) {
-                    String id = parts[0].trim();
+            while (csv.nextRecord()) {
+                if (csv.isParticipantId(0)) {
                     try {
-                        String numStr = id.substring(1); // Remove 'P'
-                        int num = Integer.parseInt(numStr);
+                        int num = Integer.parseInt(csv.stringField(0).substring(1)); // Remove 'P'
                         if (num >= nextIdNumber) {
                             nextIdNumber = num + 1;
                         }
-                    } catch (Exception e) {
-                        // Ignore malformed IDs
+                    } catch (NumberFormatException e) {
+                        // Ignore IDs too large for an int
                     }
                 }
             }
-            reader.close();
         } catch (Exception e) {
             Logger.logWarning("Error scanning CSV: " + e.getMessage());
         }
@@ -103,13 +130,21 @@ public class UserService {
     public Participant registerParticipant(String name, String email, String preferredGame,
                                            int skillLevel, Role preferredRole, int personalityScore)
             throws InvalidInputException {
+        TeamMateEvents.ParticipantMutation event = new TeamMateEvents.ParticipantMutation();
+        event.begin();
         String newId = generateNextId();
 
         Participant participant = new Participant(newId, name, email, preferredGame,
                 skillLevel, preferredRole, personalityScore);
+        games.assign(participant);
 
         participants.put(newId, participant);
 
+        if (onlineFormation != null) {
+            String teamId = onlineFormation.place(participant);
+            Logger.logInfo("Participant " + newId + " placed in " + teamId);
+        }
+
         try {
             // APPEND to CSV instead of overwriting
             appendToCSV(participant);
@@ -118,6 +153,7 @@ public class UserService {
             Logger.logError("Failed to append participant to CSV: " + e.getMessage());
         }
 
+        commitMutation(event, "register", newId);
         return participant;
     }
 
@@ -146,9 +182,9 @@ public class UserService {
             // Append participant data
             bw.write(String.format("%s,%s,%s,%s,%d,%s,%d,%s",
                     participant.getId(),
-                    participant.getName(),
-                    participant.getEmail(),
-                    participant.getPreferredGame(),
+                    CsvTokenizer.escape(participant.getName()),
+                    CsvTokenizer.escape(participant.getEmail()),
+                    CsvTokenizer.escape(participant.getPreferredGame()),
                     participant.getSkillLevel(),
                     participant.getPreferredRole(),
                     participant.getPersonalityScore(),
@@ -206,8 +242,18 @@ public class UserService {
             throw new InvalidInputException("Participant not found");
         }
 
+        TeamMateEvents.ParticipantMutation event = new TeamMateEvents.ParticipantMutation();
+        event.begin();
+        games.assign(participant);
         participants.put(participant.getId(), participant);
 
+        if (onlineFormation != null) {
+            onlineFormation.refresh(participant);
+        }
+        if (teamService != null) {
+            teamService.refreshTeamOf(participant);
+        }
+
         try {
             saveAllToCSV();
         } catch (FileProcessingException e) {
@@ -215,6 +261,7 @@ public class UserService {
         }
 
         Logger.logInfo("Participant updated: " + participant.getId());
+        commitMutation(event, "update", participant.getId());
     }
 
     /**
@@ -226,9 +273,15 @@ public class UserService {
      * @return true if deleted, false if not found
      */
     public boolean deleteParticipant(String id) {
+        TeamMateEvents.ParticipantMutation event = new TeamMateEvents.ParticipantMutation();
+        event.begin();
         Participant removed = participants.remove(id);
 
         if (removed != null) {
+            if (onlineFormation != null) {
+                onlineFormation.remove(id);
+            }
+
             try {
                 saveAllToCSV();
             } catch (FileProcessingException e) {
@@ -236,11 +289,26 @@ public class UserService {
             }
 
             Logger.logInfo("Participant deleted: " + id + " (Total: " + participants.size() + ")");
+            commitMutation(event, "delete", id);
             return true;
         }
         return false;
     }
 
+    /**
+     * Ends a mutation event and commits it, with the CSV size, if JFR is recording it
+     */
+    private void commitMutation(TeamMateEvents.ParticipantMutation event, String operation, String id) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.operation = operation;
+            event.participantId = id;
+            event.participants = participants.size();
+            event.csvBytes = new java.io.File(csvFilePath).length();
+            event.commit();
+        }
+    }
+
     /**
      * Gets all participants in insertion order
      * @return List of all participants
@@ -254,6 +322,9 @@ public class UserService {
      *
      * MERGES loaded participants with existing ones (does not replace).
      * Updates nextIdNumber to prevent ID conflicts.
+     * With an online formation set, loaded participants are placed, or
+     * refreshed in their team if their ID is already placed.
+     * Files of PARALLEL_LOAD_THRESHOLD bytes or more are parsed on all cores.
      *
      * @param filePath CSV file path
      * @return Number of participants loaded
@@ -261,11 +332,18 @@ public class UserService {
      */
     public int loadFromCSV(String filePath) throws FileProcessingException {
         FileHandler fileHandler = new FileHandler(filePath, "");
-        List<Participant> loaded = fileHandler.loadParticipants();
+        fileHandler.setGameDictionary(games);
+        List<Participant> loaded = new java.io.File(filePath).length() >= FileHandler.PARALLEL_LOAD_THRESHOLD
+                ? fileHandler.loadParticipantsParallel(Runtime.getRuntime().availableProcessors())
+                : fileHandler.loadParticipants();
 
         for (Participant p : loaded) {
             participants.put(p.getId(), p);
 
+            if (onlineFormation != null && !onlineFormation.refresh(p)) {
+                onlineFormation.place(p);
+            }
+
             // Update nextIdNumber to prevent conflicts
             try {
                 String numStr = p.getId().substring(1);
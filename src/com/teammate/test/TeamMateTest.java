@@ -5,6 +5,8 @@ import com.teammate.service.*;
 import com.teammate.util.*;
 import java.util.*;
 import java.io.*;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.*;
 
 /**
  * Comprehensive Testing Suite for TeamMate Application
@@ -135,6 +137,119 @@ public class TeamMateTest {
             return team.getPersonalityCount(PersonalityType.LEADER) == 2 &&
                     team.getPersonalityCount(PersonalityType.THINKER) == 1;
         });
+
+        test("Role and game counts track add/remove", () -> {
+            Team team = new Team("TEAM_6", 5);
+            Participant p1 = new Participant("P001", "A", "a@u.edu", "FIFA", 6, Role.ATTACKER, 95);
+            Participant p2 = new Participant("P002", "B", "b@u.edu", "fifa", 7, Role.ATTACKER, 75);
+            Participant p3 = new Participant("P003", "C", "c@u.edu", "Chess", 8, Role.DEFENDER, 65);
+            team.addMember(p1);
+            team.addMember(p2);
+            team.addMember(p3);
+            boolean before = team.getRoleCount(Role.ATTACKER) == 2 &&
+                    team.getGameCount("FIFA") == 2 && team.getDistinctRoleCount() == 2;
+            team.removeMember(p2);
+            return before && team.getRoleCount(Role.ATTACKER) == 1 &&
+                    team.getGameCount("Fifa") == 1 && team.getSkillSum() == 14;
+        });
+
+        test("Team aggregates follow members edited in place after a refresh", () -> {
+            Team team = new Team("TEAM_7", 4);
+            Participant p1 = new Participant("P001", "A", "a@u.edu", "FIFA", 6, Role.ATTACKER, 95);
+            Participant p2 = new Participant("P002", "B", "b@u.edu", "Chess", 7, Role.DEFENDER, 75);
+            Participant p3 = new Participant("P003", "C", "c@u.edu", "Chess", 8, Role.SUPPORTER, 65);
+            Participant p4 = new Participant("P004", "D", "d@u.edu", "LOL", 5, Role.STRATEGIST, 80);
+            team.addMember(p1);
+            team.addMember(p2);
+            team.addMember(p3);
+            team.addMember(p4);
+            boolean before = team.isBalanced() && team.getSkillSum() == 26;
+
+            p4.setPreferredGame("Chess");
+            team.refreshAggregates();
+            boolean gameDominates = !team.isBalanced() && team.getGameCount("Chess") == 3;
+            p4.setPreferredGame("LOL");
+            p3.setSkillLevel(10);
+            p2.setPreferredRole(Role.ATTACKER);
+            team.refreshAggregates();
+            boolean edited = team.isBalanced() && team.getSkillSum() == 28 &&
+                    team.getRoleCount(Role.ATTACKER) == 2 && team.getDistinctRoleCount() == 3;
+
+            // Removing after an edit subtracts the edited values
+            team.removeMember(p3);
+            return before && gameDominates && edited && team.getSkillSum() == 18 &&
+                    team.getRoleCount(Role.SUPPORTER) == 0 && team.getGameCount("Chess") == 1;
+        });
+
+        test("Balance check counts game names ignoring case and spaces", () -> {
+            Team team = new Team("TEAM_8", 4);
+            team.addMember(new Participant("P001", "A", "a@u.edu", "FIFA", 6, Role.ATTACKER, 95));
+            team.addMember(new Participant("P002", "B", "b@u.edu", "fifa", 7, Role.DEFENDER, 75));
+            team.addMember(new Participant("P003", "C", "c@u.edu", " Fifa ", 8, Role.SUPPORTER, 65));
+            team.addMember(new Participant("P004", "D", "d@u.edu", "LOL", 5, Role.STRATEGIST, 80));
+            return !team.isBalanced() && team.getGameCount("FIFA") == 3;
+        });
+
+        test("Team member access paths allocate nothing", () -> {
+            java.lang.management.ThreadMXBean mx = java.lang.management.ManagementFactory.getThreadMXBean();
+            if (!(mx instanceof com.sun.management.ThreadMXBean)) return true;
+            com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) mx;
+            if (!threads.isThreadAllocatedMemorySupported()) return true;
+            threads.setThreadAllocatedMemoryEnabled(true);
+
+            Team team = new Team("TEAM_A", 5);
+            for (Participant p : createMixedPersonalityParticipants(5)) {
+                team.addMember(p);
+            }
+            long[] sum = new long[1];
+            java.util.function.Consumer<Participant> memberVisitor = p -> sum[0] += p.getSkillLevel();
+            java.util.function.IntConsumer skillVisitor = skill -> sum[0] += skill;
+            Runnable readAll = () -> {
+                for (int i = 0; i < team.getCurrentSize(); i++) {
+                    sum[0] += team.getMember(i).getSkillLevel() + team.getSkillAt(i);
+                }
+                team.forEachMember(memberVisitor);
+                team.forEachSkill(skillVisitor);
+            };
+            for (int i = 0; i < 20_000; i++) readAll.run();
+
+            long thread = Thread.currentThread().getId();
+            long start = threads.getThreadAllocatedBytes(thread);
+            long overhead = threads.getThreadAllocatedBytes(thread) - start;
+            start = threads.getThreadAllocatedBytes(thread);
+            for (int i = 0; i < 1000; i++) readAll.run();
+            long allocated = threads.getThreadAllocatedBytes(thread) - start - overhead;
+            return allocated <= 0 && sum[0] > 0;
+        });
+
+        test("Game dictionary folds spellings to one ID and keeps the user's spelling", () -> {
+            Participant p1 = new Participant("P001", "A", "a@u.edu", "Rocket League", 6, Role.ATTACKER, 95);
+            Participant p2 = new Participant("P002", "B", "b@u.edu", " ROCKET league ", 7, Role.DEFENDER, 75);
+            GameDictionary games = new GameDictionary();
+            int id = games.register(p1.getPreferredGame());
+            Team team = new Team("TEAM_G", 5);
+            team.addMember(p1);
+            team.addMember(p2);
+            return id == 0 && games.register(p2.getPreferredGame()) == id && games.find("rocket LEAGUE") == id &&
+                    games.size() == 1 && "Rocket League".equals(games.nameOf(id)) &&
+                    " ROCKET league ".equals(p2.getPreferredGame()) &&
+                    team.getGameCount("rocket league") == 2 &&
+                    games.find("Unheard Of Game") == GameDictionary.NO_GAME &&
+                    new GameDictionary().find("Rocket League") == GameDictionary.NO_GAME;
+        });
+
+        test("Balance check uses roles, games and personality mix", () -> {
+            Team team = new Team("TEAM_7", 4);
+            team.addMember(new Participant("P001", "A", "a@u.edu", "FIFA", 6, Role.ATTACKER, 95));
+            team.addMember(new Participant("P002", "B", "b@u.edu", "FIFA", 7, Role.DEFENDER, 75));
+            team.addMember(new Participant("P003", "C", "c@u.edu", "FIFA", 8, Role.SUPPORTER, 65));
+            Participant last = new Participant("P004", "D", "d@u.edu", "Chess", 5, Role.SUPPORTER, 80);
+            team.addMember(last);
+            boolean dominated = !team.isBalanced();
+            team.removeMember(team.getMembers().get(2));
+            team.addMember(new Participant("P005", "E", "e@u.edu", "Chess", 8, Role.STRATEGIST, 65));
+            return dominated && team.isBalanced();
+        });
     }
 
     // ==================== UNIT TESTS: PersonalityClassifier ====================
@@ -251,6 +366,30 @@ public class TeamMateTest {
             String sanitized = ValidationUtils.sanitizeInput(input);
             return !sanitized.contains("<") && !sanitized.contains(">");
         });
+
+        test("Console input keeps type-ahead and claims only later lines", () -> {
+            PipedOutputStream keyboard = new PipedOutputStream();
+            ConsoleInput input = new ConsoleInput(new PipedInputStream(keyboard));
+            keyboard.write("first\nsecond\n".getBytes());
+            keyboard.flush();
+            long deadline = System.currentTimeMillis() + 2000;
+            while (input.mark() < 2 && System.currentTimeMillis() < deadline) Thread.sleep(5);
+
+            long started = input.mark();
+            boolean typeAheadKept = !input.takeLineAfter(started);
+            keyboard.write("\n".getBytes());
+            keyboard.flush();
+            boolean claimed = false;
+            while (!claimed && System.currentTimeMillis() < deadline) {
+                claimed = input.takeLineAfter(started);
+                Thread.sleep(5);
+            }
+            keyboard.write("third\n".getBytes());
+            keyboard.close();
+            return typeAheadKept && claimed && "first".equals(input.nextLine()) &&
+                    "second".equals(input.nextLine()) && "third".equals(input.nextLine()) &&
+                    input.nextLine() == null && input.nextLine() == null;
+        });
     }
 
     // ==================== INTEGRATION TESTS: UserService ====================
@@ -319,6 +458,50 @@ public class TeamMateTest {
                 return false;
             }
         });
+
+        test("Loaded participants are forwarded to the online formation", () -> {
+            try {
+                createSampleCSV("test_online_load.csv");
+                UserService service = new UserService("test_online_participants.csv");
+                OnlineTeamFormation online = new OnlineTeamFormation(5, 2, new Random(3));
+                service.setOnlineFormation(online);
+                int loaded = service.loadFromCSV("test_online_load.csv");
+                String team = online.getTeamId("P101");
+                // Loading again refreshes the placed participants instead of failing
+                service.loadFromCSV("test_online_load.csv");
+                Team placed = online.getTeam("P103");
+                return loaded == 3 && online.getPlacedCount() == 3 && team != null &&
+                        placed != null && placed.getTeamId().equals(online.getTeamId("P103")) &&
+                        online.getTeams().stream().mapToInt(Team::getCurrentSize).sum() == 3;
+            } catch (Exception e) {
+                return false;
+            } finally {
+                new File("test_online_load.csv").delete();
+            }
+        });
+
+        test("Updating a participant refreshes the aggregates of their formed team", () -> {
+            try {
+                UserService service = new UserService("test_participants.csv");
+                TeamService teams = new TeamService();
+                service.setTeamService(teams);
+                List<Participant> registered = new ArrayList<>();
+                for (int i = 0; i < 10; i++) {
+                    registered.add(service.registerParticipant("U" + i, "u" + i + "@uni.edu",
+                            i % 2 == 0 ? "FIFA" : "Chess", 5, Role.values()[i % 5], 60 + i * 4));
+                }
+                teams.generateTeams(registered, 5);
+                Participant p = registered.get(0);
+                Team team = teams.getTeamByParticipant(p.getId());
+                int before = team.getSkillSum();
+                p.setSkillLevel(9);
+                service.updateParticipant(p);
+                return team.getSkillSum() == before + 4;
+            } catch (Exception e) {
+                e.printStackTrace();
+                return false;
+            }
+        });
     }
 
     // ==================== INTEGRATION TESTS: TeamService ====================
@@ -351,6 +534,24 @@ public class TeamMateTest {
             }
         });
 
+        test("Team lookup by participant follows every regeneration", () -> {
+            try {
+                List<Participant> participants = createMixedPersonalityParticipants(40);
+                TeamService service = new TeamService();
+                for (int teamSize : new int[]{5, 4}) {
+                    for (Team team : service.generateTeams(participants, teamSize)) {
+                        for (int k = 0; k < team.getCurrentSize(); k++) {
+                            if (service.getTeamByParticipant(team.getMember(k).getId()) != team) return false;
+                        }
+                    }
+                }
+                return service.getTeamByParticipant("P999") == null;
+            } catch (Exception e) {
+                e.printStackTrace();
+                return false;
+            }
+        });
+
         test("Export teams to CSV", () -> {
             try {
                 List<Participant> participants = createTestParticipants(10);
@@ -364,6 +565,27 @@ public class TeamMateTest {
             }
         });
 
+        test("Strategy registry selects by cohort size and name", () -> {
+            try {
+                StrategyRegistry registry = StrategyRegistry.standard();
+                boolean sizeRule = registry.select(40).getName().equals(ExactSolverStrategy.NAME) &&
+                        registry.select(61).getName().equals(EightPhaseStrategy.NAME);
+
+                List<Participant> participants = createMixedPersonalityParticipants(100);
+                TeamService service = new TeamService(registry);
+                List<Team> teams = service.generateTeams(participants, 5, MultiStartStrategy.NAME);
+                FormationResult result = service.getLastResult();
+
+                return sizeRule && teams.size() == 20 &&
+                        result.getStrategyName().equals(MultiStartStrategy.NAME) &&
+                        result.getUnassignedCount() == 0 && result.getElapsedNanos() > 0 &&
+                        Math.abs(result.getObjective() - TeamOptimizer.evaluate(teams)) < 1e-9;
+            } catch (Exception e) {
+                e.printStackTrace();
+                return false;
+            }
+        });
+
         test("Clear all teams", () -> {
             try {
                 List<Participant> participants = createTestParticipants(12);
@@ -441,6 +663,488 @@ public class TeamMateTest {
                 return false;
             }
         });
+
+        test("Skill swap index finds the best balancing swap", () -> {
+            FormationColumns columns = new FormationColumns(2, 4, 2);
+            int[] skills = {10, 6, 1, 5};
+            for (int i = 0; i < skills.length; i++) {
+                int p = columns.addParticipant(new Participant("P00" + i, "N", "n@u.edu", "FIFA", skills[i],
+                        Role.values()[i % Role.values().length], 75));
+                if (i % 2 == 0) columns.addTeam();
+                columns.add(p, i / 2);
+            }
+            SkillSwapIndex index = new SkillSwapIndex(columns);
+            boolean found = index.findBestSwap(0, 1, 5.5);
+            int swaps = index.balance(5.5, 10);
+            return found && swaps == 1 && columns.average(0) == 5.5 && columns.average(1) == 5.5 &&
+                    !index.findBestSwap(0, 1, 5.5);
+        });
+
+        test("Skill swap index converges on a large cohort", () -> {
+            Random random = new Random(5);
+            String[] games = {"FIFA", "LOL", "Valorant", "CS2", "Dota"};
+            int[] scores = {95, 75, 60};
+            int teams = 1000;
+            FormationColumns columns = new FormationColumns(5, teams * 5, teams);
+            for (int t = 0; t < teams; t++) columns.addTeam();
+            for (int i = 0; i < teams * 5; i++) {
+                int p = columns.addParticipant(new Participant("P" + i, "N", "n@u.edu", games[random.nextInt(5)],
+                        1 + random.nextInt(10), Role.values()[random.nextInt(5)],
+                        scores[i % 5 == 0 ? 0 : 1 + random.nextInt(2)]));
+                columns.add(p, i / 5);
+            }
+            double globalAvg = 0;
+            for (int t = 0; t < teams; t++) globalAvg += columns.average(t) / teams;
+            double varianceBefore = skillVariance(columns, globalAvg);
+
+            SkillSwapIndex index = new SkillSwapIndex(columns);
+            index.balance(globalAvg, 100 * teams);
+
+            // No team above the average may still have an improving swap with one below it
+            for (int high = 0; high < teams; high++) {
+                if (columns.average(high) <= globalAvg) continue;
+                for (int low = 0; low < teams; low++) {
+                    if (columns.average(low) < globalAvg && index.findBestSwap(high, low, globalAvg)) return false;
+                }
+            }
+            return skillVariance(columns, globalAvg) < varianceBefore / 100;
+        });
+
+        test("Greedy refinement lowers skill spread", () -> {
+            try {
+                List<Participant> participants = createMixedPersonalityParticipants(200);
+                TeamBuilder greedy = new TeamBuilder(participants, 5, 3L);
+                greedy.setRefinementMode(TeamBuilder.RefinementMode.GREEDY);
+                List<Team> teams = greedy.formTeams();
+                double min = Double.MAX_VALUE;
+                double max = -Double.MAX_VALUE;
+                for (Team team : teams) {
+                    min = Math.min(min, team.getAverageSkill());
+                    max = Math.max(max, team.getAverageSkill());
+                }
+                return teams.size() == 40 && max - min <= 1.0;
+            } catch (Exception e) {
+                e.printStackTrace();
+                return false;
+            }
+        });
+
+        test("Min-cost flow finds the cheapest transportation plan", () -> {
+            // Two suppliers (nodes 2, 3) of 2 units each, two consumers (4, 5) needing 2 each
+            MinCostFlow flow = new MinCostFlow(6);
+            flow.addEdge(0, 2, 2, 0);
+            flow.addEdge(0, 3, 2, 0);
+            int near = flow.addEdge(2, 4, 2, 1);
+            int far = flow.addEdge(2, 5, 2, 5);
+            flow.addEdge(3, 4, 2, 4);
+            flow.addEdge(3, 5, 2, 2);
+            flow.addEdge(4, 1, 2, 0);
+            flow.addEdge(5, 1, 2, 0);
+            long[] result = flow.solve(0, 1, 10);
+            return result[0] == 4 && result[1] == 6 && flow.getFlow(near) == 2 && flow.getFlow(far) == 0;
+        });
+
+        test("Min-cost-flow refinement balances skills and keeps personality mix", () -> {
+            try {
+                List<Participant> participants = createMixedPersonalityParticipants(200);
+                TeamBuilder greedy = new TeamBuilder(participants, 5, 3L);
+                greedy.setRefinementMode(TeamBuilder.RefinementMode.GREEDY);
+                double greedyObjective = TeamOptimizer.evaluate(greedy.formTeams());
+
+                TeamBuilder builder = new TeamBuilder(participants, 5, 3L);
+                builder.setRefinementMode(TeamBuilder.RefinementMode.MIN_COST_FLOW);
+                List<Team> teams = builder.formTeams();
+                int placed = 0;
+                for (Team team : teams) {
+                    placed += team.getCurrentSize();
+                    if (team.getPersonalityCount(PersonalityType.LEADER) != 1) return false;
+                }
+                return placed == participants.size() && TeamOptimizer.evaluate(teams) <= greedyObjective + 1e-9;
+            } catch (Exception e) {
+                e.printStackTrace();
+                return false;
+            }
+        });
+
+        test("Local search never worsens the objective and keeps Leaders", () -> {
+            try {
+                List<Participant> participants = createMixedPersonalityParticipants(60);
+                TeamBuilder builder = new TeamBuilder(participants, 5);
+                builder.setRefinementMode(TeamBuilder.RefinementMode.GREEDY);
+                List<Team> teams = builder.formTeams();
+
+                double before = TeamOptimizer.evaluate(teams);
+                double after = new TeamOptimizer(50_000, 0, new Random(7)).optimize(teams);
+
+                for (Team team : teams) {
+                    if (team.getPersonalityCount(PersonalityType.LEADER) != 1) return false;
+                }
+                return after <= before + 1e-9 &&
+                        Math.abs(after - TeamOptimizer.evaluate(teams)) < 1e-6;
+            } catch (Exception e) {
+                e.printStackTrace();
+                return false;
+            }
+        });
+
+        test("Formation deadline returns complete teams flagged as stopped early", () -> {
+            try {
+                List<Participant> participants = createMixedPersonalityParticipants(200);
+                FormationDeadline expired = FormationDeadline.in(0);
+                FormationResult late = new EightPhaseStrategy().form(participants, 5, expired);
+
+                FormationDeadline cancelled = FormationDeadline.none();
+                cancelled.cancel();
+                FormationResult stopped = new EightPhaseStrategy().form(participants, 5, cancelled);
+
+                return late.getCompletion() == FormationResult.Completion.SUBOPTIMAL &&
+                        late.getUnassignedCount() == 0 && late.getTeams().size() == 40 &&
+                        stopped.getCompletion() == FormationResult.Completion.PARTIAL &&
+                        stopped.getUnassignedCount() == participants.size() &&
+                        new EightPhaseStrategy().form(participants, 5).isComplete();
+            } catch (Exception e) {
+                e.printStackTrace();
+                return false;
+            }
+        });
+
+        test("Team generation records per-phase formation metrics", () -> {
+            try {
+                List<Participant> participants = createMixedPersonalityParticipants(200);
+                TeamService service = new TeamService();
+                service.generateTeams(participants, 5);
+                FormationMetrics metrics = service.getLastMetrics();
+
+                List<String> phases = new ArrayList<>();
+                for (FormationMetrics.Phase phase : metrics.getPhases()) {
+                    phases.add(phase.getName());
+                }
+                return phases.equals(Arrays.asList("1 Shuffle and sort", "2 Leaders", "3 Thinkers",
+                        "4 Role diversity", "5 Balanced", "6 Remaining", "7-8 Local search")) &&
+                        metrics.getScoreEvaluations() > 0 &&
+                        metrics.getSwapsAttempted() >= metrics.getSwapsAccepted() &&
+                        metrics.getSwapsAccepted() > 0 &&
+                        metrics.getObjectiveAfter() <= metrics.getObjectiveBefore() &&
+                        metrics.format().contains("7-8 Local search");
+            } catch (Exception e) {
+                e.printStackTrace();
+                return false;
+            }
+        });
+
+        test("Every registered strategy records formation metrics", () -> {
+            try {
+                List<Participant> participants = createMixedPersonalityParticipants(40);
+                TeamService service = new TeamService();
+                for (String name : service.getStrategies().getNames()) {
+                    service.generateTeams(participants, 5, name);
+                    FormationMetrics metrics = service.getLastMetrics();
+                    if (metrics == null || metrics.getPhases().isEmpty() ||
+                            metrics.getParticipantCount() != 40 ||
+                            Double.isNaN(metrics.getObjectiveAfter())) {
+                        System.out.println("    no metrics from " + name);
+                        return false;
+                    }
+                }
+                return true;
+            } catch (Exception e) {
+                e.printStackTrace();
+                return false;
+            }
+        });
+
+        test("Quality report counts rule violations and matches the optimizer objective", () -> {
+            Team stacked = new Team("TEAM_Q", 5);
+            for (int i = 0; i < 5; i++) {
+                stacked.addMember(new Participant("P9" + i, "Q" + i, "q" + i + "@u.edu", "FIFA",
+                        2 + i, Role.ATTACKER, 95));
+            }
+            QualityReport single = QualityReport.score(Collections.singletonList(stacked));
+
+            // Enough teams for scoreParallel to split the list
+            List<Participant> participants = createMixedPersonalityParticipants(30_000);
+            List<Team> teams = new ArrayList<>();
+            for (int i = 0; i < participants.size(); i += 5) {
+                Team team = new Team("TEAM_" + (teams.size() + 1), 5);
+                for (int k = i; k < i + 5; k++) team.addMember(participants.get(k));
+                teams.add(team);
+            }
+            QualityReport sequential = QualityReport.score(teams);
+            QualityReport parallel = QualityReport.scoreParallel(teams);
+            double expected = TeamOptimizer.evaluate(teams);
+
+            return single.getGameCapViolations() == 2 && single.getRoleDiversityShortfall() == 2 &&
+                    single.getPersonalityQuotaViolations() == 5 && single.getLeaderCoverage() == 1.0 &&
+                    Math.abs(sequential.getObjective() - expected) < 1e-6 &&
+                    Math.abs(parallel.getObjective() - expected) < 1e-6 &&
+                    parallel.getHardViolations() == sequential.getHardViolations() &&
+                    parallel.getParticipantCount() == participants.size();
+        });
+
+        test("Seeded formation is reproducible", () -> {
+            try {
+                List<Participant> participants = createMixedPersonalityParticipants(60);
+                List<Team> first = new TeamBuilder(participants, 5, 1234L).formTeams();
+                List<Team> second = new TeamBuilder(participants, 5, 1234L).formTeams();
+                return describeTeams(first).equals(describeTeams(second));
+            } catch (Exception e) {
+                e.printStackTrace();
+                return false;
+            }
+        });
+
+        test("Journal replay includes local-search swaps", () -> {
+            try {
+                List<Participant> participants = createMixedPersonalityParticipants(200);
+                TeamBuilder builder = new TeamBuilder(participants, 5, 17L);
+                builder.setRefinementMode(TeamBuilder.RefinementMode.LOCAL_SEARCH);
+                builder.setOptimizationBudget(50_000, 0);
+                FormationJournal journal = new FormationJournal();
+                builder.setJournal(journal);
+                List<Team> teams = builder.formTeams();
+
+                // Every placement is one add; swaps add a remove and an add each
+                return journal.getEntryCount() > participants.size() &&
+                        describeTeams(teams).equals(describeTeams(journal.replay(participants)));
+            } catch (Exception e) {
+                e.printStackTrace();
+                return false;
+            }
+        });
+
+        test("Journal replay rebuilds identical teams", () -> {
+            try {
+                List<Participant> participants = createMixedPersonalityParticipants(200);
+                TeamBuilder builder = new TeamBuilder(participants, 5, 99L);
+                FormationJournal journal = new FormationJournal();
+                builder.setJournal(journal);
+                List<Team> teams = builder.formTeamsParallel(2);
+
+                FormationJournal decoded = FormationJournal.fromByteArray(journal.toByteArray());
+                List<Team> replayed = decoded.replay(participants);
+                return decoded.getEntryCount() == journal.getEntryCount() &&
+                        describeTeams(teams).equals(describeTeams(replayed));
+            } catch (Exception e) {
+                e.printStackTrace();
+                return false;
+            }
+        });
+
+        test("Selection index picks best open team and tracks global average", () -> {
+            FormationColumns columns = new FormationColumns(2, 3, 2);
+            int first = columns.addParticipant(new Participant("P001", "A", "a@u.edu", "FIFA", 8, Role.ATTACKER, 95));
+            int second = columns.addParticipant(new Participant("P002", "B", "b@u.edu", "FIFA", 4, Role.DEFENDER, 95));
+            int attacker = columns.addParticipant(new Participant("P003", "C", "c@u.edu", "LOL", 6, Role.ATTACKER, 75));
+            columns.add(first, columns.addTeam());
+            columns.add(second, columns.addTeam());
+
+            TeamSelectionIndex.Scorer roleScorer = new TeamSelectionIndex.Scorer() {
+                public int bucketScore(FormationColumns c, int team, int p, double globalAvg) {
+                    return c.roleCount(team, c.role(p)) == 0 ? 10 : 0;
+                }
+                public int teamScore(FormationColumns c, int team, int p, int bucketScore) {
+                    return bucketScore;
+                }
+            };
+            TeamSelectionIndex index = new TeamSelectionIndex(columns, roleScorer, 0);
+            boolean picksDefenderTeam = index.findBest(attacker, new Random()) == 1;
+            boolean avgOk = Math.abs(index.getGlobalAverage() - 6.0) < 0.001;
+
+            columns.add(attacker, 1);
+            index.update(1);
+            return picksDefenderTeam && avgOk && index.getOpenTeamCount() == 1 &&
+                    index.findBest(attacker, new Random()) == 0;
+        });
+
+        test("Assignment index tracks adds, removes and swaps", () -> {
+            FormationColumns columns = new FormationColumns(2, 4, 2);
+            int[] p = new int[4];
+            for (int i = 0; i < 4; i++) {
+                p[i] = columns.addParticipant(new Participant("P00" + i, "M", "m@u.edu", "FIFA", 5, Role.ATTACKER, 75));
+            }
+            boolean noneAssigned = !columns.isAssigned(p[0]) && columns.teamOf(p[0]) == FormationColumns.NO_TEAM;
+            int teamA = columns.addTeam();
+            int teamB = columns.addTeam();
+            columns.add(p[0], teamA);
+            columns.add(p[1], teamA);
+            columns.add(p[2], teamB);
+            boolean placed = columns.teamOf(p[1]) == teamA && columns.teamOf(p[2]) == teamB &&
+                    !columns.isAssigned(p[3]);
+
+            columns.swap(p[0], p[2]);
+            boolean swapped = columns.teamOf(p[0]) == teamB && columns.teamOf(p[2]) == teamA &&
+                    columns.teamOf(p[1]) == teamA;
+
+            columns.remove(p[1]);
+            columns.add(p[3], teamA);
+            return noneAssigned && placed && swapped && !columns.isAssigned(p[1]) &&
+                    columns.teamOf(p[3]) == teamA && columns.size(teamA) == 2 && columns.size(teamB) == 1;
+        });
+
+        test("Assignment index matches team members after formation and local search", () -> {
+            List<Participant> participants = createMixedPersonalityParticipants(120);
+            TeamBuilder builder = new TeamBuilder(participants, 5, 21L);
+            builder.setRefinementMode(TeamBuilder.RefinementMode.GREEDY);
+            FormationColumns columns = FormationColumns.fromTeams(builder.formTeams());
+            boolean formed = assignmentIndexMatches(columns);
+
+            TeamOptimizer optimizer = new TeamOptimizer(50_000, 0, new Random(3));
+            optimizer.optimize(columns);
+            return formed && optimizer.getSwapsAccepted() > 0 && assignmentIndexMatches(columns);
+        });
+
+        test("Selection index over teams converted with fromTeams", () -> {
+            List<Team> teams = new ArrayList<>();
+            teams.add(new Team("TEAM_1", 2));
+            teams.add(new Team("TEAM_2", 2));
+            teams.get(0).addMember(new Participant("P001", "A", "a@u.edu", "FIFA", 8, Role.ATTACKER, 95));
+            teams.get(1).addMember(new Participant("P002", "B", "b@u.edu", "FIFA", 4, Role.DEFENDER, 95));
+
+            FormationColumns columns = FormationColumns.fromTeams(teams);
+            int attacker = columns.addParticipant(new Participant("P003", "C", "c@u.edu", "LOL", 6, Role.ATTACKER, 75));
+            TeamSelectionIndex.Scorer roleScorer = new TeamSelectionIndex.Scorer() {
+                public int bucketScore(FormationColumns c, int team, int p, double globalAvg) {
+                    return c.roleCount(team, c.role(p)) == 0 ? 10 : 0;
+                }
+                public int teamScore(FormationColumns c, int team, int p, int bucketScore) {
+                    return bucketScore;
+                }
+            };
+            TeamSelectionIndex index = new TeamSelectionIndex(columns, roleScorer, 0);
+            boolean picksDefenderTeam = index.findBest(attacker, new Random()) == 1;
+            boolean avgOk = Math.abs(index.getGlobalAverage() - 6.0) < 0.001;
+
+            columns.add(attacker, 1);
+            index.update(1);
+            return picksDefenderTeam && avgOk && index.getOpenTeamCount() == 1 &&
+                    index.findBest(attacker, new Random()) == 0 &&
+                    columns.toTeam(1).getMember(1).getId().equals("P003");
+        });
+
+        test("Selection index breaks ties uniformly across buckets of different sizes", () -> {
+            // Team 0 is alone in its bucket, teams 1-4 share one, teams 5-9 share a lower-scoring one
+            FormationColumns columns = new FormationColumns(3, 11, 10);
+            for (int t = 0; t < 10; t++) {
+                int skill = t == 0 ? 1 : t < 5 ? 2 : 3;
+                int member = columns.addParticipant(new Participant(String.format("P%03d", t), "M", "m@u.edu",
+                        "FIFA", skill, Role.ATTACKER, 75));
+                columns.add(member, columns.addTeam());
+            }
+            int query = columns.addParticipant(new Participant("P100", "Q", "q@u.edu", "LOL", 5, Role.DEFENDER, 75));
+
+            Random jitter = new Random(5);
+            TeamSelectionIndex.Scorer jitterScorer = new TeamSelectionIndex.Scorer() {
+                public int bucketScore(FormationColumns c, int team, int p, double globalAvg) {
+                    return c.skillSum(team) == 3 ? 9 : 10;
+                }
+                public int teamScore(FormationColumns c, int team, int p, int bucketScore) {
+                    return bucketScore + jitter.nextInt(4);
+                }
+            };
+            TeamSelectionIndex index = new TeamSelectionIndex(columns, jitterScorer, 3);
+
+            // Reference: score every team, pick uniformly among the best
+            int trials = 100_000;
+            int[] indexed = new int[10];
+            int[] reference = new int[10];
+            Random random = new Random(6);
+            for (int i = 0; i < trials; i++) {
+                indexed[index.findBest(query, random)]++;
+
+                int best = Integer.MIN_VALUE;
+                int pick = -1;
+                int ties = 0;
+                for (int t = 0; t < 10; t++) {
+                    int score = jitterScorer.teamScore(columns, t, query, jitterScorer.bucketScore(columns, t, query, 0));
+                    if (score > best) {
+                        best = score;
+                        pick = t;
+                        ties = 1;
+                    } else if (score == best && random.nextInt(++ties) == 0) {
+                        pick = t;
+                    }
+                }
+                reference[pick]++;
+            }
+            for (int t = 0; t < 10; t++) {
+                if (Math.abs(indexed[t] - reference[t]) > trials / 100) return false;
+            }
+            return true;
+        });
+
+        test("Selection index finds the best placement score among many skill sums", () -> {
+            // Placement scores without jitter, so the best score is unique to check
+            PlacementScorer placement = new PlacementScorer(new Random(1));
+            TeamSelectionIndex.Scorer exactScorer = new TeamSelectionIndex.Scorer() {
+                public int bucketScore(FormationColumns c, int team, int p, double globalAvg) {
+                    return placement.bucketScore(c, team, p, globalAvg);
+                }
+                public int teamScore(FormationColumns c, int team, int p, int bucketScore) {
+                    return bucketScore - (c.gameCount(team, c.game(p)) >= 3 ? 40 : 0);
+                }
+            };
+            Random random = new Random(9);
+            List<Participant> pool = createMixedPersonalityParticipants(2000);
+            FormationColumns columns = new FormationColumns(5, pool.size(), 300);
+            for (int t = 0; t < 300; t++) {
+                columns.addTeam();
+            }
+            TeamSelectionIndex index = new TeamSelectionIndex(columns, exactScorer, 0);
+            for (int i = 0; i < pool.size(); i++) {
+                int p = columns.addParticipant(pool.get(i));
+                int found = index.findBest(p, random);
+                if (found < 0) break;
+
+                int best = Integer.MIN_VALUE;
+                for (int t = 0; t < columns.getTeamCount(); t++) {
+                    if (columns.isFull(t)) continue;
+                    best = Math.max(best, exactScorer.teamScore(columns, t, p,
+                            exactScorer.bucketScore(columns, t, p, index.getGlobalAverage())));
+                }
+                int foundScore = exactScorer.teamScore(columns, found, p,
+                        exactScorer.bucketScore(columns, found, p, index.getGlobalAverage()));
+                if (foundScore != best) return false;
+
+                // Place at random so teams spread over many skill sums
+                int t = random.nextInt(columns.getTeamCount());
+                while (columns.isFull(t)) t = (t + 1) % columns.getTeamCount();
+                columns.add(p, t);
+                index.update(t);
+            }
+            return index.getOpenTeamCount() == 0;
+        });
+
+        test("Online formation places, removes and rebalances participants", () -> {
+            List<Participant> participants = createMixedPersonalityParticipants(100);
+            OnlineTeamFormation online = new OnlineTeamFormation(5, 4, new Random(7));
+            for (Participant p : participants) {
+                online.place(p);
+            }
+            boolean removed = online.remove(participants.get(0).getId());
+            Participant edited = participants.get(1);
+            edited.setSkillLevel(10);
+            boolean refreshed = online.refresh(edited);
+
+            double before = TeamOptimizer.evaluate(online.getTeams());
+            double after = online.rebalance();
+
+            Set<String> seen = new HashSet<>();
+            int skillSum = 0;
+            for (Team team : online.getTeams()) {
+                if (team.getCurrentSize() > 5) return false;
+                for (Participant p : team.getMembers()) {
+                    if (!seen.add(p.getId())) return false;
+                    if (!team.getTeamId().equals(online.getTeamId(p.getId()))) return false;
+                }
+                skillSum += team.getSkillSum();
+            }
+            int expectedSum = 0;
+            for (Participant p : participants.subList(1, participants.size())) {
+                expectedSum += p.getSkillLevel();
+            }
+            return removed && refreshed && seen.size() == 99 && online.getPlacedCount() == 99 &&
+                    skillSum == expectedSum && after <= before;
+        });
     }
 
     // ==================== NEW: BALANCE VALIDATION TESTS ====================
@@ -587,6 +1291,42 @@ public class TeamMateTest {
             }
         });
 
+        test("Loaded participants share one instance per game spelling and carry game IDs", () -> {
+            try (PrintWriter writer = new PrintWriter(new FileWriter("test_games.csv"))) {
+                writer.println("ID,Name,Email,PreferredGame,SkillLevel,PreferredRole,PersonalityScore,PersonalityType");
+                writer.println("P101,A,a@uni.edu,FIFA,7,ATTACKER,95,LEADER");
+                writer.println("P102,B,b@uni.edu,FIFA,8,DEFENDER,75,BALANCED");
+                writer.println("P103,C,c@uni.edu,fifa,6,SUPPORTER,65,THINKER");
+                writer.println("P104,D,d@uni.edu,Chess,5,STRATEGIST,80,BALANCED");
+            }
+            try {
+                FileHandler handler = new FileHandler("test_games.csv", "");
+                GameDictionary games = new GameDictionary();
+                handler.setGameDictionary(games);
+                List<Participant> loaded = handler.loadParticipants();
+                Participant a = loaded.get(0);
+                Participant c = loaded.get(2);
+                Participant d = loaded.get(3);
+                boolean shared = a.getPreferredGame() == loaded.get(1).getPreferredGame() &&
+                        "fifa".equals(c.getPreferredGame()) && c.getGameId() == a.getGameId() &&
+                        d.getGameId() != a.getGameId() && a.getGameDictionary() == games;
+
+                Team team = new Team("TEAM_G", 5);
+                loaded.forEach(team::addMember);
+                boolean counted = team.getGameCount(" Fifa") == 3 && team.getGameCount("chess") == 1;
+
+                // Edits renumber through the same dictionary; a member from elsewhere still counts
+                a.setPreferredGame("CHESS");
+                team.refreshAggregates();
+                team.addMember(new Participant("P105", "E", "e@uni.edu", "chess", 4, Role.ATTACKER, 60));
+                return shared && counted && a.getGameId() == d.getGameId() &&
+                        "CHESS".equals(a.getPreferredGame()) &&
+                        team.getGameCount("Chess") == 3 && team.getGameCount("FIFA") == 2;
+            } finally {
+                new File("test_games.csv").delete();
+            }
+        });
+
         test("Save participants to CSV", () -> {
             try {
                 List<Participant> participants = createTestParticipants(5);
@@ -599,6 +1339,134 @@ public class TeamMateTest {
             }
         });
 
+        test("Quoted CSV fields load and round-trip", () -> {
+            try (Writer writer = new FileWriter("test_quoted.csv")) {
+                writer.write("ID,Name,Email,PreferredGame,SkillLevel,PreferredRole,PersonalityScore,PersonalityType\r\n" +
+                        "P201,\"Smith, Ann\",ann@uni.edu,FIFA,7,Attacker,85,BALANCED\r\n" +
+                        "P202,\"Bob \"\"Ace\"\" Lee\",bob@uni.edu,\"DOTA 2\",8,defender,95,LEADER\r\n" +
+                        "\r\n" +
+                        "P203,\"Two\nLines\",two@uni.edu,Chess, 6 ,STRATEGIST,60,THINKER\r\n" +
+                        "P204,Bad Role,bad@uni.edu,Chess,6,GOALKEEPER,60,THINKER\r\n" +
+                        "P205,\"Unclosed,x@uni.edu,Chess,6,STRATEGIST,60,THINKER\r\n");
+            }
+            List<Participant> loaded = new FileHandler("test_quoted.csv", "").loadParticipants();
+            if (loaded.size() != 3) return false;
+            boolean parsed = loaded.get(0).getName().equals("Smith, Ann") &&
+                    loaded.get(1).getName().equals("Bob \"Ace\" Lee") &&
+                    loaded.get(1).getPreferredRole() == Role.DEFENDER &&
+                    loaded.get(1).getPreferredGame().equals("DOTA 2") &&
+                    loaded.get(2).getName().equals("Two\nLines") &&
+                    loaded.get(2).getSkillLevel() == 6;
+
+            loaded.get(0).setEmail(" ann@uni.edu ");
+            new FileHandler("", "test_quoted.csv").saveParticipants(loaded, "test_quoted.csv");
+            List<Participant> reloaded = new FileHandler("test_quoted.csv", "").loadParticipants();
+            return parsed && reloaded.size() == 3 &&
+                    reloaded.get(0).getName().equals("Smith, Ann") &&
+                    reloaded.get(0).getEmail().equals(" ann@uni.edu ") &&
+                    reloaded.get(1).getName().equals("Bob \"Ace\" Lee") &&
+                    reloaded.get(2).getName().equals("Two\nLines");
+        });
+
+        test("Stray quote loses only its own line", () -> {
+            String header = "ID,Name,Email,PreferredGame,SkillLevel,PreferredRole,PersonalityScore,PersonalityType\n";
+            String good = "P%03d,Name %d,u%d@uni.edu,Chess,5,ATTACKER,75,BALANCED\n";
+            StringBuilder closedLater = new StringBuilder(header);
+            StringBuilder neverClosed = new StringBuilder(header);
+            for (int i = 1; i <= 6; i++) {
+                String row = i == 2 ? "P002,\"Ann,ann@uni.edu,Chess,5,ATTACKER,75,BALANCED\n"
+                        : i == 5 ? "P005,\"Smith, Bob\",b@uni.edu,Chess,5,ATTACKER,75,BALANCED\n"
+                        : String.format(good, i, i, i);
+                closedLater.append(row);
+                neverClosed.append(i == 5 ? String.format(good, i, i, i) : row);
+            }
+            // Over-long quoted field: the cap ends it long before the file does
+            StringBuilder overLong = new StringBuilder(header).append("P001,\"Runaway,r@uni.edu\n");
+            for (int i = 2; overLong.length() < 3 * CsvTokenizer.MAX_QUOTED_FIELD_BYTES; i++) {
+                overLong.append(String.format(good, i, i, i));
+            }
+            overLong.append("P999,\"Closed\",c@uni.edu,Chess,5,ATTACKER,75,BALANCED\n");
+
+            int logged = logLinesFrom("Skipping line").size();
+            int[] expected = {5, 5};
+            StringBuilder[] files = {closedLater, neverClosed};
+            for (int k = 0; k < files.length; k++) {
+                try (Writer writer = new FileWriter("test_stray.csv")) {
+                    writer.write(files[k].toString());
+                }
+                if (new FileHandler("test_stray.csv", "").loadParticipants().size() != expected[k]) return false;
+            }
+            List<String> skips = logLinesFrom("Skipping line");
+            if (!skips.subList(logged, skips.size()).equals(Arrays.asList("Skipping line 3", "Skipping line 3"))) {
+                return false;
+            }
+
+            try (Writer writer = new FileWriter("test_stray.csv")) {
+                writer.write(overLong.toString());
+            }
+            List<Participant> loaded = new FileHandler("test_stray.csv", "").loadParticipants();
+            return loaded.get(0).getId().equals("P002") &&
+                    loaded.get(loaded.size() - 1).getName().equals("Closed");
+        });
+
+        test("Parallel mapped load matches sequential load and skipped line numbers", () -> {
+            // Second file puts a multi-line quoted name across the first 64 KB chunk cut
+            for (boolean spanCut : new boolean[]{false, true}) {
+                StringBuilder csv = new StringBuilder("ID,Name,Email,PreferredGame,SkillLevel,PreferredRole," +
+                        "PersonalityScore,PersonalityType\n");
+                Random random = new Random(3);
+                String[] spellings = {"fifa", "Chess", "chess", "FIFA", "\"CHESS\""};
+                boolean spanned = !spanCut;
+                for (int i = 1; i <= 6000; i++) {
+                    String name = i == 10 ? "\"Multi\nLine\"" : "User " + i;
+                    if (!spanned && csv.length() > 65000) {
+                        name = "\"Long" + String.join("", Collections.nCopies(200, "\nline")) + "\"";
+                        spanned = true;
+                    }
+                    String role = i % 997 == 0 ? "GOALKEEPER" : Role.values()[random.nextInt(5)].name();
+                    int skill = i % 1499 == 0 ? 42 : 1 + random.nextInt(10);
+                    csv.append(String.format("P%05d,%s,u%d@uni.edu,%s,%d,%s,%d,X%n",
+                            i, name, i, spellings[i % spellings.length], skill, role, 50 + random.nextInt(51)));
+                }
+                try (Writer writer = new FileWriter("test_parallel.csv")) {
+                    writer.write(csv.toString());
+                }
+
+                FileHandler handler = new FileHandler("test_parallel.csv", "");
+                int logged = logLinesFrom("Skipping line").size();
+                List<Participant> sequential = handler.loadParticipants();
+                List<String> sequentialSkips = logLinesFrom("Skipping line");
+                List<Participant> parallel = handler.loadParticipantsParallel(4);
+                List<String> parallelSkips = logLinesFrom("Skipping line");
+
+                List<String> firstSkips = sequentialSkips.subList(logged, sequentialSkips.size());
+                List<String> secondSkips = parallelSkips.subList(sequentialSkips.size(), parallelSkips.size());
+                // Row 997 is the first bad one: header and row 10's second line come before it
+                if (sequential.size() != 6000 - 10 || firstSkips.size() != 10 || !firstSkips.equals(secondSkips) ||
+                        (!spanCut && !firstSkips.get(0).equals("Skipping line 999"))) {
+                    return false;
+                }
+                // Spellings stay as written, and game IDs follow file order however chunks were parsed
+                FormationColumns sequentialColumns = new FormationColumns(5, sequential.size(), 1);
+                FormationColumns parallelColumns = new FormationColumns(5, parallel.size(), 1);
+                for (int i = 0; i < sequential.size(); i++) {
+                    if (!sequential.get(i).getId().equals(parallel.get(i).getId()) ||
+                            !sequential.get(i).getName().equals(parallel.get(i).getName()) ||
+                            !sequential.get(i).getPreferredGame().equals(parallel.get(i).getPreferredGame()) ||
+                            sequentialColumns.game(sequentialColumns.addParticipant(sequential.get(i))) !=
+                                    parallelColumns.game(parallelColumns.addParticipant(parallel.get(i)))) {
+                        return false;
+                    }
+                }
+                if (!parallel.get(0).getPreferredGame().equals("Chess") || parallelColumns.game(0) != 0 ||
+                        !parallel.get(2).getPreferredGame().equals("FIFA") || parallelColumns.game(2) != 1 ||
+                        !parallel.get(3).getPreferredGame().equals("CHESS") || parallelColumns.game(3) != 0) {
+                    return false;
+                }
+            }
+            return true;
+        });
+
         test("Validate CSV file exists", () -> {
             try {
                 createSampleCSV("test_validate.csv");
@@ -618,6 +1486,37 @@ public class TeamMateTest {
                 return true;
             }
         });
+
+        test("Flight recording captures formation, file, participant and log events", () -> {
+            File dump = new File("test_recording.jfr");
+            try (Recording recording = new Recording()) {
+                for (String name : new String[]{"FormationPhase", "CsvLoad", "CsvSave", "ParticipantMutation", "LogWrite"}) {
+                    recording.enable("com.teammate." + name);
+                }
+                recording.start();
+
+                createSampleCSV("test_load.csv");
+                new FileHandler("test_load.csv", "").loadParticipants();
+                UserService users = new UserService("test_participants.csv");
+                users.registerParticipant("Flight", "flight@uni.edu", "Chess", 6, Role.STRATEGIST, 80);
+                List<Team> teams = new TeamBuilder(createMixedPersonalityParticipants(30), 5).formTeams();
+                new FileHandler("", "test_teams.csv").saveTeams(teams);
+
+                recording.stop();
+                recording.dump(dump.toPath());
+                Set<String> seen = new HashSet<>();
+                for (RecordedEvent event : RecordingFile.readAllEvents(dump.toPath())) {
+                    seen.add(event.getEventType().getName());
+                }
+                return seen.containsAll(Arrays.asList("com.teammate.FormationPhase", "com.teammate.CsvLoad",
+                        "com.teammate.CsvSave", "com.teammate.ParticipantMutation", "com.teammate.LogWrite"));
+            } catch (Exception e) {
+                e.printStackTrace();
+                return false;
+            } finally {
+                dump.delete();
+            }
+        });
     }
 
     // ==================== TESTS: Concurrency ====================
@@ -657,6 +1556,119 @@ public class TeamMateTest {
                 return false;
             }
         });
+
+        test("Parallel sharded formation assigns everyone once", () -> {
+            try {
+                List<Participant> participants = createMixedPersonalityParticipants(400);
+                TeamBuilder builder = new TeamBuilder(participants, 5);
+                List<Team> teams = builder.formTeamsParallel(4);
+
+                Set<String> assignedIds = new HashSet<>();
+                for (Team team : teams) {
+                    if (team.getPersonalityCount(PersonalityType.LEADER) != 1) return false;
+                    for (Participant p : team.getMembers()) {
+                        if (!assignedIds.add(p.getId())) return false;
+                    }
+                }
+                return teams.size() == 80 && assignedIds.size() == 400;
+            } catch (Exception e) {
+                e.printStackTrace();
+                return false;
+            }
+        });
+
+        test("Exact solver proves optimum no worse than the builder", () -> {
+            try {
+                List<Participant> participants = createMixedPersonalityParticipants(15);
+                ExactTeamSolver solver = new ExactTeamSolver(10000, 5L);
+                List<Team> teams = solver.solve(participants, 5);
+                double builderScore = TeamOptimizer.evaluate(new TeamBuilder(participants, 5, 5L).formTeams());
+
+                return solver.isOptimal() && teams.size() == 3 &&
+                        Math.abs(TeamOptimizer.evaluate(teams) - solver.getObjective()) < 1e-6 &&
+                        solver.getObjective() <= builderScore + 1e-9;
+            } catch (Exception e) {
+                e.printStackTrace();
+                return false;
+            }
+        });
+
+        test("Snake draft meets personality, game and role rules", () -> {
+            List<Participant> participants = createMixedPersonalityParticipants(1000);
+            List<Team> teams = new SnakeDraftFormation().formTeams(participants, 5);
+
+            Set<String> assignedIds = new HashSet<>();
+            for (Team team : teams) {
+                int thinkers = team.getPersonalityCount(PersonalityType.THINKER);
+                if (team.getPersonalityCount(PersonalityType.LEADER) != 1 || thinkers < 1 || thinkers > 2) return false;
+                if (team.getDistinctRoleCount() < 3) return false;
+                for (Participant p : team.getMembers()) {
+                    if (team.getGameCount(p.getPreferredGame()) > 3) return false;
+                    assignedIds.add(p.getId());
+                }
+            }
+            return teams.size() == 200 && assignedIds.size() == 1000 &&
+                    StrategyRegistry.standard().select(1_000_000).getName().equals(SnakeDraftStrategy.NAME);
+        });
+
+        test("Snake draft skips full teams when Leaders and Thinkers outnumber the slots", () -> {
+            List<Participant> participants = new ArrayList<>();
+            for (int i = 0; i < 5; i++) {
+                participants.add(new Participant("L" + i, "L", "l@u.edu", "FIFA", 5 + i, Role.values()[i % 5], 95));
+            }
+            for (int i = 0; i < 6; i++) {
+                participants.add(new Participant("T" + i, "T", "t@u.edu", "Chess", 2 + i, Role.values()[i % 5], 60));
+            }
+            List<Team> teams = new SnakeDraftFormation(3L).formTeams(participants, 2);
+
+            Set<String> assignedIds = new HashSet<>();
+            for (Team team : teams) {
+                if (team.getCurrentSize() != 2 || team.getPersonalityCount(PersonalityType.LEADER) != 1) return false;
+                for (Participant p : team.getMembers()) assignedIds.add(p.getId());
+            }
+            return teams.size() == 5 && assignedIds.size() == 10;
+        });
+
+        test("Multi-start formation keeps the best of N runs", () -> {
+            try {
+                List<Participant> participants = createMixedPersonalityParticipants(40);
+                MultiStartFormation.Result result = new MultiStartFormation(4, 2).form(participants, 5, 42L);
+
+                double[] scores = result.getScores();
+                return scores.length == 4 && result.getTeams().size() == 8 &&
+                        Math.abs(TeamOptimizer.evaluate(result.getTeams()) - result.getBestScore()) < 1e-6 &&
+                        result.getBestScore() <= result.getMeanScore();
+            } catch (Exception e) {
+                e.printStackTrace();
+                return false;
+            }
+        });
+
+        test("Multi-start runs log in run order and reproduce from their seed", () -> {
+            try {
+                List<Participant> participants = createMixedPersonalityParticipants(40);
+                int logged = logLinesFrom("").size();
+                MultiStartFormation formation = new MultiStartFormation(3, 3);
+                formation.setOptimizationBudget(5_000, 0);
+                MultiStartFormation.Result result = formation.form(participants, 5, 7L);
+
+                // Each run's lines are written together: start, end, start, end, ...
+                List<String> events = new ArrayList<>();
+                List<String> lines = logLinesFrom("");
+                for (String line : lines.subList(logged, lines.size())) {
+                    if (line.contains("Shuffled participants")) events.add("start");
+                    if (line.contains("Team formation complete")) events.add("end");
+                }
+
+                TeamBuilder replay = new TeamBuilder(participants, 5, result.getSeed());
+                replay.setOptimizationBudget(5_000, 0);
+                return events.equals(Arrays.asList("start", "end", "start", "end", "start", "end")) &&
+                        Math.abs(TeamOptimizer.evaluate(replay.formTeams()) - result.getBestScore()) < 1e-9;
+            } catch (Exception e) {
+                e.printStackTrace();
+                return false;
+            }
+        });
     }
 
     // ==================== USER ACCEPTANCE TESTS ====================
@@ -733,6 +1745,15 @@ public class TeamMateTest {
         return participants;
     }
 
+    private static double skillVariance(FormationColumns columns, double globalAvg) {
+        double sum = 0;
+        for (int t = 0; t < columns.getTeamCount(); t++) {
+            double deviation = columns.average(t) - globalAvg;
+            sum += deviation * deviation;
+        }
+        return sum / columns.getTeamCount();
+    }
+
     private static List<Participant> createMixedPersonalityParticipants(int count) {
         List<Participant> participants = new ArrayList<>();
         Role[] roles = Role.values();
@@ -782,6 +1803,45 @@ public class TeamMateTest {
         return participants;
     }
 
+    private static boolean assignmentIndexMatches(FormationColumns columns) {
+        int members = 0;
+        for (int t = 0; t < columns.getTeamCount(); t++) {
+            for (int k = 0; k < columns.size(t); k++) {
+                if (columns.teamOf(columns.member(t, k)) != t) return false;
+                members++;
+            }
+        }
+        for (int p = 0; p < columns.getParticipantCount(); p++) {
+            if (!columns.isAssigned(p)) return false;
+        }
+        return members == columns.getParticipantCount();
+    }
+
+    private static List<String> describeTeams(List<Team> teams) {
+        List<String> description = new ArrayList<>();
+        for (Team team : teams) {
+            StringBuilder line = new StringBuilder(team.getTeamId()).append(':');
+            for (Participant p : team.getMembers()) {
+                line.append(p.getId()).append(' ');
+            }
+            description.add(line.toString());
+        }
+        return description;
+    }
+
+    private static List<String> logLinesFrom(String text) throws IOException {
+        List<String> lines = new ArrayList<>();
+        File log = new File("teammate_application.log");
+        if (!log.exists()) return lines;
+        try (BufferedReader reader = new BufferedReader(new FileReader(log))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.contains(text)) lines.add(line.substring(line.indexOf(text)));
+            }
+        }
+        return lines;
+    }
+
     private static void createSampleCSV(String filename) {
         try (PrintWriter writer = new PrintWriter(new FileWriter(filename))) {
             writer.println("ID,Name,Email,PreferredGame,SkillLevel,PreferredRole,PersonalityScore,PersonalityType");
@@ -0,0 +1,113 @@
+package com.teammate.util;
+
+import java.io.InputStream;
+import java.util.Iterator;
+import java.util.Scanner;
+import java.util.concurrent.LinkedBlockingDeque;
+
+/**
+ * ConsoleInput - Single reader of console lines
+ *
+ * One daemon thread owns the Scanner and queues every line it reads, numbered
+ * in arrival order. Menu prompts take lines from the front of the queue, and
+ * a long-running task can claim a line typed after it started (for example to
+ * cancel it) without a second reader touching the stream. Lines typed ahead
+ * of the task stay queued for the prompts that follow.
+ *
+ * @author Krisanthi Segar 2425596
+ * @version 1.0
+ * @since 2025
+ */
+public class ConsoleInput {
+
+    // Queued after the last line once the input ends
+    private static final Line END = new Line(Long.MAX_VALUE, null);
+
+    private final Scanner scanner;
+    private final LinkedBlockingDeque<Line> lines = new LinkedBlockingDeque<>();
+    private volatile long received;
+
+    /**
+     * Starts reading lines from a stream
+     * @param in The input stream, usually System.in
+     */
+    public ConsoleInput(InputStream in) {
+        this.scanner = new Scanner(in);
+        Thread reader = new Thread(this::readLines, "console-input");
+        reader.setDaemon(true);
+        reader.start();
+    }
+
+    private void readLines() {
+        try {
+            while (scanner.hasNextLine()) {
+                String text = scanner.nextLine();
+                long number = received + 1;
+                received = number;
+                lines.add(new Line(number, text));
+            }
+        } catch (IllegalStateException e) {
+            // Scanner closed while waiting for input
+        }
+        lines.add(END);
+    }
+
+    /**
+     * Takes the next line, waiting for one to be typed
+     * @return The line, or null once the input has ended
+     */
+    public String nextLine() {
+        try {
+            Line line = lines.take();
+            if (line == END) {
+                lines.addFirst(END);
+            }
+            return line.text;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    /**
+     * Marks the current position in the input
+     * @return Number of lines read so far
+     */
+    public long mark() {
+        return received;
+    }
+
+    /**
+     * Removes the first line typed after a mark, if there is one
+     * @param mark Value returned by mark()
+     * @return true if such a line was found and removed
+     */
+    public boolean takeLineAfter(long mark) {
+        Iterator<Line> it = lines.iterator();
+        while (it.hasNext()) {
+            Line line = it.next();
+            if (line != END && line.number > mark) {
+                it.remove();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Closes the underlying scanner and stream
+     */
+    public void close() {
+        scanner.close();
+    }
+
+    private static final class Line {
+        private final long number;
+        private final String text;
+
+        Line(long number, String text) {
+            this.number = number;
+            this.text = text;
+        }
+    }
+}
@@ -9,6 +9,13 @@ import java.time.format.DateTimeFormatter;
  *
  * Logs application events to file with timestamps and severity levels.
  * Supports INFO, WARNING, and ERROR levels for categorizing events.
+ * Each write is a JFR event (TeamMateEvents.LogWrite), so logging cost shows
+ * up in flight recordings.
+ *
+ * Worker threads that log a lot (formation shards, multi-start runs) can call
+ * startBuffer() to collect their lines in memory instead of opening the file
+ * for every line under the shared lock; the coordinating thread then writes
+ * each worker's takeBuffer() result with writeBuffered() in a fixed order.
  *
  * @author Krisanthi Segar 2425596
  * @version 1.0
@@ -18,6 +25,8 @@ public class Logger {
 
     private static final String LOG_FILE = "teammate_application.log";
     private static final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final Object FILE_LOCK = new Object();
+    private static final ThreadLocal<StringBuilder> buffer = new ThreadLocal<>();
 
     /**
      * Logs an informational message
@@ -44,19 +53,78 @@ public class Logger {
     }
 
     /**
-     * Core logging method that writes to file
+     * Starts collecting this thread's log lines in memory
+     */
+    public static void startBuffer() {
+        buffer.set(new StringBuilder());
+    }
+
+    /**
+     * Stops collecting this thread's log lines
+     * @return Lines logged since startBuffer(), one per line; empty if none
+     */
+    public static String takeBuffer() {
+        StringBuilder lines = buffer.get();
+        buffer.remove();
+        return lines == null ? "" : lines.toString();
+    }
+
+    /**
+     * Appends lines collected by takeBuffer() to the log file in one write
+     * @param lines Buffered lines
+     */
+    public static void writeBuffered(String lines) {
+        if (!lines.isEmpty()) {
+            write(lines);
+        }
+    }
+
+    /**
+     * Core logging method that writes to file, or to this thread's buffer
      * @param level The log level
      * @param message The message to log
      */
     private static void log(String level, String message) {
+        TeamMateEvents.LogWrite event = new TeamMateEvents.LogWrite();
+        event.begin();
         String timestamp = LocalDateTime.now().format(formatter);
         String logMessage = String.format("[%s] [%s] %s", timestamp, level, message);
 
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(LOG_FILE, true))) {
-            writer.write(logMessage);
-            writer.newLine();
-        } catch (IOException e) {
-            System.err.println("Failed to write to log file: " + e.getMessage());
+        emit(logMessage + System.lineSeparator());
+
+        event.end();
+        if (event.shouldCommit()) {
+            event.level = level;
+            event.characters = logMessage.length();
+            event.commit();
+        }
+    }
+
+    /**
+     * Sends complete lines to this thread's buffer if it has one, else to the file
+     * @param text Complete lines
+     */
+    private static void emit(String text) {
+        StringBuilder lines = buffer.get();
+        if (lines != null) {
+            lines.append(text);
+        } else {
+            write(text);
+        }
+    }
+
+    /**
+     * Appends text to the log file
+     * Synchronized so lines from concurrent threads do not interleave.
+     * @param text Complete lines
+     */
+    private static void write(String text) {
+        synchronized (FILE_LOCK) {
+            try (BufferedWriter writer = new BufferedWriter(new FileWriter(LOG_FILE, true))) {
+                writer.write(text);
+            } catch (IOException e) {
+                System.err.println("Failed to write to log file: " + e.getMessage());
+            }
         }
     }
 
@@ -80,17 +148,11 @@ public class Logger {
     public static void logException(String message, Exception e) {
         logError(message + ": " + e.getMessage());
 
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(LOG_FILE, true))) {
-            writer.write("Stack Trace:");
-            writer.newLine();
-
-            for (StackTraceElement element : e.getStackTrace()) {
-                writer.write("  at " + element.toString());
-                writer.newLine();
-            }
-            writer.newLine();
-        } catch (IOException ioException) {
-            System.err.println("Failed to write stack trace to log file");
+        String newLine = System.lineSeparator();
+        StringBuilder trace = new StringBuilder("Stack Trace:").append(newLine);
+        for (StackTraceElement element : e.getStackTrace()) {
+            trace.append("  at ").append(element).append(newLine);
         }
+        emit(trace.append(newLine).toString());
     }
 }
\ No newline at end of file
@@ -0,0 +1,130 @@
+package com.teammate.util;
+
+import jdk.jfr.*;
+
+/**
+ * TeamMateEvents - Java Flight Recorder event types
+ *
+ * TeamMate's formation phases, CSV loads and saves, participant mutations and
+ * log writes show up as timed events in a JFR recording, next to the JVM's own
+ * GC and I/O events. Callers follow the usual JFR pattern:
+ *
+ *   event.begin(); ...work...; event.end();
+ *   if (event.shouldCommit()) { fill in fields; event.commit(); }
+ *
+ * so with recording off the event is never filled in or committed, and the JIT
+ * removes the unused event object.
+ *
+ * Enable them with -XX:StartFlightRecording or a jdk.jfr.Recording; every type
+ * is in the "TeamMate" category and named com.teammate.*.
+ *
+ * @author Krisanthi Segar 2425596
+ * @version 1.0
+ * @since 2025
+ */
+public final class TeamMateEvents {
+
+    private TeamMateEvents() {
+    }
+
+    /**
+     * One phase of a TeamBuilder run
+     */
+    @Name("com.teammate.FormationPhase")
+    @Label("Formation Phase")
+    @Category({"TeamMate", "Formation"})
+    @Description("One phase of team formation")
+    public static final class FormationPhase extends Event {
+        @Label("Phase")
+        public String phase;
+
+        @Label("Participants")
+        public int participants;
+
+        @Label("Teams")
+        public int teams;
+    }
+
+    /**
+     * Participants read from a CSV file
+     */
+    @Name("com.teammate.CsvLoad")
+    @Label("CSV Load")
+    @Category({"TeamMate", "File I/O"})
+    @Description("Participants loaded from a CSV file")
+    public static final class CsvLoad extends Event {
+        @Label("Path")
+        public String path;
+
+        @Label("Bytes")
+        @DataAmount
+        public long bytes;
+
+        @Label("Rows")
+        public int rows;
+
+        @Label("Skipped Rows")
+        public int skippedRows;
+    }
+
+    /**
+     * Participants or teams written to a CSV file
+     */
+    @Name("com.teammate.CsvSave")
+    @Label("CSV Save")
+    @Category({"TeamMate", "File I/O"})
+    @Description("Participants or teams saved to a CSV file")
+    public static final class CsvSave extends Event {
+        @Label("Path")
+        public String path;
+
+        @Label("Content")
+        @Description("participants or teams")
+        public String content;
+
+        @Label("Bytes")
+        @DataAmount
+        public long bytes;
+
+        @Label("Rows")
+        public int rows;
+    }
+
+    /**
+     * A participant registered, updated or deleted through UserService
+     */
+    @Name("com.teammate.ParticipantMutation")
+    @Label("Participant Mutation")
+    @Category({"TeamMate", "Participants"})
+    @Description("Participant change including the CSV write it caused")
+    public static final class ParticipantMutation extends Event {
+        @Label("Operation")
+        public String operation;
+
+        @Label("Participant ID")
+        public String participantId;
+
+        @Label("Participants")
+        @Description("Participants held after the change")
+        public int participants;
+
+        @Label("CSV Bytes")
+        @Description("Size of the CSV file after the append or rewrite")
+        @DataAmount
+        public long csvBytes;
+    }
+
+    /**
+     * One line written to the application log
+     */
+    @Name("com.teammate.LogWrite")
+    @Label("Log Write")
+    @Category({"TeamMate", "Logging"})
+    public static final class LogWrite extends Event {
+        @Label("Level")
+        public String level;
+
+        @Label("Characters")
+        public int characters;
+    }
+}
@@ -37,7 +37,16 @@ public class ValidationUtils {
         if (id == null || id.trim().isEmpty()) {
             return false;
         }
-        return id.matches("P\\d{3,}");
+        // P followed by at least three digits, checked without a regex
+        if (id.length() < 4 || id.charAt(0) != 'P') {
+            return false;
+        }
+        for (int i = 1; i < id.length(); i++) {
+            if (id.charAt(i) < '0' || id.charAt(i) > '9') {
+                return false;
+            }
+        }
+        return true;
     }
 
     /**